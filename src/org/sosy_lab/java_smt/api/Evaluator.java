@@ -8,7 +8,10 @@
 
 package org.sosy_lab.java_smt.api;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.math.BigInteger;
+import java.util.Collection;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
@@ -113,6 +116,25 @@ public interface Evaluator extends AutoCloseable {
    */
   @Nullable FloatingPointNumber evaluate(FloatingPointFormula formula);
 
+  /**
+   * Evaluate several formulas at once, like {@link #evaluate(Formula)} for each formula. Solvers
+   * can override this method to evaluate all formulas with fewer native calls.
+   *
+   * @param formulas formulas to evaluate, array formulas are not supported.
+   * @return a mapping from each formula to its value. Formulas without a value in the model are
+   *     missing in the mapping.
+   */
+  default ImmutableMap<Formula, Object> evaluateAll(Collection<? extends Formula> formulas) {
+    ImmutableMap.Builder<Formula, Object> values = ImmutableMap.builder();
+    for (Formula formula : ImmutableSet.copyOf(formulas)) {
+      Object value = evaluate(formula);
+      if (value != null) {
+        values.put(formula, value);
+      }
+    }
+    return values.buildOrThrow();
+  }
+
   /**
    * Free resources associated with this evaluator (existing {@link Formula} instances stay valid,
    * but {@link #evaluate(Formula)} etc. must not be called again).
@@ -8,6 +8,7 @@
 
 package org.sosy_lab.java_smt.api;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.List;
@@ -147,6 +148,19 @@ public interface FormulaManager {
    */
   BooleanFormula parse(String s) throws IllegalArgumentException;
 
+  /**
+   * Release the memory that is used for remembering the declaration of the given variable or
+   * uninterpreted function, e.g., when an SSA-indexed variable is no longer needed.
+   *
+   * <p>Existing formulas that contain the symbol remain valid, and the symbol can be created again
+   * with the same type. However, {@link #parse(String)} does no longer know the symbol, i.e., a
+   * parsed query must declare it, otherwise parsing fails for solvers that require declarations.
+   *
+   * <p>The default implementation does nothing, because most solvers do not remember symbols
+   * separately from their formulas.
+   */
+  default void releaseSymbol(String symbol) {}
+
   /**
    * Serialize an input formula to an SMT-LIB format. Very useful when passing formulas between
    * different solvers.
@@ -225,6 +239,44 @@ public interface FormulaManager {
    */
   <T extends Formula> T transformRecursively(T f, FormulaTransformationVisitor pFormulaVisitor);
 
+  /**
+   * Visit the formula recursively like {@link #visitRecursively(Formula, FormulaVisitor)}, but
+   * additionally skip all sub-formulas that were already visited in a previous call of this method
+   * with the same visitor instance. This allows incremental analyses of many formulas with shared
+   * sub-formulas to pay only for the new parts of each formula.
+   *
+   * <p>Visited formulas are remembered per visitor instance in a bounded cache with LRU eviction,
+   * i.e., a sub-formula might be visited again if it was evicted in between. The cache is released
+   * as soon as the visitor is no longer referenced. If the visitor aborts the traversal, nothing
+   * of this traversal is remembered, i.e., the next call visits all its sub-formulas again.
+   *
+   * <p>The default implementation does not cache anything and visits the whole formula.
+   */
+  default void visitRecursivelyWithCache(
+      Formula f, FormulaVisitor<TraversalProcess> rFormulaVisitor) {
+    visitRecursively(f, rFormulaVisitor);
+  }
+
+  /**
+   * Transform the formula recursively like {@link #transformRecursively(Formula,
+   * FormulaTransformationVisitor)}, but additionally reuse the results of previous calls of this
+   * method with the same visitor instance. This allows to apply the same transformation to many
+   * formulas with shared sub-formulas, e.g. in incremental analyses, and to pay only for the new
+   * parts of each formula.
+   *
+   * <p>The visitor must be free of side effects, i.e., the transformation of a formula must not
+   * depend on previous transformations. Results are kept per visitor instance in a bounded cache
+   * with LRU eviction, which is released as soon as the visitor is no longer referenced.
+   *
+   * <p>The default implementation does not cache anything and transforms the whole formula.
+   *
+   * @param pFormulaVisitor Transformation described by the user.
+   */
+  default <T extends Formula> T transformRecursivelyWithCache(
+      T f, FormulaTransformationVisitor pFormulaVisitor) {
+    return transformRecursively(f, pFormulaVisitor);
+  }
+
   /**
    * Extract the names of all free variables and UFs in a formula.
    *
@@ -256,11 +308,26 @@ public interface FormulaManager {
    */
   <T extends Formula> T substitute(T f, Map<? extends Formula, ? extends Formula> fromToMapping);
 
+  /**
+   * Apply the same substitution as {@link #substitute(Formula, Map)} to several formulas at once.
+   *
+   * <p>This is more efficient than substituting each formula on its own, because the mapping is
+   * converted only once, and sub-formulas that are shared between the given formulas are
+   * substituted only once.
+   *
+   * @param formulas Formulas to change.
+   * @param fromToMapping Mapping of old and new formula parts.
+   * @return Formulas with parts replaced, in the same order as the input.
+   */
+  <T extends Formula> ImmutableList<T> substituteAll(
+      List<T> formulas, Map<? extends Formula, ? extends Formula> fromToMapping);
+
   /**
    * Translates the formula from another context into the context represented by {@code this}.
-   * Default implementation relies on string serialization ({@link #dumpFormula(BooleanFormula)} and
-   * {@link #parse(String)}), but each solver may implement more efficient translation between its
-   * own contexts.
+   * Default implementation rebuilds the formula structurally with the visitor of the other context
+   * ({@link org.sosy_lab.java_smt.utils.FormulaTranslator}), and relies on string serialization
+   * ({@link #dumpFormula(BooleanFormula)} and {@link #parse(String)}) for formulas with unsupported
+   * operations. Each solver may implement more efficient translation between its own contexts.
    *
    * @param formula Formula belonging to {@code otherContext}.
    * @param otherManager Formula manager belonging to the other context.
@@ -11,9 +11,11 @@ package org.sosy_lab.java_smt.api;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BiPredicate;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
 
 /**
@@ -55,6 +57,22 @@ public interface Model extends Evaluator, Iterable<ValueAssignment>, AutoCloseab
     return asList().iterator();
   }
 
+  /**
+   * Iterate over the values of all symbols that match the given filter. The filter is applied to
+   * the name and type of each symbol before its values are retrieved from the solver. Thus, if only
+   * a few symbols of a large model are of interest, this is much cheaper than {@link #asList()}.
+   * Solvers that support it convert the assignments lazily while iterating.
+   *
+   * <p>The iteration includes the same assignments as {@link #iterator()}, restricted to the
+   * matching symbols. Like {@link #iterator()}, the returned iterator must not be used after
+   * closing the model.
+   *
+   * @param symbolFilter is called with the name of a symbol and the type of its assignments, i.e.,
+   *     the type of a variable, the return type of an uninterpreted function, or the (innermost)
+   *     element type of an array.
+   */
+  Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> symbolFilter);
+
   /** Build a list of assignments that stays valid after closing the model. */
   ImmutableList<ValueAssignment> asList();
 
@@ -71,6 +89,14 @@ public interface Model extends Evaluator, Iterable<ValueAssignment>, AutoCloseab
   @Override
   String toString();
 
+  /**
+   * Get statistics about the usage of this model, e.g., about cached evaluations. We do not
+   * guarantee any specific key to be present, and the mapping can be empty.
+   */
+  default ImmutableMap<String, String> getStatistics() {
+    return ImmutableMap.of();
+  }
+
   /**
    * Free resources associated with this model (existing {@link ValueAssignment} instances stay
    * valid, but {@link #evaluate(Formula)} etc. and {@link #iterator()} must not be called again).
@@ -53,7 +53,18 @@ public interface SolverContext extends AutoCloseable {
     GENERATE_UNSAT_CORE_OVER_ASSUMPTIONS,
 
     /** Whether the solver should enable support for formulae build in SL theory. */
-    ENABLE_SEPARATION_LOGIC
+    ENABLE_SEPARATION_LOGIC,
+
+    /**
+     * Whether a solver without native support for solving with assumptions should emulate it with
+     * selector literals. Each assumption is guarded by a fresh Boolean variable, the guarded
+     * formula stays asserted, and a check with assumptions only fixes the selectors within one
+     * additional stack level. This is faster than the default emulation with one stack level per
+     * assumption and keeps the solver state across checks, but the selector variables are visible
+     * in models. This option has no effect on solvers with native support for assumptions, and it
+     * is only supported for {@link ProverEnvironment}.
+     */
+    USE_SELECTORS_FOR_ASSUMPTIONS
   }
 
   /**
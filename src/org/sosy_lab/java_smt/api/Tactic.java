@@ -32,7 +32,8 @@ public enum Tactic {
    * size explosion. The resulting formula is not <i>equivalent</i> but only <i>equisatisfiable</i>
    * to the original one.
    *
-   * <p>NB: currently this tactic does not have a default implementation.
+   * <p>The default implementation shares the encoding of common sub-formulas and only emits the
+   * clauses required by the polarity of each sub-formula (Plaisted-Greenbaum encoding).
    */
   TSEITIN_CNF,
 
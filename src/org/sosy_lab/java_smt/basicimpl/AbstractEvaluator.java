@@ -9,7 +9,13 @@
 package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.ArrayFormula;
@@ -109,6 +115,32 @@ public abstract class AbstractEvaluator<TFormulaInfo, TType, TEnv> implements Ev
     return evaluateImpl(creator.extractInfo(f));
   }
 
+  @Override
+  public final ImmutableMap<Formula, Object> evaluateAll(Collection<? extends Formula> pFormulas) {
+    Preconditions.checkState(!isClosed());
+    ImmutableList<Formula> formulas = ImmutableSet.<Formula>copyOf(pFormulas).asList();
+    List<TFormulaInfo> terms = new ArrayList<>(formulas.size());
+    for (Formula f : formulas) {
+      Preconditions.checkArgument(
+          !(f instanceof ArrayFormula),
+          "cannot compute a simple constant evaluation for an array-formula");
+      terms.add(creator.extractInfo(f));
+    }
+    List<@Nullable TFormulaInfo> evaluations = evalAllImpl(terms);
+    Preconditions.checkState(evaluations.size() == terms.size());
+    ImmutableMap.Builder<Formula, Object> values = ImmutableMap.builder();
+    for (int i = 0; i < terms.size(); i++) {
+      TFormulaInfo evaluation = evaluations.get(i);
+      if (evaluation != null) {
+        Object value = creator.convertValue(terms.get(i), evaluation);
+        if (value != null) {
+          values.put(formulas.get(i), value);
+        }
+      }
+    }
+    return values.buildOrThrow();
+  }
+
   /**
    * Simplify the given formula and replace all symbols with their model values. If a symbol is not
    * set in the model and evaluation aborts, return <code>null</code>.
@@ -116,6 +148,19 @@ public abstract class AbstractEvaluator<TFormulaInfo, TType, TEnv> implements Ev
   @Nullable
   protected abstract TFormulaInfo evalImpl(TFormulaInfo formula);
 
+  /**
+   * Evaluate several formulas like {@link #evalImpl} and return the results in the same order.
+   * Solvers that can evaluate several formulas with a single native call should override this
+   * method.
+   */
+  protected List<@Nullable TFormulaInfo> evalAllImpl(List<TFormulaInfo> formulas) {
+    List<@Nullable TFormulaInfo> evaluations = new ArrayList<>(formulas.size());
+    for (TFormulaInfo formula : formulas) {
+      evaluations.add(evalImpl(formula));
+    }
+    return evaluations;
+  }
+
   /**
    * Simplify the given formula and replace all symbols with their model values. If a symbol is not
    * set in the model and evaluation aborts, return <code>null</code>. Afterwards convert the
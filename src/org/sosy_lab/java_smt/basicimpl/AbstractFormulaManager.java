@@ -14,11 +14,15 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -44,6 +48,9 @@ import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 import org.sosy_lab.java_smt.basicimpl.tactics.NNFVisitor;
+import org.sosy_lab.java_smt.basicimpl.tactics.QELightVisitor;
+import org.sosy_lab.java_smt.basicimpl.tactics.TseitinCNFConverter;
+import org.sosy_lab.java_smt.utils.FormulaTranslator;
 import org.sosy_lab.java_smt.utils.SolverUtils;
 
 /**
@@ -128,6 +135,13 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
 
   private final FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> formulaCreator;
 
+  /**
+   * Translators from other managers into this one, see {@link #translateFrom}. The translators are
+   * only softly referenced, because each of them references its source manager.
+   */
+  private final Cache<FormulaManager, FormulaTranslator> translators =
+      CacheBuilder.newBuilder().weakKeys().softValues().build();
+
   /** Builds a solver from the given theory implementations. */
   @SuppressWarnings("checkstyle:parameternumber")
   protected AbstractFormulaManager(
@@ -268,6 +282,11 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return dumpFormula(formulaCreator.extractInfo(t));
   }
 
+  @Override
+  public void releaseSymbol(String pSymbol) {
+    formulaCreator.releaseSymbol(checkNotNull(pSymbol));
+  }
+
   @Override
   public final <T extends Formula> FormulaType<T> getFormulaType(T formula) {
     return formulaCreator.getFormulaType(checkNotNull(formula));
@@ -316,10 +335,10 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
    * @throws InterruptedException Can be thrown by the native code.
    */
   protected BooleanFormula applyQELightImpl(BooleanFormula pF) throws InterruptedException {
-
-    // Returning the untouched formula is valid according to QE_LIGHT contract.
-    // TODO: substitution-based implementation.
-    return pF;
+    if (quantifiedManager == null) {
+      return pF; // no quantifiers available
+    }
+    return transformRecursively(pF, new QELightVisitor(this));
   }
 
   /**
@@ -329,10 +348,7 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
    * @throws InterruptedException Can be thrown by the native code.
    */
   protected BooleanFormula applyCNFImpl(BooleanFormula pF) throws InterruptedException {
-
-    // TODO: generic implementation.
-    throw new UnsupportedOperationException(
-        "Currently there is no generic implementation for CNF conversion");
+    return new TseitinCNFConverter(this).convert(pF);
   }
 
   /**
@@ -376,6 +392,18 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return formulaCreator.transformRecursively(pFormulaVisitor, f);
   }
 
+  @Override
+  public void visitRecursivelyWithCache(
+      Formula pF, FormulaVisitor<TraversalProcess> pFormulaVisitor) {
+    formulaCreator.visitRecursivelyWithCache(pFormulaVisitor, pF);
+  }
+
+  @Override
+  public <T extends Formula> T transformRecursivelyWithCache(
+      T f, FormulaTransformationVisitor pFormulaVisitor) {
+    return formulaCreator.transformRecursivelyWithCache(pFormulaVisitor, f);
+  }
+
   /**
    * Extract names of all free variables in a formula.
    *
@@ -402,12 +430,26 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return found.buildKeepingLast();
   }
 
+  /**
+   * Translates the formula structurally with a {@link FormulaTranslator}, which is kept per other
+   * manager and thus reuses previous translations. If the formula contains operations that the
+   * translator or the target manager do not support, i.e., if an {@link
+   * UnsupportedOperationException} is thrown, the translation falls back to the SMT-LIB2
+   * serialization.
+   */
   @Override
   public BooleanFormula translateFrom(BooleanFormula formula, FormulaManager otherManager) {
     if (this == otherManager) {
       return formula; // shortcut
     }
-    return parse(otherManager.dumpFormula(formula).toString());
+    FormulaTranslator translator =
+        translators.asMap().computeIfAbsent(otherManager, m -> new FormulaTranslator(m, this));
+    try {
+      return translator.translate(formula);
+    } catch (UnsupportedOperationException e) {
+      // only operations that can not be rebuilt, any other exception is a bug of the translator
+      return parse(otherManager.dumpFormula(formula).toString());
+    }
   }
 
   @Override
@@ -468,34 +510,54 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
   @Override
   public <T extends Formula> T substitute(
       final T pF, final Map<? extends Formula, ? extends Formula> pFromToMapping) {
-    return transformRecursively(
-        pF,
-        new FormulaTransformationVisitor(this) {
-          @Override
-          public Formula visitFreeVariable(Formula f, String name) {
-            return replace(f);
-          }
+    return transformRecursively(pF, createSubstitutionVisitor(pFromToMapping));
+  }
 
-          @Override
-          public Formula visitFunction(
-              Formula f, List<Formula> newArgs, FunctionDeclaration<?> functionDeclaration) {
-            Formula out = pFromToMapping.get(f);
-            if (out == null) {
-              return makeApplication(functionDeclaration, newArgs);
-            } else {
-              return out;
-            }
-          }
+  /**
+   * Generic implementation of bulk substitution, which uses a single visitor and shares the
+   * substituted sub-formulas across all given formulas. Solvers with native substitution should
+   * override this method.
+   */
+  @Override
+  public <T extends Formula> ImmutableList<T> substituteAll(
+      List<T> pFormulas, Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    FormulaTransformationVisitor visitor = createSubstitutionVisitor(pFromToMapping);
+    Map<Formula, Formula> sharedCache = new HashMap<>();
+    ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(pFormulas.size());
+    for (T f : pFormulas) {
+      result.add(formulaCreator.transformRecursively(visitor, f, sharedCache));
+    }
+    return result.build();
+  }
 
-          private Formula replace(Formula f) {
-            Formula out = pFromToMapping.get(f);
-            if (out == null) {
-              return f;
-            } else {
-              return out;
-            }
-          }
-        });
+  private FormulaTransformationVisitor createSubstitutionVisitor(
+      final Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    return new FormulaTransformationVisitor(this) {
+      @Override
+      public Formula visitFreeVariable(Formula f, String name) {
+        return replace(f);
+      }
+
+      @Override
+      public Formula visitFunction(
+          Formula f, List<Formula> newArgs, FunctionDeclaration<?> functionDeclaration) {
+        Formula out = pFromToMapping.get(f);
+        if (out == null) {
+          return makeApplication(functionDeclaration, newArgs);
+        } else {
+          return out;
+        }
+      }
+
+      private Formula replace(Formula f) {
+        Formula out = pFromToMapping.get(f);
+        if (out == null) {
+          return f;
+        } else {
+          return out;
+        }
+      }
+    };
   }
 
   /**
@@ -9,6 +9,11 @@
 package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Iterators;
+import java.util.Iterator;
+import java.util.function.BiPredicate;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
 import org.sosy_lab.java_smt.api.Model;
 
 @SuppressWarnings("ClassTypeParameterName")
@@ -20,6 +25,28 @@ public abstract class AbstractModel<TFormulaInfo, TType, TEnv>
     super(prover, creator);
   }
 
+  /**
+   * Filters the complete list of assignments. Solvers that can iterate over the symbols of the
+   * model natively should override this method and convert only the matching assignments.
+   */
+  @Override
+  public Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    return Iterators.filter(
+        iterator(),
+        assignment ->
+            pSymbolFilter.test(
+                assignment.getName(), creator.getFormulaType(assignment.getKey())));
+  }
+
+  /** Returns the type of the assignments of a symbol with the given type, see {@link #iterator}. */
+  protected static FormulaType<?> getAssignmentType(FormulaType<?> pSymbolType) {
+    FormulaType<?> type = pSymbolType;
+    while (type.isArrayType()) {
+      type = ((ArrayFormulaType<?, ?>) type).getElementType();
+    }
+    return type;
+  }
+
   @Override
   public String toString() {
     return Joiner.on('\n').join(iterator());
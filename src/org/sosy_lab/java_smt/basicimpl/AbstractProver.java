@@ -11,6 +11,7 @@ package org.sosy_lab.java_smt.basicimpl;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
@@ -19,6 +20,7 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
@@ -133,6 +135,20 @@ public abstract class AbstractProver<T> implements BasicProverEnvironment<T> {
     return builder.build();
   }
 
+  /**
+   * Returns the asserted formula for each constraint ID. This requires a distinct and non-null ID
+   * for each assertion, as provided by interpolating provers.
+   */
+  protected ImmutableMap<T, BooleanFormula> getAssertedFormulasById() {
+    ImmutableMap.Builder<T, BooleanFormula> builder = ImmutableMap.builder();
+    for (Multimap<BooleanFormula, T> level : assertedFormulas) {
+      for (Map.Entry<BooleanFormula, T> entry : level.entries()) {
+        builder.put(entry.getValue(), entry.getKey());
+      }
+    }
+    return builder.buildOrThrow();
+  }
+
   /**
    * This method registers the Evaluator to be cleaned up before the next change on the prover
    * stack.
@@ -21,6 +21,7 @@ import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper.InterpolatingProverWithAssumptionsWrapper;
 import org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper.ProverWithAssumptionsWrapper;
+import org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper.ProverWithSelectorAssumptionsWrapper;
 
 public abstract class AbstractSolverContext implements SolverContext {
 
@@ -37,7 +38,17 @@ public abstract class AbstractSolverContext implements SolverContext {
 
   @Override
   public final ProverEnvironment newProverEnvironment(ProverOptions... options) {
-    ProverEnvironment out = newProverEnvironment0(toSet(options));
+    Set<ProverOptions> opts = toSet(options);
+    if (!supportsAssumptionSolving()
+        && opts.contains(ProverOptions.USE_SELECTORS_FOR_ASSUMPTIONS)) {
+      // unsat cores over assumptions are computed from unsat cores over the selectors
+      if (opts.contains(ProverOptions.GENERATE_UNSAT_CORE_OVER_ASSUMPTIONS)) {
+        opts.add(ProverOptions.GENERATE_UNSAT_CORE);
+      }
+      return new ProverWithSelectorAssumptionsWrapper(
+          newProverEnvironment0(opts), fmgr.getBooleanFormulaManager());
+    }
+    ProverEnvironment out = newProverEnvironment0(opts);
     if (!supportsAssumptionSolving()) {
       // In the case we do not already have a prover environment with assumptions,
       // we add a wrapper to it
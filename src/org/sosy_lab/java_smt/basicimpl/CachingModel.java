@@ -10,7 +10,17 @@ package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -19,21 +29,67 @@ import org.sosy_lab.java_smt.api.EnumerationFormula;
 import org.sosy_lab.java_smt.api.FloatingPointFormula;
 import org.sosy_lab.java_smt.api.FloatingPointNumber;
 import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 import org.sosy_lab.java_smt.api.StringFormula;
 
+/**
+ * A model that caches the list of assignments and the results of evaluations of its delegate.
+ *
+ * <p>Evaluations are cached per result type in bounded caches that evict the least recently used
+ * entries, because evaluating a formula in the native model of a solver and converting the result
+ * is expensive, and clients often evaluate the same formulas repeatedly.
+ */
 public class CachingModel implements Model {
 
+  /** Maximum number of cached evaluations per result type. */
+  private static final int MAX_CACHED_EVALUATIONS = 10000;
+
   private final Model delegate;
 
   private @Nullable ImmutableList<ValueAssignment> modelAssignments = null;
 
+  private final Map<Formula, @Nullable Formula> formulaCache = newCache();
+  private final Map<Formula, @Nullable Object> objectCache = newCache();
+  private final Map<Formula, @Nullable BigInteger> bigIntegerCache = newCache();
+  private final Map<Formula, @Nullable Rational> rationalCache = newCache();
+  private final Map<Formula, @Nullable Boolean> booleanCache = newCache();
+  private final Map<Formula, @Nullable String> stringCache = newCache();
+  private final Map<Formula, @Nullable FloatingPointNumber> floatingPointCache = newCache();
+
+  private int hits = 0;
+  private int misses = 0;
+
   public CachingModel(Model pDelegate) {
     delegate = Preconditions.checkNotNull(pDelegate);
   }
 
+  private static <V> Map<Formula, V> newCache() {
+    return new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Formula, V> pEldest) {
+        return size() > MAX_CACHED_EVALUATIONS;
+      }
+    };
+  }
+
+  /** Get the cached value of the formula, or evaluate it with the delegate and cache the result. */
+  private <F extends Formula, V> @Nullable V lookup(
+      Map<Formula, @Nullable V> pCache, F pFormula, Function<F, @Nullable V> pEvaluation) {
+    if (pCache.containsKey(pFormula)) {
+      hits++;
+      return pCache.get(pFormula);
+    }
+    misses++;
+    V value = pEvaluation.apply(pFormula);
+    pCache.put(pFormula, value);
+    return value;
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     if (modelAssignments == null) {
@@ -42,54 +98,106 @@ public class CachingModel implements Model {
     return modelAssignments;
   }
 
+  @Override
+  public Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    return delegate.iterator(pSymbolFilter);
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return ImmutableMap.<String, String>builder()
+        .putAll(delegate.getStatistics())
+        .put("evaluationCacheHits", Integer.toString(hits))
+        .put("evaluationCacheMisses", Integer.toString(misses))
+        .buildKeepingLast();
+  }
+
   @Override
   public void close() {
+    formulaCache.clear();
+    objectCache.clear();
+    bigIntegerCache.clear();
+    rationalCache.clear();
+    booleanCache.clear();
+    stringCache.clear();
+    floatingPointCache.clear();
     delegate.close();
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <T extends Formula> @Nullable T eval(T formula) {
-    return delegate.eval(formula);
+    return (T) lookup(formulaCache, formula, delegate::eval);
   }
 
   @Override
   public @Nullable Object evaluate(Formula formula) {
-    return delegate.evaluate(formula);
+    return lookup(objectCache, formula, delegate::evaluate);
   }
 
   @Override
   public @Nullable BigInteger evaluate(IntegerFormula formula) {
-    return delegate.evaluate(formula);
+    return lookup(bigIntegerCache, formula, delegate::evaluate);
   }
 
   @Override
   public @Nullable Rational evaluate(RationalFormula formula) {
-    return delegate.evaluate(formula);
+    return lookup(rationalCache, formula, delegate::evaluate);
   }
 
   @Override
   public @Nullable Boolean evaluate(BooleanFormula formula) {
-    return delegate.evaluate(formula);
+    return lookup(booleanCache, formula, delegate::evaluate);
   }
 
   @Override
   public @Nullable BigInteger evaluate(BitvectorFormula formula) {
-    return delegate.evaluate(formula);
+    return lookup(bigIntegerCache, formula, delegate::evaluate);
   }
 
   @Override
   public @Nullable String evaluate(StringFormula formula) {
-    return delegate.evaluate(formula);
+    return lookup(stringCache, formula, delegate::evaluate);
   }
 
   @Override
   public @Nullable String evaluate(EnumerationFormula formula) {
-    return delegate.evaluate(formula);
+    return lookup(stringCache, formula, delegate::evaluate);
   }
 
   @Override
   public @Nullable FloatingPointNumber evaluate(FloatingPointFormula formula) {
-    return delegate.evaluate(formula);
+    return lookup(floatingPointCache, formula, delegate::evaluate);
+  }
+
+  /** Evaluates only the formulas that are not yet cached, with a single call of the delegate. */
+  @Override
+  public ImmutableMap<Formula, Object> evaluateAll(Collection<? extends Formula> pFormulas) {
+    ImmutableMap.Builder<Formula, Object> values = ImmutableMap.builder();
+    List<Formula> missing = new ArrayList<>();
+    for (Formula formula : ImmutableSet.copyOf(pFormulas)) {
+      if (objectCache.containsKey(formula)) {
+        hits++;
+        Object value = objectCache.get(formula);
+        if (value != null) {
+          values.put(formula, value);
+        }
+      } else {
+        misses++;
+        missing.add(formula);
+      }
+    }
+    if (!missing.isEmpty()) {
+      Map<Formula, Object> evaluated = delegate.evaluateAll(missing);
+      for (Formula formula : missing) {
+        Object value = evaluated.get(formula);
+        objectCache.put(formula, value);
+        if (value != null) {
+          values.put(formula, value);
+        }
+      }
+    }
+    return values.buildOrThrow();
   }
 
   @Override
@@ -11,11 +11,14 @@ package org.sosy_lab.java_smt.basicimpl;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -23,6 +26,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -77,6 +81,23 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
   private final @Nullable TType regexType;
   protected final TEnv environment;
 
+  /** Maximum number of visitors for which results of recursive traversals are kept. */
+  private static final int MAX_CACHED_VISITORS = 64;
+
+  /** Maximum number of formulas that are cached for a single visitor. */
+  private static final int MAX_CACHED_FORMULAS_PER_VISITOR = 100_000;
+
+  /**
+   * Results of {@link #transformRecursivelyWithCache}, keyed by the identity of the visitor. Both
+   * levels are bounded in size and evict the least recently used entries.
+   */
+  private final Cache<FormulaVisitor<?>, Map<Formula, Formula>> transformationCaches =
+      CacheBuilder.newBuilder().weakKeys().maximumSize(MAX_CACHED_VISITORS).build();
+
+  /** Already visited formulas of {@link #visitRecursivelyWithCache}, keyed by the visitor. */
+  private final Cache<FormulaVisitor<?>, Map<Formula, Boolean>> visitationCaches =
+      CacheBuilder.newBuilder().weakKeys().maximumSize(MAX_CACHED_VISITORS).build();
+
   protected FormulaCreator(
       TEnv env,
       TType boolType,
@@ -270,6 +291,13 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
   public abstract FormulaType<?> getFormulaType(TFormulaInfo formula);
 
+  /**
+   * @see org.sosy_lab.java_smt.api.FormulaManager#releaseSymbol
+   */
+  public void releaseSymbol(String pSymbol) {
+    // nothing to release by default
+  }
+
   /**
    * @see org.sosy_lab.java_smt.api.FormulaManager#visit
    */
@@ -301,17 +329,40 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
       FormulaVisitor<TraversalProcess> pFormulaVisitor,
       Formula pF,
       Predicate<Formula> shouldProcess) {
-    RecursiveFormulaVisitorImpl recVisitor = new RecursiveFormulaVisitorImpl(pFormulaVisitor);
+    visitRecursively(new RecursiveFormulaVisitorImpl(pFormulaVisitor), pF, shouldProcess);
+  }
+
+  /**
+   * @see org.sosy_lab.java_smt.api.FormulaManager#visitRecursivelyWithCache
+   */
+  public void visitRecursivelyWithCache(
+      FormulaVisitor<TraversalProcess> pFormulaVisitor, Formula pF) {
+    Set<Formula> previouslyVisited =
+        Collections.newSetFromMap(
+            visitationCaches.asMap().computeIfAbsent(pFormulaVisitor, v -> newFormulaCache()));
+    // the traversal itself uses its own set, such that an eviction from the bounded cache can not
+    // lead to repeated visits within one traversal, and an aborted traversal is not remembered.
+    RecursiveFormulaVisitorImpl recVisitor =
+        new RecursiveFormulaVisitorImpl(pFormulaVisitor, previouslyVisited);
+    if (visitRecursively(recVisitor, pF, t -> true)) {
+      previouslyVisited.addAll(recVisitor.getSeen());
+    }
+  }
+
+  /** Returns whether the traversal was completed, i.e., not aborted by the visitor. */
+  private boolean visitRecursively(
+      RecursiveFormulaVisitorImpl recVisitor, Formula pF, Predicate<Formula> shouldProcess) {
     recVisitor.addToQueue(pF);
     while (!recVisitor.isQueueEmpty()) {
       Formula tt = recVisitor.pop();
       if (shouldProcess.test(tt)) {
         TraversalProcess process = visit(tt, recVisitor);
         if (process == TraversalProcess.ABORT) {
-          return;
+          return false;
         }
       }
     }
+    return true;
   }
 
   public <T extends Formula> T transformRecursively(
@@ -321,6 +372,42 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
   public <T extends Formula> T transformRecursively(
       FormulaVisitor<? extends Formula> pFormulaVisitor, T pF, Predicate<Object> shouldProcess) {
+    return transformRecursively(pFormulaVisitor, pF, shouldProcess, null);
+  }
+
+  /**
+   * @see org.sosy_lab.java_smt.api.FormulaManager#transformRecursivelyWithCache
+   */
+  public <T extends Formula> T transformRecursivelyWithCache(
+      FormulaVisitor<? extends Formula> pFormulaVisitor, T pF) {
+    Map<Formula, Formula> persistentCache =
+        transformationCaches.asMap().computeIfAbsent(pFormulaVisitor, v -> newFormulaCache());
+    return transformRecursively(pFormulaVisitor, pF, t -> true, persistentCache);
+  }
+
+  /**
+   * Transform several formulas with the same visitor, such that the results for shared
+   * sub-formulas are computed only once and are stored in the given cache.
+   */
+  <T extends Formula> T transformRecursively(
+      FormulaVisitor<? extends Formula> pFormulaVisitor,
+      T pF,
+      Map<Formula, Formula> pSharedCache) {
+    return transformRecursively(pFormulaVisitor, pF, t -> true, pSharedCache);
+  }
+
+  /**
+   * Transform the formula bottom-up.
+   *
+   * @param persistentCache optional cache with results from previous transformations with the same
+   *     visitor. It is only read before a formula is visited and updated after the transformation,
+   *     such that an eviction can not remove intermediate results of the current transformation.
+   */
+  private <T extends Formula> T transformRecursively(
+      FormulaVisitor<? extends Formula> pFormulaVisitor,
+      T pF,
+      Predicate<Object> shouldProcess,
+      @Nullable Map<Formula, Formula> persistentCache) {
 
     final Deque<Formula> toProcess = new ArrayDeque<>();
     Map<Formula, Formula> pCache = new HashMap<>();
@@ -337,17 +424,36 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
         continue;
       }
 
+      if (persistentCache != null) {
+        Formula previousResult = persistentCache.get(tt);
+        if (previousResult != null) {
+          pCache.put(tt, previousResult);
+          toProcess.pop();
+          continue;
+        }
+      }
+
       if (shouldProcess.test(tt)) {
         visit(tt, recVisitor);
       } else {
         pCache.put(tt, tt);
       }
     }
+    if (persistentCache != null) {
+      persistentCache.putAll(pCache);
+    }
     @SuppressWarnings("unchecked")
     T out = (T) pCache.get(pF);
     return out;
   }
 
+  private static <V> ConcurrentMap<Formula, V> newFormulaCache() {
+    return CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_FORMULAS_PER_VISITOR)
+        .<Formula, V>build()
+        .asMap();
+  }
+
   /**
    * Wrapper for {@link #extractVariablesAndUFs(Formula, boolean, BiConsumer)} which unwraps both
    * input and output.
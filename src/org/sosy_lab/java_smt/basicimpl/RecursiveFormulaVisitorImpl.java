@@ -11,6 +11,7 @@ package org.sosy_lab.java_smt.basicimpl;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashSet;
@@ -26,17 +27,34 @@ import org.sosy_lab.java_smt.api.visitors.TraversalProcess.TraversalType;
 
 final class RecursiveFormulaVisitorImpl implements FormulaVisitor<TraversalProcess> {
 
-  private final Set<Formula> seen = new HashSet<>();
+  private final Set<Formula> seen;
+  private final Set<Formula> previouslyVisited;
   private final Deque<Formula> toVisit = new ArrayDeque<>();
 
   private final FormulaVisitor<TraversalProcess> delegate;
 
   RecursiveFormulaVisitorImpl(FormulaVisitor<TraversalProcess> pDelegate) {
+    this(pDelegate, ImmutableSet.of());
+  }
+
+  /**
+   * @param pPreviouslyVisited formulas that are not visited, because they were already visited in
+   *     a previous traversal. This set is not modified, see {@link #getSeen()}.
+   */
+  RecursiveFormulaVisitorImpl(
+      FormulaVisitor<TraversalProcess> pDelegate, Set<Formula> pPreviouslyVisited) {
     delegate = checkNotNull(pDelegate);
+    previouslyVisited = checkNotNull(pPreviouslyVisited);
+    seen = new HashSet<>();
+  }
+
+  /** Returns the formulas that were queued in this traversal. */
+  Set<Formula> getSeen() {
+    return seen;
   }
 
   void addToQueue(Formula f) {
-    if (seen.add(f)) {
+    if (!previouslyVisited.contains(f) && seen.add(f)) {
       toVisit.push(f);
     }
   }
@@ -0,0 +1,151 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Compact mapping from symbol names to native handles of type {@code long}, e.g., the declarations
+ * of variables and uninterpreted functions in solvers with a C API.
+ *
+ * <p>In contrast to a {@code HashMap<String, Long>}, this table needs neither entry objects nor
+ * boxed values. Names and handles are stored in two parallel arrays using open addressing with
+ * linear probing. Each slot costs one reference and one {@code long}, i.e., 12 bytes with
+ * compressed references. The table is resized at a load factor of 3/4 by doubling its capacity,
+ * thus there are between 4/3 and 8/3 slots per symbol. This results in about 16 to 32 bytes per
+ * symbol in addition to the name itself, compared to about 55 bytes for entry, boxed value and
+ * slot of a {@code HashMap}.
+ *
+ * <p>Symbols that are no longer needed can be removed with {@link #remove(String)}, which is
+ * used for {@link org.sosy_lab.java_smt.api.FormulaManager#releaseSymbol}. The native handle
+ * itself is not released by this table.
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class SymbolTable {
+
+  /** Initial number of slots, must be a power of two. */
+  private static final int INITIAL_CAPACITY = 16;
+
+  private @Nullable String[] names = new String[INITIAL_CAPACITY];
+  private long[] handles = new long[INITIAL_CAPACITY];
+  private int size = 0;
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(String pName) {
+    return names[indexOf(checkNotNull(pName))] != null;
+  }
+
+  /** Returns the handle for the given name, or the default value if the name is unknown. */
+  public long getOrDefault(String pName, long pDefault) {
+    int index = indexOf(checkNotNull(pName));
+    return names[index] == null ? pDefault : handles[index];
+  }
+
+  /** Stores the handle for the given name and overrides any previous handle for it. */
+  public void put(String pName, long pHandle) {
+    int index = indexOf(checkNotNull(pName));
+    if (names[index] == null) {
+      names[index] = pName;
+      size++;
+    }
+    handles[index] = pHandle;
+    if (4 * size > 3 * names.length) {
+      resize(2 * names.length);
+    }
+  }
+
+  /**
+   * Removes the given name from the table.
+   *
+   * @return whether the name was contained in the table.
+   */
+  public boolean remove(String pName) {
+    int gap = indexOf(checkNotNull(pName));
+    if (names[gap] == null) {
+      return false;
+    }
+    names[gap] = null;
+    size--;
+
+    // Move later entries of the same probing sequence into the gap, such that lookups do not stop
+    // too early. An entry can be moved if its preferred slot is not between the gap and itself.
+    int mask = names.length - 1;
+    int index = (gap + 1) & mask;
+    for (String name = names[index]; name != null; name = names[index]) {
+      int preferred = slotOf(name);
+      if (((index - preferred) & mask) >= ((index - gap) & mask)) {
+        names[gap] = name;
+        handles[gap] = handles[index];
+        names[index] = null;
+        gap = index;
+      }
+      index = (index + 1) & mask;
+    }
+    return true;
+  }
+
+  public void clear() {
+    Arrays.fill(names, null);
+    size = 0;
+  }
+
+  /** Calls the consumer for each name and its handle, in no specific order. */
+  public void forEach(ObjLongConsumer<String> pConsumer) {
+    checkNotNull(pConsumer);
+    for (int i = 0; i < names.length; i++) {
+      String name = names[i];
+      if (name != null) {
+        pConsumer.accept(name, handles[i]);
+      }
+    }
+  }
+
+  /** Returns the slot of the given name, or the free slot where it would be inserted. */
+  private int indexOf(String pName) {
+    int mask = names.length - 1;
+    int index = slotOf(pName);
+    String name;
+    while ((name = names[index]) != null && !name.equals(pName)) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  private int slotOf(String pName) {
+    int hash = pName.hashCode();
+    return (hash ^ (hash >>> 16)) & (names.length - 1);
+  }
+
+  private void resize(int pCapacity) {
+    @Nullable String[] oldNames = names;
+    long[] oldHandles = handles;
+    names = new String[pCapacity];
+    handles = new long[pCapacity];
+    for (int i = 0; i < oldNames.length; i++) {
+      String name = oldNames[i];
+      if (name != null) {
+        int index = indexOf(name);
+        names[index] = name;
+        handles[index] = oldHandles[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,112 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Solver-independent computation of tree interpolants from binary interpolants, for solvers without
+ * native support for tree interpolation.
+ *
+ * <p>The nodes of the tree are processed bottom-up in post-order. The interpolant of a node is a
+ * binary interpolant for A and B, where A consists of the formulas of the node and the interpolants
+ * of its children. B consists of the background formulas, the formulas of all nodes that are not
+ * yet processed, and the interpolants of the roots of all other processed subtrees, which replace
+ * the formulas of these subtrees. Thus, the conjunction of A and B stays unsatisfiable in each
+ * step. The interpolant of each node is implied by its formulas and the interpolants of its
+ * children, and it only contains symbols that occur both inside and outside of its subtree.
+ *
+ * <p>Each interpolant depends on the interpolants of the previously processed subtrees, thus the
+ * nodes can not be processed independently of each other.
+ */
+public final class TreeInterpolation {
+
+  private TreeInterpolation() {}
+
+  /** Computes a Craig interpolant for the conjunctions of two groups of formulas. */
+  @FunctionalInterface
+  public interface BinaryInterpolation {
+    BooleanFormula interpolate(List<BooleanFormula> formulasOfA, List<BooleanFormula> formulasOfB)
+        throws SolverException, InterruptedException;
+  }
+
+  /**
+   * Computes tree interpolants as specified by {@link
+   * InterpolatingProverEnvironment#getTreeInterpolants}.
+   *
+   * @param partitionedFormulas the IDs of the formulas of each node, in post-order of the tree.
+   * @param startOfSubTree the index of the left-most leaf of the subtree of each node.
+   * @param assertedFormulas all asserted formulas by their ID. Formulas that are not part of a
+   *     partition are used as background for all interpolants.
+   * @param interpolation the binary interpolation of the solver.
+   * @return the interpolant of each node, except for the root.
+   */
+  public static <T> List<BooleanFormula> computeTreeInterpolants(
+      List<? extends Collection<T>> partitionedFormulas,
+      int[] startOfSubTree,
+      Map<T, BooleanFormula> assertedFormulas,
+      BinaryInterpolation interpolation)
+      throws SolverException, InterruptedException {
+    checkNotNull(partitionedFormulas);
+    checkNotNull(startOfSubTree);
+    checkNotNull(assertedFormulas);
+    checkNotNull(interpolation);
+    InterpolatingProverEnvironment.checkTreeStructure(partitionedFormulas.size(), startOfSubTree);
+
+    Map<T, BooleanFormula> background = new LinkedHashMap<>(assertedFormulas);
+    List<List<BooleanFormula>> partitions = new ArrayList<>(partitionedFormulas.size());
+    for (Collection<T> ids : partitionedFormulas) {
+      List<BooleanFormula> partition = new ArrayList<>(ids.size());
+      for (T id : ids) {
+        BooleanFormula formula = assertedFormulas.get(id);
+        checkArgument(
+            formula != null, "interpolation can only be done over previously asserted formulas.");
+        partition.add(formula);
+        background.remove(id);
+      }
+      partitions.add(partition);
+    }
+
+    final int n = partitions.size();
+    final List<BooleanFormula> itps = new ArrayList<>(n - 1);
+    // roots of the processed subtrees, the last processed root first
+    final Deque<Integer> roots = new ArrayDeque<>();
+    for (int i = 0; i < n - 1; i++) {
+      List<BooleanFormula> formulasOfA = new ArrayList<>(partitions.get(i));
+      // all processed roots within the subtree of the node are its children
+      while (!roots.isEmpty() && roots.peek() >= startOfSubTree[i]) {
+        formulasOfA.add(itps.get(roots.pop()));
+      }
+
+      List<BooleanFormula> formulasOfB = new ArrayList<>(background.values());
+      for (int root : roots) {
+        formulasOfB.add(itps.get(root));
+      }
+      for (List<BooleanFormula> partition : partitions.subList(i + 1, n)) {
+        formulasOfB.addAll(partition);
+      }
+
+      itps.add(interpolation.interpolate(formulasOfA, formulasOfB));
+      roots.push(i);
+    }
+    return itps;
+  }
+}
@@ -0,0 +1,173 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Light-weight quantifier elimination based on substitution (one-point rule).
+ *
+ * <p>For an existential quantifier, a conjunct {@code x = t} of the body, where {@code x} is bound
+ * and {@code t} does not contain {@code x}, is removed and {@code x} is replaced by {@code t} in the
+ * remaining body. Dually, a disjunct {@code not(x = t)} is eliminated below a universal quantifier.
+ * Afterwards, all bound variables that no longer occur in the body are dropped, and the quantifier
+ * is removed completely if no bound variable remains.
+ *
+ * <p>The elimination requires that the solver reports the bound variables of a quantifier and
+ * represents them as free variables in the visited body. Quantifiers without information about
+ * their bound variables are kept as they are, which is valid according to the contract of {@link
+ * org.sosy_lab.java_smt.api.Tactic#QE_LIGHT}.
+ */
+public class QELightVisitor extends FormulaTransformationVisitor {
+
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bfmgr;
+
+  public QELightVisitor(FormulaManager pFmgr) {
+    super(pFmgr);
+    fmgr = pFmgr;
+    bfmgr = pFmgr.getBooleanFormulaManager();
+  }
+
+  @Override
+  public BooleanFormula visitQuantifier(
+      BooleanFormula f,
+      Quantifier quantifier,
+      List<Formula> boundVariables,
+      BooleanFormula transformedBody) {
+    if (boundVariables.isEmpty()) {
+      // no metadata about bound variables available
+      return super.visitQuantifier(f, quantifier, boundVariables, transformedBody);
+    }
+
+    Set<Formula> remaining = new LinkedHashSet<>(boundVariables);
+    BooleanFormula body = transformedBody;
+    boolean progress = true;
+    while (progress) {
+      progress = false;
+      Set<BooleanFormula> parts =
+          quantifier == Quantifier.EXISTS
+              ? bfmgr.toConjunctionArgs(body, true)
+              : bfmgr.toDisjunctionArgs(body, true);
+      for (BooleanFormula part : parts) {
+        Map.Entry<Formula, Formula> definition =
+            getDefinition(part, remaining, quantifier == Quantifier.FORALL);
+        if (definition == null) {
+          continue;
+        }
+        List<BooleanFormula> rest = new ArrayList<>(parts);
+        rest.remove(part);
+        BooleanFormula restFormula =
+            quantifier == Quantifier.EXISTS ? bfmgr.and(rest) : bfmgr.or(rest);
+        if (containsQuantifier(restFormula)) {
+          // substituting below nested binders could capture variables
+          continue;
+        }
+        body =
+            fmgr.substitute(
+                restFormula, ImmutableMap.of(definition.getKey(), definition.getValue()));
+        remaining.remove(definition.getKey());
+        progress = true;
+        break;
+      }
+    }
+
+    // drop unused bound variables
+    remaining.retainAll(fmgr.extractVariablesAndUFs(body).values());
+    if (remaining.isEmpty()) {
+      return body;
+    }
+    return fmgr.getQuantifiedFormulaManager()
+        .mkQuantifier(quantifier, new ArrayList<>(remaining), body);
+  }
+
+  /**
+   * Check whether the given formula is an equality {@code x = t} (or its negation, if requested)
+   * with {@code x} being one of the given variables and not occurring in {@code t}.
+   *
+   * @return the pair {@code (x, t)} or NULL if the formula is not such a definition.
+   */
+  private Map.@Nullable Entry<Formula, Formula> getDefinition(
+      BooleanFormula pFormula, Set<Formula> pVariables, boolean pNegated) {
+    return fmgr.visit(
+        pFormula,
+        new DefaultFormulaVisitor<Map.@Nullable Entry<Formula, Formula>>() {
+
+          private boolean insideNot = false;
+
+          @Override
+          protected Map.@Nullable Entry<Formula, Formula> visitDefault(Formula f) {
+            return null;
+          }
+
+          @Override
+          public Map.@Nullable Entry<Formula, Formula> visitFunction(
+              Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+            FunctionDeclarationKind kind = functionDeclaration.getKind();
+            if (kind == FunctionDeclarationKind.NOT && pNegated && !insideNot) {
+              insideNot = true;
+              return fmgr.visit(args.get(0), this);
+            }
+            if ((kind == FunctionDeclarationKind.EQ || kind == FunctionDeclarationKind.IFF)
+                && args.size() == 2
+                && pNegated == insideNot) {
+              for (int i = 0; i < 2; i++) {
+                Formula variable = args.get(i);
+                Formula term = args.get(1 - i);
+                if (pVariables.contains(variable)
+                    && !fmgr.extractVariablesAndUFs(term).containsValue(variable)) {
+                  return Map.entry(variable, term);
+                }
+              }
+            }
+            return null;
+          }
+        });
+  }
+
+  private boolean containsQuantifier(Formula pFormula) {
+    AtomicBoolean found = new AtomicBoolean(false);
+    fmgr.visitRecursively(
+        pFormula,
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula f) {
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitQuantifier(
+              BooleanFormula f,
+              Quantifier quantifier,
+              List<Formula> boundVariables,
+              BooleanFormula body) {
+            found.set(true);
+            return TraversalProcess.ABORT;
+          }
+        });
+    return found.get();
+  }
+}
@@ -0,0 +1,441 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.tactics;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
+
+/**
+ * Solver-independent conversion of a formula into an equisatisfiable formula in conjunctive normal
+ * form (CNF).
+ *
+ * <p>The conversion follows Tseitin with the polarity optimization of Plaisted and Greenbaum: Each
+ * Boolean connective gets exactly one fresh auxiliary variable, even if it occurs several times
+ * within the DAG of the input formula, and only those implications between the auxiliary variable
+ * and its definition are emitted that are required by the polarity in which the connective occurs.
+ * The size of the result is thus linear in the size of the DAG of the input formula.
+ *
+ * <p>Theory atoms, quantified formulas and bound variables are treated as opaque literals.
+ */
+public class TseitinCNFConverter {
+
+  private static final UniqueIdGenerator UNIQUE_ID_GENERATOR = new UniqueIdGenerator();
+
+  private static final String PREFIX = "__tseitin_";
+
+  /** Bit for a sub-formula that occurs positively, i.e., below an even number of negations. */
+  private static final int POSITIVE = 1;
+
+  /** Bit for a sub-formula that occurs negatively, i.e., below an odd number of negations. */
+  private static final int NEGATIVE = 2;
+
+  private static final int BOTH = POSITIVE | NEGATIVE;
+
+  private final BooleanFormulaManager bfmgr;
+
+  public TseitinCNFConverter(FormulaManager pFmgr) {
+    bfmgr = pFmgr.getBooleanFormulaManager();
+  }
+
+  /**
+   * Convert the given formula into CNF. The result is equisatisfiable to the input, and every
+   * satisfying assignment of the result is also a satisfying assignment of the input.
+   */
+  public BooleanFormula convert(BooleanFormula pFormula) {
+    Map<BooleanFormula, Integer> polarities = computePolarities(pFormula);
+    Encoder encoder = new Encoder(polarities);
+    BooleanFormula root = encoder.encode(pFormula);
+    encoder.clauses.add(root);
+    return bfmgr.and(encoder.clauses);
+  }
+
+  /**
+   * Determine for each Boolean sub-formula whether it occurs positively, negatively, or in both
+   * polarities. A sub-formula is re-visited only if its set of polarities grows, thus each
+   * sub-formula is handled at most twice.
+   */
+  private Map<BooleanFormula, Integer> computePolarities(BooleanFormula pFormula) {
+    Map<BooleanFormula, Integer> polarities = new HashMap<>();
+    Deque<BooleanFormula> toProcess = new ArrayDeque<>();
+    PolarityPropagator propagator = new PolarityPropagator(polarities, toProcess);
+    polarities.put(pFormula, POSITIVE);
+    toProcess.push(pFormula);
+    while (!toProcess.isEmpty()) {
+      BooleanFormula f = toProcess.pop();
+      propagator.polarity = polarities.get(f);
+      bfmgr.visit(f, propagator);
+    }
+    return polarities;
+  }
+
+  private static int flip(int polarity) {
+    int flipped = 0;
+    if ((polarity & POSITIVE) != 0) {
+      flipped |= NEGATIVE;
+    }
+    if ((polarity & NEGATIVE) != 0) {
+      flipped |= POSITIVE;
+    }
+    return flipped;
+  }
+
+  /** Propagates the polarity of the visited formula to its direct Boolean operands. */
+  private static final class PolarityPropagator implements BooleanFormulaVisitor<Void> {
+
+    private final Map<BooleanFormula, Integer> polarities;
+    private final Deque<BooleanFormula> toProcess;
+
+    /** Polarity of the formula that is currently visited. */
+    private int polarity;
+
+    private PolarityPropagator(
+        Map<BooleanFormula, Integer> pPolarities, Deque<BooleanFormula> pToProcess) {
+      polarities = pPolarities;
+      toProcess = pToProcess;
+    }
+
+    private void propagate(BooleanFormula operand, int operandPolarity) {
+      int oldPolarity = polarities.getOrDefault(operand, 0);
+      int newPolarity = oldPolarity | operandPolarity;
+      if (newPolarity != oldPolarity) {
+        polarities.put(operand, newPolarity);
+        toProcess.push(operand);
+      }
+    }
+
+    @Override
+    public Void visitConstant(boolean value) {
+      return null;
+    }
+
+    @Override
+    public Void visitBoundVar(BooleanFormula var, int deBruijnIdx) {
+      return null;
+    }
+
+    @Override
+    public Void visitAtom(BooleanFormula atom, FunctionDeclaration<BooleanFormula> funcDecl) {
+      return null;
+    }
+
+    @Override
+    public Void visitQuantifier(
+        Quantifier quantifier,
+        BooleanFormula quantifiedAST,
+        List<Formula> boundVars,
+        BooleanFormula body) {
+      return null;
+    }
+
+    @Override
+    public Void visitNot(BooleanFormula operand) {
+      propagate(operand, flip(polarity));
+      return null;
+    }
+
+    @Override
+    public Void visitAnd(List<BooleanFormula> operands) {
+      operands.forEach(operand -> propagate(operand, polarity));
+      return null;
+    }
+
+    @Override
+    public Void visitOr(List<BooleanFormula> operands) {
+      operands.forEach(operand -> propagate(operand, polarity));
+      return null;
+    }
+
+    @Override
+    public Void visitXor(BooleanFormula operand1, BooleanFormula operand2) {
+      propagate(operand1, BOTH);
+      propagate(operand2, BOTH);
+      return null;
+    }
+
+    @Override
+    public Void visitEquivalence(BooleanFormula operand1, BooleanFormula operand2) {
+      propagate(operand1, BOTH);
+      propagate(operand2, BOTH);
+      return null;
+    }
+
+    @Override
+    public Void visitImplication(BooleanFormula operand1, BooleanFormula operand2) {
+      propagate(operand1, flip(polarity));
+      propagate(operand2, polarity);
+      return null;
+    }
+
+    @Override
+    public Void visitIfThenElse(
+        BooleanFormula condition, BooleanFormula thenFormula, BooleanFormula elseFormula) {
+      propagate(condition, BOTH);
+      propagate(thenFormula, polarity);
+      propagate(elseFormula, polarity);
+      return null;
+    }
+  }
+
+  /**
+   * Computes a literal for each sub-formula in post-order and collects the defining clauses. The
+   * visitor methods return NULL if some operand does not yet have a literal, in this case the
+   * operands are scheduled and the formula is visited again later.
+   */
+  private final class Encoder implements BooleanFormulaVisitor<@Nullable BooleanFormula> {
+
+    private final Map<BooleanFormula, Integer> polarities;
+    private final Map<BooleanFormula, BooleanFormula> literals = new HashMap<>();
+    private final Map<BooleanFormula, BooleanFormula> negations = new HashMap<>();
+    private final Deque<BooleanFormula> toProcess = new ArrayDeque<>();
+    private final List<BooleanFormula> clauses = new ArrayList<>();
+
+    /** Formula that is currently visited. */
+    private @Nullable BooleanFormula current;
+
+    private Encoder(Map<BooleanFormula, Integer> pPolarities) {
+      polarities = pPolarities;
+    }
+
+    private BooleanFormula encode(BooleanFormula pFormula) {
+      toProcess.push(pFormula);
+      while (!toProcess.isEmpty()) {
+        BooleanFormula f = toProcess.peek();
+        if (literals.containsKey(f)) {
+          toProcess.pop();
+          continue;
+        }
+        current = f;
+        BooleanFormula literal = bfmgr.visit(f, this);
+        if (literal != null) {
+          literals.put(f, literal);
+          toProcess.pop();
+        }
+      }
+      return Preconditions.checkNotNull(literals.get(pFormula));
+    }
+
+    /** Returns the literals of all operands, or NULL if some of them are not yet encoded. */
+    private @Nullable List<BooleanFormula> getLiterals(List<BooleanFormula> operands) {
+      List<BooleanFormula> operandLiterals = new ArrayList<>(operands.size());
+      boolean allOperandsEncoded = true;
+      for (BooleanFormula operand : operands) {
+        BooleanFormula literal = literals.get(operand);
+        if (literal == null) {
+          toProcess.push(operand);
+          allOperandsEncoded = false;
+        } else {
+          operandLiterals.add(literal);
+        }
+      }
+      return allOperandsEncoded ? operandLiterals : null;
+    }
+
+    private BooleanFormula negate(BooleanFormula literal) {
+      BooleanFormula negated = negations.get(literal);
+      if (negated == null) {
+        negated = bfmgr.not(literal);
+        negations.put(literal, negated);
+        negations.put(negated, literal);
+      }
+      return negated;
+    }
+
+    private boolean isPositive() {
+      return (polarities.get(current) & POSITIVE) != 0;
+    }
+
+    private boolean isNegative() {
+      return (polarities.get(current) & NEGATIVE) != 0;
+    }
+
+    private BooleanFormula makeAuxiliaryVariable() {
+      return bfmgr.makeVariable(PREFIX + UNIQUE_ID_GENERATOR.getFreshId());
+    }
+
+    private void addClause(BooleanFormula... literalsOfClause) {
+      clauses.add(bfmgr.or(literalsOfClause));
+    }
+
+    @Override
+    public BooleanFormula visitConstant(boolean value) {
+      return bfmgr.makeBoolean(value);
+    }
+
+    @Override
+    public BooleanFormula visitBoundVar(BooleanFormula var, int deBruijnIdx) {
+      return var;
+    }
+
+    @Override
+    public BooleanFormula visitAtom(
+        BooleanFormula atom, FunctionDeclaration<BooleanFormula> funcDecl) {
+      return atom;
+    }
+
+    @Override
+    public BooleanFormula visitQuantifier(
+        Quantifier quantifier,
+        BooleanFormula quantifiedAST,
+        List<Formula> boundVars,
+        BooleanFormula body) {
+      return quantifiedAST;
+    }
+
+    @Override
+    public @Nullable BooleanFormula visitNot(BooleanFormula operand) {
+      BooleanFormula literal = literals.get(operand);
+      if (literal == null) {
+        toProcess.push(operand);
+        return null;
+      }
+      return negate(literal);
+    }
+
+    @Override
+    public @Nullable BooleanFormula visitAnd(List<BooleanFormula> operands) {
+      List<BooleanFormula> lits = getLiterals(operands);
+      if (lits == null) {
+        return null;
+      }
+      BooleanFormula x = makeAuxiliaryVariable();
+      if (isPositive()) {
+        for (BooleanFormula lit : lits) {
+          addClause(negate(x), lit);
+        }
+      }
+      if (isNegative()) {
+        List<BooleanFormula> clause = new ArrayList<>(lits.size() + 1);
+        clause.add(x);
+        lits.forEach(lit -> clause.add(negate(lit)));
+        clauses.add(bfmgr.or(clause));
+      }
+      return x;
+    }
+
+    @Override
+    public @Nullable BooleanFormula visitOr(List<BooleanFormula> operands) {
+      List<BooleanFormula> lits = getLiterals(operands);
+      if (lits == null) {
+        return null;
+      }
+      BooleanFormula x = makeAuxiliaryVariable();
+      if (isPositive()) {
+        List<BooleanFormula> clause = new ArrayList<>(lits.size() + 1);
+        clause.add(negate(x));
+        clause.addAll(lits);
+        clauses.add(bfmgr.or(clause));
+      }
+      if (isNegative()) {
+        for (BooleanFormula lit : lits) {
+          addClause(x, negate(lit));
+        }
+      }
+      return x;
+    }
+
+    @Override
+    public @Nullable BooleanFormula visitXor(BooleanFormula operand1, BooleanFormula operand2) {
+      List<BooleanFormula> lits = getLiterals(ImmutableList.of(operand1, operand2));
+      if (lits == null) {
+        return null;
+      }
+      BooleanFormula a = lits.get(0);
+      BooleanFormula b = lits.get(1);
+      BooleanFormula x = makeAuxiliaryVariable();
+      if (isPositive()) {
+        addClause(negate(x), a, b);
+        addClause(negate(x), negate(a), negate(b));
+      }
+      if (isNegative()) {
+        addClause(x, negate(a), b);
+        addClause(x, a, negate(b));
+      }
+      return x;
+    }
+
+    @Override
+    public @Nullable BooleanFormula visitEquivalence(
+        BooleanFormula operand1, BooleanFormula operand2) {
+      List<BooleanFormula> lits = getLiterals(ImmutableList.of(operand1, operand2));
+      if (lits == null) {
+        return null;
+      }
+      BooleanFormula a = lits.get(0);
+      BooleanFormula b = lits.get(1);
+      BooleanFormula x = makeAuxiliaryVariable();
+      if (isPositive()) {
+        addClause(negate(x), negate(a), b);
+        addClause(negate(x), a, negate(b));
+      }
+      if (isNegative()) {
+        addClause(x, a, b);
+        addClause(x, negate(a), negate(b));
+      }
+      return x;
+    }
+
+    @Override
+    public @Nullable BooleanFormula visitImplication(
+        BooleanFormula operand1, BooleanFormula operand2) {
+      List<BooleanFormula> lits = getLiterals(ImmutableList.of(operand1, operand2));
+      if (lits == null) {
+        return null;
+      }
+      BooleanFormula a = lits.get(0);
+      BooleanFormula b = lits.get(1);
+      BooleanFormula x = makeAuxiliaryVariable();
+      if (isPositive()) {
+        addClause(negate(x), negate(a), b);
+      }
+      if (isNegative()) {
+        addClause(x, a);
+        addClause(x, negate(b));
+      }
+      return x;
+    }
+
+    @Override
+    public @Nullable BooleanFormula visitIfThenElse(
+        BooleanFormula condition, BooleanFormula thenFormula, BooleanFormula elseFormula) {
+      List<BooleanFormula> lits =
+          getLiterals(ImmutableList.of(condition, thenFormula, elseFormula));
+      if (lits == null) {
+        return null;
+      }
+      BooleanFormula c = lits.get(0);
+      BooleanFormula t = lits.get(1);
+      BooleanFormula e = lits.get(2);
+      BooleanFormula x = makeAuxiliaryVariable();
+      if (isPositive()) {
+        addClause(negate(x), negate(c), t);
+        addClause(negate(x), c, e);
+      }
+      if (isNegative()) {
+        addClause(x, negate(c), negate(t));
+        addClause(x, c, negate(e));
+      }
+      return x;
+    }
+  }
+}
@@ -0,0 +1,231 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Emulation of solving with assumptions based on selector literals, for solvers without native
+ * support.
+ *
+ * <p>Each new assumption {@code a} is guarded by a fresh Boolean variable {@code s}, and the
+ * formula {@code s => a} is asserted on the current level of the solver stack. It stays asserted
+ * until this level is popped, such that later checks with the same assumption reuse it. A check
+ * with assumptions pushes only one additional level, in which all selectors of the assumptions are
+ * asserted. This level is kept until the next operation that modifies the stack, such that models
+ * and unsat cores can be queried.
+ *
+ * <p>In contrast to {@link ProverWithAssumptionsWrapper}, the number of push and pop operations
+ * does not depend on the number of assumptions. Unsat cores over assumptions are computed from the
+ * unsat core over the selectors, thus the delegate needs to generate unsat cores.
+ */
+public class ProverWithSelectorAssumptionsWrapper implements ProverEnvironment {
+
+  private static final String SELECTOR_PREFIX = "__ASSUMPTION_SELECTOR_";
+  private static final UniqueIdGenerator SELECTOR_IDS = new UniqueIdGenerator();
+
+  private final ProverEnvironment delegate;
+  private final BooleanFormulaManager bmgr;
+
+  /** Selector for each assumption whose guarded formula is asserted. */
+  private final Map<BooleanFormula, Selector> selectorsByAssumption = new HashMap<>();
+
+  /** Selector for each selector literal and each guarded formula. */
+  private final Map<BooleanFormula, Selector> selectorsByFormula = new HashMap<>();
+
+  /** Selectors that were asserted on each level of the stack, the innermost level first. */
+  private final Deque<List<Selector>> selectorsPerLevel = new ArrayDeque<>();
+
+  /** Whether the delegate contains the additional level with the selectors of the last check. */
+  private boolean hasSelectorLevel = false;
+
+  public ProverWithSelectorAssumptionsWrapper(
+      ProverEnvironment pDelegate, BooleanFormulaManager pBmgr) {
+    delegate = checkNotNull(pDelegate);
+    bmgr = checkNotNull(pBmgr);
+    selectorsPerLevel.push(new ArrayList<>());
+  }
+
+  private void clearAssumptions() {
+    if (hasSelectorLevel) {
+      delegate.pop();
+      hasSelectorLevel = false;
+    }
+  }
+
+  @Override
+  public void pop() {
+    clearAssumptions();
+    delegate.pop();
+    for (Selector selector : selectorsPerLevel.pop()) {
+      selectorsByAssumption.remove(selector.assumption);
+      selectorsByFormula.remove(selector.literal);
+      selectorsByFormula.remove(selector.definition);
+    }
+  }
+
+  @Override
+  public Void addConstraint(BooleanFormula constraint) throws InterruptedException {
+    clearAssumptions();
+    return delegate.addConstraint(constraint);
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    clearAssumptions();
+    delegate.push();
+    selectorsPerLevel.push(new ArrayList<>());
+  }
+
+  @Override
+  public int size() {
+    return hasSelectorLevel ? delegate.size() - 1 : delegate.size();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    clearAssumptions();
+    return delegate.isUnsat();
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
+      throws SolverException, InterruptedException {
+    clearAssumptions();
+    List<BooleanFormula> literals = new ArrayList<>(assumptions.size());
+    for (BooleanFormula assumption : assumptions) {
+      literals.add(getSelector(assumption).literal);
+    }
+    delegate.push();
+    hasSelectorLevel = true;
+    for (BooleanFormula literal : literals) {
+      delegate.addConstraint(literal);
+    }
+    return delegate.isUnsat();
+  }
+
+  /** Returns the selector of the assumption, and asserts its guarded formula if it is new. */
+  private Selector getSelector(BooleanFormula pAssumption) throws InterruptedException {
+    Selector selector = selectorsByAssumption.get(pAssumption);
+    if (selector == null) {
+      BooleanFormula literal = bmgr.makeVariable(SELECTOR_PREFIX + SELECTOR_IDS.getFreshId());
+      selector = new Selector(pAssumption, literal, bmgr.implication(literal, pAssumption));
+      delegate.addConstraint(selector.definition);
+      selectorsByAssumption.put(pAssumption, selector);
+      selectorsByFormula.put(selector.literal, selector);
+      selectorsByFormula.put(selector.definition, selector);
+      selectorsPerLevel.element().add(selector);
+    }
+    return selector;
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    return delegate.getModel();
+  }
+
+  /** The assignments of the selector variables are removed. */
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    ImmutableList.Builder<ValueAssignment> assignments = ImmutableList.builder();
+    for (ValueAssignment assignment : delegate.getModelAssignments()) {
+      if (!assignment.getName().startsWith(SELECTOR_PREFIX)) {
+        assignments.add(assignment);
+      }
+    }
+    return assignments.build();
+  }
+
+  /**
+   * Selector literals in the unsat core are replaced by their assumptions, and the guarded formulas
+   * of the assumptions are removed.
+   */
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    List<BooleanFormula> core = new ArrayList<>();
+    for (BooleanFormula formula : delegate.getUnsatCore()) {
+      Selector selector = selectorsByFormula.get(formula);
+      if (selector == null) {
+        core.add(formula);
+      } else if (selector.literal.equals(formula)) {
+        core.add(selector.assumption);
+      }
+    }
+    return core;
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    if (!isUnsatWithAssumptions(pAssumptions)) {
+      return Optional.empty();
+    }
+    List<BooleanFormula> core = new ArrayList<>();
+    for (BooleanFormula formula : delegate.getUnsatCore()) {
+      Selector selector = selectorsByFormula.get(formula);
+      if (selector != null && selector.literal.equals(formula)) {
+        core.add(selector.assumption);
+      }
+    }
+    return Optional.of(core);
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    clearAssumptions();
+    return delegate.allSat(pCallback, pImportant);
+  }
+
+  /** An assumption with its selector literal and the guarded formula {@code literal => a}. */
+  private static final class Selector {
+    private final BooleanFormula assumption;
+    private final BooleanFormula literal;
+    private final BooleanFormula definition;
+
+    private Selector(BooleanFormula pAssumption, BooleanFormula pLiteral, BooleanFormula pDef) {
+      assumption = pAssumption;
+      literal = pLiteral;
+      definition = pDef;
+    }
+  }
+}
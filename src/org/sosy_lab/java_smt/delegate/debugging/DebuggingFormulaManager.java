@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.delegate.debugging;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -162,6 +163,12 @@ public class DebuggingFormulaManager implements FormulaManager {
     return result;
   }
 
+  @Override
+  public void releaseSymbol(String symbol) {
+    debugging.assertThreadLocal();
+    delegate.releaseSymbol(symbol);
+  }
+
   @Override
   public Appender dumpFormula(BooleanFormula pT) {
     debugging.assertThreadLocal();
@@ -216,6 +223,22 @@ public class DebuggingFormulaManager implements FormulaManager {
     return delegate.transformRecursively(f, pFormulaVisitor);
   }
 
+  @Override
+  public void visitRecursivelyWithCache(
+      Formula f, FormulaVisitor<TraversalProcess> rFormulaVisitor) {
+    debugging.assertThreadLocal();
+    debugging.assertFormulaInContext(f);
+    delegate.visitRecursivelyWithCache(f, rFormulaVisitor);
+  }
+
+  @Override
+  public <T extends Formula> T transformRecursivelyWithCache(
+      T f, FormulaTransformationVisitor pFormulaVisitor) {
+    debugging.assertThreadLocal();
+    debugging.assertFormulaInContext(f);
+    return delegate.transformRecursivelyWithCache(f, pFormulaVisitor);
+  }
+
   @Override
   public ImmutableMap<String, Formula> extractVariables(Formula f) {
     debugging.assertThreadLocal();
@@ -246,6 +269,23 @@ public class DebuggingFormulaManager implements FormulaManager {
     return result;
   }
 
+  @Override
+  public <T extends Formula> ImmutableList<T> substituteAll(
+      List<T> formulas, Map<? extends Formula, ? extends Formula> fromToMapping) {
+    debugging.assertThreadLocal();
+    List<Formula> checkAll = new ArrayList<>(formulas);
+    checkAll.addAll(fromToMapping.keySet());
+    checkAll.addAll(fromToMapping.values());
+    for (Formula term : checkAll) {
+      debugging.assertFormulaInContext(term);
+    }
+    ImmutableList<T> result = delegate.substituteAll(formulas, fromToMapping);
+    for (T term : result) {
+      debugging.addFormulaTerm(term);
+    }
+    return result;
+  }
+
   @Override
   public BooleanFormula translateFrom(BooleanFormula formula, FormulaManager otherManager) {
     if (otherManager instanceof DebuggingFormulaManager) {
@@ -11,7 +11,12 @@ package org.sosy_lab.java_smt.delegate.debugging;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.BiPredicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -20,6 +25,7 @@ import org.sosy_lab.java_smt.api.EnumerationFormula;
 import org.sosy_lab.java_smt.api.FloatingPointFormula;
 import org.sosy_lab.java_smt.api.FloatingPointNumber;
 import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
@@ -99,6 +105,15 @@ public class DebuggingModel implements Model {
     return delegate.evaluate(formula);
   }
 
+  @Override
+  public ImmutableMap<Formula, Object> evaluateAll(Collection<? extends Formula> formulas) {
+    debugging.assertThreadLocal();
+    for (Formula formula : formulas) {
+      debugging.assertFormulaInContext(formula);
+    }
+    return delegate.evaluateAll(formulas);
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     debugging.assertThreadLocal();
@@ -113,6 +128,25 @@ public class DebuggingModel implements Model {
     return result;
   }
 
+  @Override
+  public Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    debugging.assertThreadLocal();
+    return Iterators.transform(
+        delegate.iterator(pSymbolFilter),
+        v -> {
+          debugging.assertThreadLocal();
+          debugging.addFormulaTerm(v.getValueAsFormula());
+          debugging.addFormulaTerm(v.getAssignmentAsFormula());
+          return v;
+        });
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    debugging.assertThreadLocal();
+    return delegate.getStatistics();
+  }
+
   @Override
   public void close() {
     debugging.assertThreadLocal();
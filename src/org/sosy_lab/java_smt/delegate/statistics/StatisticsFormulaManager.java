@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.delegate.statistics;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
 import java.util.List;
@@ -130,6 +131,11 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.parse(pS);
   }
 
+  @Override
+  public void releaseSymbol(String pSymbol) {
+    delegate.releaseSymbol(pSymbol);
+  }
+
   @Override
   public Appender dumpFormula(BooleanFormula pT) {
     return new Appenders.AbstractAppender() {
@@ -169,6 +175,18 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.transformRecursively(pF, pFormulaVisitor);
   }
 
+  @Override
+  public void visitRecursivelyWithCache(
+      Formula pF, FormulaVisitor<TraversalProcess> pFormulaVisitor) {
+    delegate.visitRecursivelyWithCache(pF, pFormulaVisitor);
+  }
+
+  @Override
+  public <T extends Formula> T transformRecursivelyWithCache(
+      T pF, FormulaTransformationVisitor pFormulaVisitor) {
+    return delegate.transformRecursivelyWithCache(pF, pFormulaVisitor);
+  }
+
   @Override
   public ImmutableMap<String, Formula> extractVariables(Formula pF) {
     return delegate.extractVariables(pF);
@@ -185,6 +203,12 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.substitute(pF, pFromToMapping);
   }
 
+  @Override
+  public <T extends Formula> ImmutableList<T> substituteAll(
+      List<T> pFormulas, Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    return delegate.substituteAll(pFormulas, pFromToMapping);
+  }
+
   @Override
   public BooleanFormula translateFrom(BooleanFormula pFormula, FormulaManager pOtherContext) {
     return delegate.translateFrom(pFormula, pOtherContext);
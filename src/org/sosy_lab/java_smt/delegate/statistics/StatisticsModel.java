@@ -11,7 +11,11 @@ package org.sosy_lab.java_smt.delegate.statistics;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.BiPredicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -20,6 +24,7 @@ import org.sosy_lab.java_smt.api.EnumerationFormula;
 import org.sosy_lab.java_smt.api.FloatingPointFormula;
 import org.sosy_lab.java_smt.api.FloatingPointNumber;
 import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
@@ -89,12 +94,29 @@ class StatisticsModel implements Model {
     return delegate.evaluate(pF);
   }
 
+  @Override
+  public ImmutableMap<Formula, Object> evaluateAll(Collection<? extends Formula> pFormulas) {
+    stats.modelEvaluations.getAndAdd(pFormulas.size());
+    return delegate.evaluateAll(pFormulas);
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     stats.modelListings.getAndIncrement();
     return delegate.asList();
   }
 
+  @Override
+  public Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    stats.modelListings.getAndIncrement();
+    return delegate.iterator(pSymbolFilter);
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
   @Override
   public void close() {
     delegate.close();
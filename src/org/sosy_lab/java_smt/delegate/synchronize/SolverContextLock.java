@@ -0,0 +1,60 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The lock for all operations on a solver context that is shared between several threads.
+ *
+ * <p>Operations that create formulas or modify the state of the solver context use the exclusive
+ * lock via {@link #lock()}. Satisfiability checks use {@link #lockForCheck()}, which is the same
+ * exclusive lock by default. If the solver supports concurrent checks on several provers of the
+ * same context, checks only use the shared lock and can run in parallel with other checks, while
+ * they are still excluded from all other operations on the context.
+ */
+final class SolverContextLock {
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final boolean concurrentChecks;
+
+  SolverContextLock(boolean pConcurrentChecks) {
+    concurrentChecks = pConcurrentChecks;
+  }
+
+  /** Acquire the exclusive lock for an operation on the solver context. */
+  void lock() {
+    lock.writeLock().lock();
+  }
+
+  void unlock() {
+    lock.writeLock().unlock();
+  }
+
+  /**
+   * Acquire the lock for a satisfiability check. If the thread already holds the exclusive lock,
+   * the check is executed with the exclusive lock, e.g., for nested calls.
+   */
+  void lockForCheck() {
+    if (concurrentChecks && !lock.isWriteLockedByCurrentThread()) {
+      lock.readLock().lock();
+    } else {
+      lock.writeLock().lock();
+    }
+  }
+
+  /** Release the lock acquired with {@link #lockForCheck()}. */
+  void unlockForCheck() {
+    if (lock.isWriteLockedByCurrentThread()) {
+      lock.writeLock().unlock();
+    } else {
+      lock.readLock().unlock();
+    }
+  }
+}
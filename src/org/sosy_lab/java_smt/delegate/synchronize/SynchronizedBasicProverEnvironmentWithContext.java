@@ -20,7 +20,6 @@ import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.Model;
-import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.SolverException;
 
 class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnvironment<T> {
@@ -28,11 +27,11 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   private final BasicProverEnvironment<T> delegate;
   final FormulaManager manager;
   final FormulaManager otherManager;
-  final SolverContext sync;
+  final SolverContextLock sync;
 
   SynchronizedBasicProverEnvironmentWithContext(
       BasicProverEnvironment<T> pDelegate,
-      SolverContext pSync,
+      SolverContextLock pSync,
       FormulaManager pManager,
       FormulaManager pOtherManager) {
     delegate = checkNotNull(pDelegate);
@@ -44,10 +43,13 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   List<BooleanFormula> translate(
       Collection<BooleanFormula> fs, FormulaManager from, FormulaManager to) {
     ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
-    synchronized (sync) {
+    sync.lock();
+    try {
       for (BooleanFormula f : fs) {
         result.add(to.translateFrom(f, from));
       }
+    } finally {
+      sync.unlock();
     }
     return result.build();
   }
@@ -60,8 +62,11 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   @Override
   public @Nullable T addConstraint(BooleanFormula pConstraint) throws InterruptedException {
     BooleanFormula constraint;
-    synchronized (sync) {
+    sync.lock();
+    try {
       constraint = otherManager.translateFrom(pConstraint, manager);
+    } finally {
+      sync.unlock();
     }
     return delegate.addConstraint(constraint);
   }
@@ -73,8 +78,11 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
 
   @Override
   public int size() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.size();
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -92,8 +100,11 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   @SuppressWarnings("resource")
   @Override
   public Model getModel() throws SolverException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedModelWithContext(delegate.getModel(), sync, manager, otherManager);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -116,22 +127,31 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
 
   @Override
   public ImmutableMap<String, String> getStatistics() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.getStatistics();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public void close() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.close();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public String toString() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.toString();
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -139,8 +159,11 @@ class SynchronizedBasicProverEnvironmentWithContext<T> implements BasicProverEnv
   public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
       throws InterruptedException, SolverException {
     AllSatCallback<R> callback = new AllSatCallbackWithContext<>(pCallback);
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.allSat(callback, translate(pImportant, manager, otherManager));
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -17,7 +17,6 @@ import java.util.stream.Collectors;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.Formula;
-import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.visitors.BooleanFormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
@@ -25,12 +24,12 @@ import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 class SynchronizedBooleanFormulaManager implements BooleanFormulaManager {
 
   private final BooleanFormulaManager delegate;
-  private final SolverContext sync;
+  private final SolverContextLock sync;
 
   private final BooleanFormula tru;
   private final BooleanFormula fls;
 
-  SynchronizedBooleanFormulaManager(BooleanFormulaManager pDelegate, SolverContext pSync) {
+  SynchronizedBooleanFormulaManager(BooleanFormulaManager pDelegate, SolverContextLock pSync) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
     tru = delegate.makeTrue();
@@ -49,22 +48,31 @@ class SynchronizedBooleanFormulaManager implements BooleanFormulaManager {
 
   @Override
   public BooleanFormula makeVariable(String pVar) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeVariable(pVar);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula equivalence(BooleanFormula pFormula1, BooleanFormula pFormula2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.equivalence(pFormula1, pFormula2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula implication(BooleanFormula pFormula1, BooleanFormula pFormula2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.implication(pFormula1, pFormula2);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -73,8 +81,11 @@ class SynchronizedBooleanFormulaManager implements BooleanFormulaManager {
     if (pFormula == tru) {
       return true;
     }
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isTrue(pFormula);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -83,43 +94,61 @@ class SynchronizedBooleanFormulaManager implements BooleanFormulaManager {
     if (pFormula == fls) {
       return true;
     }
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isFalse(pFormula);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T ifThenElse(BooleanFormula pCond, T pF1, T pF2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.ifThenElse(pCond, pF1, pF2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula not(BooleanFormula pBits) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.not(pBits);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula and(BooleanFormula pBits1, BooleanFormula pBits2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.and(pBits1, pBits2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula and(Collection<BooleanFormula> pBits) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.and(pBits);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula and(BooleanFormula... pBits) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.and(pBits);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -130,22 +159,31 @@ class SynchronizedBooleanFormulaManager implements BooleanFormulaManager {
 
   @Override
   public BooleanFormula or(BooleanFormula pBits1, BooleanFormula pBits2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.or(pBits1, pBits2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula or(Collection<BooleanFormula> pBits) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.or(pBits);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula or(BooleanFormula... pBits) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.or(pBits);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -156,45 +194,63 @@ class SynchronizedBooleanFormulaManager implements BooleanFormulaManager {
 
   @Override
   public BooleanFormula xor(BooleanFormula pBits1, BooleanFormula pBits2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.xor(pBits1, pBits2);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <R> R visit(BooleanFormula pFormula, BooleanFormulaVisitor<R> pVisitor) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.visit(pFormula, pVisitor);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public void visitRecursively(
       BooleanFormula pF, BooleanFormulaVisitor<TraversalProcess> pRFormulaVisitor) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.visitRecursively(pF, pRFormulaVisitor);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula transformRecursively(
       BooleanFormula pF, BooleanFormulaTransformationVisitor pVisitor) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.transformRecursively(pF, pVisitor);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public Set<BooleanFormula> toConjunctionArgs(BooleanFormula pF, boolean pFlatten) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.toConjunctionArgs(pF, pFlatten);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public Set<BooleanFormula> toDisjunctionArgs(BooleanFormula pF, boolean pFlatten) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.toDisjunctionArgs(pF, pFlatten);
+    } finally {
+      sync.unlock();
     }
   }
 }
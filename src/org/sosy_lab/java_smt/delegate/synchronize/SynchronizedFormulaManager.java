@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
 import java.util.List;
@@ -30,7 +31,6 @@ import org.sosy_lab.java_smt.api.IntegerFormulaManager;
 import org.sosy_lab.java_smt.api.QuantifiedFormulaManager;
 import org.sosy_lab.java_smt.api.RationalFormulaManager;
 import org.sosy_lab.java_smt.api.SLFormulaManager;
-import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.StringFormulaManager;
 import org.sosy_lab.java_smt.api.Tactic;
 import org.sosy_lab.java_smt.api.UFManager;
@@ -41,126 +41,184 @@ import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 class SynchronizedFormulaManager implements FormulaManager {
 
   private final FormulaManager delegate;
-  private final SolverContext sync;
+  private final SolverContextLock sync;
 
-  protected SynchronizedFormulaManager(FormulaManager pDelegate, SolverContext pSync) {
+  protected SynchronizedFormulaManager(FormulaManager pDelegate, SolverContextLock pSync) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
   }
 
   @Override
   public IntegerFormulaManager getIntegerFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedIntegerFormulaManager(delegate.getIntegerFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public RationalFormulaManager getRationalFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedRationalFormulaManager(delegate.getRationalFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormulaManager getBooleanFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedBooleanFormulaManager(delegate.getBooleanFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public ArrayFormulaManager getArrayFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedArrayFormulaManager(delegate.getArrayFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BitvectorFormulaManager getBitvectorFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedBitvectorFormulaManager(delegate.getBitvectorFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public FloatingPointFormulaManager getFloatingPointFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedFloatingPointFormulaManager(
           delegate.getFloatingPointFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public UFManager getUFManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedUFManager(delegate.getUFManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public SLFormulaManager getSLFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedSLFormulaManager(delegate.getSLFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public QuantifiedFormulaManager getQuantifiedFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedQuantifiedFormulaManager(delegate.getQuantifiedFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public StringFormulaManager getStringFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedStringFormulaManager(delegate.getStringFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public EnumerationFormulaManager getEnumerationFormulaManager() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return new SynchronizedEnumerationFormulaManager(
           delegate.getEnumerationFormulaManager(), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T makeVariable(FormulaType<T> pFormulaType, String pName) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeVariable(pFormulaType, pName);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T makeApplication(
       FunctionDeclaration<T> pDeclaration, List<? extends Formula> pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeApplication(pDeclaration, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T makeApplication(
       FunctionDeclaration<T> pDeclaration, Formula... pArgs) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.makeApplication(pDeclaration, pArgs);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> FormulaType<T> getFormulaType(T pFormula) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.getFormulaType(pFormula);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula parse(String pS) throws IllegalArgumentException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.parse(pS);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public void releaseSymbol(String pSymbol) {
+    sync.lock();
+    try {
+      delegate.releaseSymbol(pSymbol);
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -170,8 +228,11 @@ class SynchronizedFormulaManager implements FormulaManager {
       @Override
       public void appendTo(Appendable out) throws IOException {
         String dump;
-        synchronized (sync) {
+        sync.lock();
+        try {
           dump = delegate.dumpFormula(pT).toString(); // the work is done here
+        } finally {
+          sync.unlock();
         }
         out.append(dump);
       }
@@ -181,87 +242,156 @@ class SynchronizedFormulaManager implements FormulaManager {
   @Override
   public BooleanFormula applyTactic(BooleanFormula pInput, Tactic pTactic)
       throws InterruptedException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.applyTactic(pInput, pTactic);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T simplify(T pInput) throws InterruptedException {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.simplify(pInput);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <R> R visit(Formula pF, FormulaVisitor<R> pFormulaVisitor) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.visit(pF, pFormulaVisitor);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public void visitRecursively(Formula pF, FormulaVisitor<TraversalProcess> pFormulaVisitor) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.visitRecursively(pF, pFormulaVisitor);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T transformRecursively(
       T pF, FormulaTransformationVisitor pFormulaVisitor) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.transformRecursively(pF, pFormulaVisitor);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public void visitRecursivelyWithCache(
+      Formula pF, FormulaVisitor<TraversalProcess> pFormulaVisitor) {
+    sync.lock();
+    try {
+      delegate.visitRecursivelyWithCache(pF, pFormulaVisitor);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public <T extends Formula> T transformRecursivelyWithCache(
+      T pF, FormulaTransformationVisitor pFormulaVisitor) {
+    sync.lock();
+    try {
+      return delegate.transformRecursivelyWithCache(pF, pFormulaVisitor);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public ImmutableMap<String, Formula> extractVariables(Formula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.extractVariables(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public ImmutableMap<String, Formula> extractVariablesAndUFs(Formula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.extractVariablesAndUFs(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public <T extends Formula> T substitute(
       T pF, Map<? extends Formula, ? extends Formula> pFromToMapping) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.substitute(pF, pFromToMapping);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public <T extends Formula> ImmutableList<T> substituteAll(
+      List<T> pFormulas, Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    sync.lock();
+    try {
+      return delegate.substituteAll(pFormulas, pFromToMapping);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula translateFrom(BooleanFormula pFormula, FormulaManager pOtherContext) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.translateFrom(pFormula, pOtherContext);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public boolean isValidName(String pVariableName) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.isValidName(pVariableName);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public String escape(String pVariableName) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.escape(pVariableName);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public String unescape(String pVariableName) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.unescape(pVariableName);
+    } finally {
+      sync.unlock();
     }
   }
 }
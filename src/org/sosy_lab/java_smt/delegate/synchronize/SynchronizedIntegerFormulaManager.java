@@ -14,7 +14,6 @@ import java.math.BigInteger;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.IntegerFormulaManager;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
-import org.sosy_lab.java_smt.api.SolverContext;
 
 class SynchronizedIntegerFormulaManager
     extends SynchronizedNumeralFormulaManager<IntegerFormula, IntegerFormula>
@@ -22,7 +21,7 @@ class SynchronizedIntegerFormulaManager
 
   private final IntegerFormulaManager delegate;
 
-  SynchronizedIntegerFormulaManager(IntegerFormulaManager pDelegate, SolverContext pSync) {
+  SynchronizedIntegerFormulaManager(IntegerFormulaManager pDelegate, SolverContextLock pSync) {
     super(pDelegate, pSync);
     delegate = checkNotNull(pDelegate);
   }
@@ -30,23 +29,32 @@ class SynchronizedIntegerFormulaManager
   @Override
   public BooleanFormula modularCongruence(
       IntegerFormula pNumber1, IntegerFormula pNumber2, BigInteger pN) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.modularCongruence(pNumber1, pNumber2, pN);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public BooleanFormula modularCongruence(
       IntegerFormula pNumber1, IntegerFormula pNumber2, long pN) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.modularCongruence(pNumber1, pNumber2, pN);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public IntegerFormula modulo(IntegerFormula pNumber1, IntegerFormula pNumber2) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.modulo(pNumber1, pNumber2);
+    } finally {
+      sync.unlock();
     }
   }
 }
@@ -15,7 +15,6 @@ import java.util.List;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
-import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.SolverException;
 
 class SynchronizedInterpolatingProverEnvironmentWithContext<T>
@@ -26,7 +25,7 @@ class SynchronizedInterpolatingProverEnvironmentWithContext<T>
 
   SynchronizedInterpolatingProverEnvironmentWithContext(
       InterpolatingProverEnvironment<T> pDelegate,
-      SolverContext pSync,
+      SolverContextLock pSync,
       FormulaManager pManager,
       FormulaManager pOtherManager) {
     super(pDelegate, pSync, pManager, pOtherManager);
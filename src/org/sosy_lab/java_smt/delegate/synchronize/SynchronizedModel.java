@@ -11,7 +11,11 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.BiPredicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -20,96 +24,160 @@ import org.sosy_lab.java_smt.api.EnumerationFormula;
 import org.sosy_lab.java_smt.api.FloatingPointFormula;
 import org.sosy_lab.java_smt.api.FloatingPointNumber;
 import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
-import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.StringFormula;
 
 class SynchronizedModel implements Model {
 
   private final Model delegate;
-  private final SolverContext sync;
+  private final SolverContextLock sync;
 
-  SynchronizedModel(Model pDelegate, SolverContext pSync) {
+  SynchronizedModel(Model pDelegate, SolverContextLock pSync) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
   }
 
   @Override
   public <T extends Formula> @Nullable T eval(T pFormula) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.eval(pFormula);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable Object evaluate(Formula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable BigInteger evaluate(IntegerFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable Rational evaluate(RationalFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable Boolean evaluate(BooleanFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable BigInteger evaluate(BitvectorFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable String evaluate(StringFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable String evaluate(EnumerationFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public @Nullable FloatingPointNumber evaluate(FloatingPointFormula pF) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.evaluate(pF);
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public ImmutableMap<Formula, Object> evaluateAll(Collection<? extends Formula> pFormulas) {
+    sync.lock();
+    try {
+      return delegate.evaluateAll(pFormulas);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public ImmutableList<ValueAssignment> asList() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.asList();
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  /** The assignments are copied while holding the lock, as the iteration is not synchronized. */
+  @Override
+  public Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    sync.lock();
+    try {
+      return ImmutableList.copyOf(delegate.iterator(pSymbolFilter)).iterator();
+    } finally {
+      sync.unlock();
+    }
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    sync.lock();
+    try {
+      return delegate.getStatistics();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public void close() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.close();
+    } finally {
+      sync.unlock();
     }
   }
 }
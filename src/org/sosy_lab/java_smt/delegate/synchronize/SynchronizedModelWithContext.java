@@ -11,7 +11,11 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.BiPredicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -21,10 +25,10 @@ import org.sosy_lab.java_smt.api.FloatingPointFormula;
 import org.sosy_lab.java_smt.api.FloatingPointNumber;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
-import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.StringFormula;
 
 class SynchronizedModelWithContext implements Model {
@@ -33,12 +37,15 @@ class SynchronizedModelWithContext implements Model {
       "translating non-boolean formulae is not supported";
 
   private final Model delegate;
-  private final SolverContext sync;
+  private final SolverContextLock sync;
   private final FormulaManager manager;
   private final FormulaManager otherManager;
 
   SynchronizedModelWithContext(
-      Model pDelegate, SolverContext pSync, FormulaManager pManager, FormulaManager pOtherManager) {
+      Model pDelegate,
+      SolverContextLock pSync,
+      FormulaManager pManager,
+      FormulaManager pOtherManager) {
     delegate = checkNotNull(pDelegate);
     sync = checkNotNull(pSync);
     manager = checkNotNull(pManager);
@@ -68,8 +75,11 @@ class SynchronizedModelWithContext implements Model {
   @Override
   public @Nullable Boolean evaluate(BooleanFormula pF) {
     BooleanFormula f;
-    synchronized (sync) {
+    sync.lock();
+    try {
       f = otherManager.translateFrom(pF, manager);
+    } finally {
+      sync.unlock();
     }
     return delegate.evaluate(f);
   }
@@ -94,6 +104,11 @@ class SynchronizedModelWithContext implements Model {
     throw new UnsupportedOperationException(UNSUPPORTED_OPERATION);
   }
 
+  @Override
+  public ImmutableMap<Formula, Object> evaluateAll(Collection<? extends Formula> pFormulas) {
+    throw new UnsupportedOperationException(UNSUPPORTED_OPERATION);
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     throw new UnsupportedOperationException(UNSUPPORTED_OPERATION);
@@ -118,10 +133,28 @@ class SynchronizedModelWithContext implements Model {
     // return builder.build();
   }
 
+  @Override
+  public Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    throw new UnsupportedOperationException(UNSUPPORTED_OPERATION);
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    sync.lock();
+    try {
+      return delegate.getStatistics();
+    } finally {
+      sync.unlock();
+    }
+  }
+
   @Override
   public void close() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.close();
+    } finally {
+      sync.unlock();
     }
   }
 }
@@ -10,12 +10,11 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
-import org.sosy_lab.java_smt.api.SolverContext;
 
 class SynchronizedProverEnvironment extends SynchronizedBasicProverEnvironment<Void>
     implements ProverEnvironment {
 
-  SynchronizedProverEnvironment(BasicProverEnvironment<Void> pDelegate, SolverContext pSync) {
+  SynchronizedProverEnvironment(BasicProverEnvironment<Void> pDelegate, SolverContextLock pSync) {
     super(pDelegate, pSync);
   }
 }
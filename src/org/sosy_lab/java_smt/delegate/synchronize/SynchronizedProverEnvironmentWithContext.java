@@ -10,14 +10,13 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 
 import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
-import org.sosy_lab.java_smt.api.SolverContext;
 
 class SynchronizedProverEnvironmentWithContext
     extends SynchronizedBasicProverEnvironmentWithContext<Void> implements ProverEnvironment {
 
   SynchronizedProverEnvironmentWithContext(
       ProverEnvironment pDelegate,
-      SolverContext pSync,
+      SolverContextLock pSync,
       FormulaManager pManager,
       FormulaManager pOtherManager) {
     super(pDelegate, pSync, pManager, pOtherManager);
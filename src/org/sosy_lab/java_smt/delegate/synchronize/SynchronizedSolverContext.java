@@ -12,6 +12,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -36,8 +38,24 @@ public class SynchronizedSolverContext implements SolverContext {
               + "This allows more parallelity when solving larger queries.")
   private boolean useSeperateProvers = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Allow satisfiability checks of different provers to run in parallel, while all other "
+              + "operations on the context are still executed exclusively. "
+              + "This is only used for solvers that support concurrent checks on several provers "
+              + "of the same context.")
+  private boolean useConcurrentChecks = false;
+
+  /**
+   * Solvers that support satisfiability checks on several provers of the same context in parallel,
+   * cf. SolverConcurrencyTest.
+   */
+  private static final ImmutableSet<Solvers> SOLVERS_WITH_CONCURRENT_CHECKS =
+      Sets.immutableEnumSet(Solvers.CVC4);
+
   private final SolverContext delegate;
-  private final SolverContext sync;
+  private final SolverContextLock sync;
   private final Configuration config;
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
@@ -50,7 +68,10 @@ public class SynchronizedSolverContext implements SolverContext {
       throws InvalidConfigurationException {
     pConfig.inject(this, SynchronizedSolverContext.class);
     delegate = checkNotNull(pDelegate);
-    sync = delegate;
+    sync =
+        new SolverContextLock(
+            useConcurrentChecks
+                && SOLVERS_WITH_CONCURRENT_CHECKS.contains(delegate.getSolverName()));
     config = pConfig;
     logger = pLogger;
     shutdownNotifier = pShutdownNotifier;
@@ -74,13 +95,14 @@ public class SynchronizedSolverContext implements SolverContext {
 
   @Override
   public FormulaManager getFormulaManager() {
-    return new SynchronizedFormulaManager(delegate.getFormulaManager(), delegate);
+    return new SynchronizedFormulaManager(delegate.getFormulaManager(), sync);
   }
 
   @SuppressWarnings("resource")
   @Override
   public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       if (useSeperateProvers) {
         SolverContext otherContext = createOtherContext();
         return new SynchronizedProverEnvironmentWithContext(
@@ -89,8 +111,10 @@ public class SynchronizedSolverContext implements SolverContext {
             delegate.getFormulaManager(),
             otherContext.getFormulaManager());
       } else {
-        return new SynchronizedProverEnvironment(delegate.newProverEnvironment(pOptions), delegate);
+        return new SynchronizedProverEnvironment(delegate.newProverEnvironment(pOptions), sync);
       }
+    } finally {
+      sync.unlock();
     }
   }
 
@@ -98,7 +122,8 @@ public class SynchronizedSolverContext implements SolverContext {
   @Override
   public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
       ProverOptions... pOptions) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       if (useSeperateProvers) {
         SolverContext otherContext = createOtherContext();
         return new SynchronizedInterpolatingProverEnvironmentWithContext<>(
@@ -108,47 +133,64 @@ public class SynchronizedSolverContext implements SolverContext {
             otherContext.getFormulaManager());
       } else {
         return new SynchronizedInterpolatingProverEnvironment<>(
-            delegate.newProverEnvironmentWithInterpolation(pOptions), delegate);
+            delegate.newProverEnvironmentWithInterpolation(pOptions), sync);
       }
+    } finally {
+      sync.unlock();
     }
   }
 
   @SuppressWarnings("resource")
   @Override
   public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
-    synchronized (sync) {
+    sync.lock();
+    try {
       // seperate prover environment not available, because we can not translate arbitrary formulae.
       // if (useSeperateProvers) { }
       return new SynchronizedOptimizationProverEnvironment(
-          delegate.newOptimizationProverEnvironment(pOptions), delegate);
+          delegate.newOptimizationProverEnvironment(pOptions), sync);
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public String getVersion() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.getVersion();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public Solvers getSolverName() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.getSolverName();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public ImmutableMap<String, String> getStatistics() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       return delegate.getStatistics();
+    } finally {
+      sync.unlock();
     }
   }
 
   @Override
   public void close() {
-    synchronized (sync) {
+    sync.lock();
+    try {
       delegate.close();
+    } finally {
+      sync.unlock();
     }
   }
 }
@@ -101,6 +101,13 @@ final class BoolectorFormulaManager extends AbstractFormulaManager<Long, Long, L
     };
   }
 
+  @Override
+  protected BooleanFormula applyQELightImpl(BooleanFormula pF) throws InterruptedException {
+    // Returning the untouched formula is valid according to QE_LIGHT contract.
+    // The generic implementation requires a formula visitor, which Boolector does not provide.
+    return pF;
+  }
+
   static long getBtorTerm(Formula pT) {
     return ((BoolectorFormula) pT).getTerm();
   }
@@ -31,10 +31,12 @@ import org.sosy_lab.common.collect.PersistentMap;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Evaluator;
 import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.basicimpl.AbstractProverWithAllSat;
+import org.sosy_lab.java_smt.basicimpl.CachingModel;
 
 abstract class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
 
@@ -131,18 +133,19 @@ abstract class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
 
   @SuppressWarnings("resource")
   @Override
-  public CVC5Model getModel() {
+  public Model getModel() {
     Preconditions.checkState(!closed);
     Preconditions.checkState(!changedSinceLastSatQuery);
     checkGenerateModels();
     // special case for CVC5: Models are not permanent and need to be closed
     // before any change is applied to the prover stack. So, we register the Model as Evaluator.
-    return registerEvaluator(
-        new CVC5Model(
-            this,
-            mgr,
-            creator,
-            Collections2.transform(getAssertedFormulas(), creator::extractInfo)));
+    return new CachingModel(
+        registerEvaluator(
+            new CVC5Model(
+                this,
+                mgr,
+                creator,
+                Collections2.transform(getAssertedFormulas(), creator::extractInfo))));
   }
 
   @Override
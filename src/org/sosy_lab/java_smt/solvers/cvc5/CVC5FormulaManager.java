@@ -9,6 +9,7 @@
 package org.sosy_lab.java_smt.solvers.cvc5;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import de.uni_freiburg.informatik.ultimate.logic.PrintTerm;
 import io.github.cvc5.CVC5ApiException;
@@ -18,6 +19,7 @@ import io.github.cvc5.Sort;
 import io.github.cvc5.Term;
 import java.io.IOException;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Appenders;
@@ -140,6 +142,12 @@ class CVC5FormulaManager extends AbstractFormulaManager<Term, Sort, Solver, Term
   @Override
   public <T extends Formula> T substitute(
       final T f, final Map<? extends Formula, ? extends Formula> fromToMapping) {
+    return Iterables.getOnlyElement(substituteAll(ImmutableList.of(f), fromToMapping));
+  }
+
+  @Override
+  public <T extends Formula> ImmutableList<T> substituteAll(
+      final List<T> formulas, final Map<? extends Formula, ? extends Formula> fromToMapping) {
     Term[] changeFrom = new Term[fromToMapping.size()];
     Term[] changeTo = new Term[fromToMapping.size()];
     int idx = 0;
@@ -148,8 +156,12 @@ class CVC5FormulaManager extends AbstractFormulaManager<Term, Sort, Solver, Term
       changeTo[idx] = extractInfo(e.getValue());
       idx++;
     }
-    Term input = extractInfo(f);
-    FormulaType<T> type = getFormulaType(f);
-    return getFormulaCreator().encapsulate(type, input.substitute(changeFrom, changeTo));
+    ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(formulas.size());
+    for (T f : formulas) {
+      Term input = extractInfo(f);
+      FormulaType<T> type = getFormulaType(f);
+      result.add(getFormulaCreator().encapsulate(type, input.substitute(changeFrom, changeTo)));
+    }
+    return result.build();
   }
 }
@@ -13,7 +13,9 @@ import static com.google.common.base.Preconditions.checkState;
 import static org.sosy_lab.common.collect.Collections3.transformedImmutableSetCopy;
 
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import io.github.cvc5.CVC5ApiException;
 import io.github.cvc5.Kind;
@@ -23,12 +25,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.TreeInterpolation;
 
 public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
     implements InterpolatingProverEnvironment<String> {
@@ -38,6 +42,10 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
   private final int seed;
   private final CVC5BooleanFormulaManager bmgr;
   private final boolean validateInterpolants;
+  private final boolean incrementalInterpolation;
+
+  /** Solver for all interpolation queries in incremental mode, created on first use. */
+  private @Nullable Solver itpSolver;
 
   CVC5InterpolatingProver(
       CVC5FormulaCreator pFormulaCreator,
@@ -45,13 +53,16 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
       int randomSeed,
       Set<ProverOptions> pOptions,
       FormulaManager pMgr,
-      boolean pValidateInterpolants) {
+      boolean pValidateInterpolants,
+      boolean pIncrementalInterpolation) {
     super(pFormulaCreator, pShutdownNotifier, randomSeed, pOptions, pMgr);
     mgr = pMgr;
     solverOptions = pOptions;
     seed = randomSeed;
     bmgr = (CVC5BooleanFormulaManager) mgr.getBooleanFormulaManager();
     validateInterpolants = pValidateInterpolants;
+    // push and pop on the interpolation solver are only possible in incremental mode
+    incrementalInterpolation = pIncrementalInterpolation && incremental;
   }
 
   /**
@@ -97,6 +108,20 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
         "interpolation can only be done over previously asserted formulas.");
 
     final int n = partitions.size();
+
+    // conjunctions of the suffixes of the partitions, such that each B is only built once
+    final Term[] suffixes = new Term[n];
+    Term suffix = solver.mkTrue();
+    for (int i = n - 1; i > 0; i--) {
+      suffix =
+          bmgr.andImpl(
+              FluentIterable.from(partitions.get(i))
+                  .transform(assertedTerms.peek()::get)
+                  .append(suffix)
+                  .toSet());
+      suffixes[i] = suffix;
+    }
+
     final List<BooleanFormula> itps = new ArrayList<>();
     Term previousItp = solver.mkTrue();
     for (int i = 1; i < n; i++) {
@@ -105,11 +130,7 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
               .transform(assertedTerms.peek()::get)
               .append(previousItp)
               .toSet();
-      Collection<Term> formulasB =
-          FluentIterable.concat(partitions.subList(i, n))
-              .transform(assertedTerms.peek()::get)
-              .toSet();
-      Term itp = getCVC5Interpolation(formulasA, formulasB);
+      Term itp = getCVC5Interpolation(formulasA, ImmutableList.of(suffixes[i]));
       itps.add(creator.encapsulateBoolean(itp));
       previousItp = itp;
     }
@@ -118,10 +139,20 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
 
   @Override
   public List<BooleanFormula> getTreeInterpolants(
-      List<? extends Collection<String>> partitionedFormulas, int[] startOfSubTree) {
-    throw new UnsupportedOperationException(
-        "directly receiving tree interpolants is not supported."
-            + "Use another solver or another strategy for interpolants.");
+      List<? extends Collection<String>> partitionedFormulas, int[] startOfSubTree)
+      throws SolverException, InterruptedException {
+    checkState(!closed);
+    return TreeInterpolation.computeTreeInterpolants(
+        partitionedFormulas, startOfSubTree, getAssertedFormulasById(), this::getBinaryInterpolant);
+  }
+
+  private BooleanFormula getBinaryInterpolant(
+      List<BooleanFormula> formulasOfA, List<BooleanFormula> formulasOfB) {
+    Term itp =
+        getCVC5Interpolation(
+            Lists.transform(formulasOfA, creator::extractInfo),
+            Lists.transform(formulasOfB, creator::extractInfo));
+    return creator.encapsulateBoolean(itp);
   }
 
   /**
@@ -172,16 +203,19 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
     Term phiPlus = bmgr.andImpl(formulasA);
     Term phiMinus = bmgr.andImpl(formulasB);
 
-    // Uses a separate Solver instance to leave the original solver-context unmodified
-    Solver itpSolver = new Solver();
-    setSolverOptions(seed, solverOptions, itpSolver);
-
     Term interpolant;
-    try {
-      itpSolver.assertFormula(phiPlus);
-      interpolant = itpSolver.getInterpolant(itpSolver.mkTerm(Kind.NOT, phiMinus));
-    } finally {
-      itpSolver.deletePointer();
+    if (incrementalInterpolation) {
+      interpolant = getIncrementalInterpolant(phiPlus, phiMinus);
+    } else {
+      // Uses a separate Solver instance to leave the original solver-context unmodified
+      Solver freshItpSolver = new Solver();
+      setSolverOptions(seed, solverOptions, freshItpSolver);
+      try {
+        freshItpSolver.assertFormula(phiPlus);
+        interpolant = freshItpSolver.getInterpolant(freshItpSolver.mkTerm(Kind.NOT, phiMinus));
+      } finally {
+        freshItpSolver.deletePointer();
+      }
     }
 
     if (validateInterpolants) {
@@ -191,6 +225,45 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
     return interpolant;
   }
 
+  /**
+   * Computes the CVC5 interpolant for A and B within a new level of the reused interpolation
+   * solver, such that the solver setup is shared by all interpolation queries of this prover.
+   */
+  private Term getIncrementalInterpolant(Term phiPlus, Term phiMinus) {
+    Solver reusedItpSolver = itpSolver;
+    if (reusedItpSolver == null) {
+      reusedItpSolver = new Solver();
+      setSolverOptions(seed, solverOptions, reusedItpSolver);
+      itpSolver = reusedItpSolver;
+    }
+    try {
+      reusedItpSolver.push();
+    } catch (CVC5ApiException e) {
+      throw new IllegalStateException("Failure when preparing the interpolation solver.", e);
+    }
+    try {
+      reusedItpSolver.assertFormula(phiPlus);
+      return reusedItpSolver.getInterpolant(reusedItpSolver.mkTerm(Kind.NOT, phiMinus));
+    } finally {
+      try {
+        reusedItpSolver.pop();
+      } catch (CVC5ApiException e) {
+        // the level of A can not be removed, thus the next query needs a new solver
+        reusedItpSolver.deletePointer();
+        itpSolver = null;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (itpSolver != null) {
+      itpSolver.deletePointer();
+      itpSolver = null;
+    }
+    super.close();
+  }
+
   /**
    * Checks, whether the returned interpolant indeed satisfies Craig-Interpolation and Symbol Usage.
    *
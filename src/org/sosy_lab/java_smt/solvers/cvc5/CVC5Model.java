@@ -16,7 +16,9 @@ import io.github.cvc5.Kind;
 import io.github.cvc5.Solver;
 import io.github.cvc5.Sort;
 import io.github.cvc5.Term;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaManager;
@@ -53,6 +55,13 @@ public class CVC5Model extends AbstractModel<Term, Sort, Solver> {
     return solver.getValue(f);
   }
 
+  /** Evaluates all formulas with a single call of the solver. */
+  @Override
+  protected List<Term> evalAllImpl(List<Term> pFormulas) {
+    Preconditions.checkState(!isClosed());
+    return Arrays.asList(solver.getValue(pFormulas.toArray(new Term[0])));
+  }
+
   private ImmutableList<ValueAssignment> generateModel() {
     ImmutableSet.Builder<ValueAssignment> builder = ImmutableSet.builder();
     // Using creator.extractVariablesAndUFs we wouldn't get accurate information anymore as we
@@ -38,6 +38,13 @@ public final class CVC5SolverContext extends AbstractSolverContext {
         description = "apply additional validation checks for interpolation results")
     private boolean validateInterpolants = false;
 
+    @Option(
+        secure = true,
+        description =
+            "reuse one incremental solver for all interpolation queries of a prover, "
+                + "instead of creating a new solver for each interpolant")
+    private boolean incrementalInterpolation = false;
+
     private CVC5Settings(Configuration config) throws InvalidConfigurationException {
       config.inject(this);
     }
@@ -200,7 +207,8 @@ public final class CVC5SolverContext extends AbstractSolverContext {
         randomSeed,
         pOptions,
         getFormulaManager(),
-        settings.validateInterpolants);
+        settings.validateInterpolants,
+        settings.incrementalInterpolation);
   }
 
   @Override
@@ -57,7 +57,7 @@ abstract class Mathsat5AbstractProver<T2> extends AbstractProver<T2> {
 
   protected final Mathsat5SolverContext context;
   protected final long curEnv;
-  private final long curConfig;
+  protected final long curConfig;
   protected final Mathsat5FormulaCreator creator;
   private final ShutdownNotifier shutdownNotifier;
 
@@ -16,9 +16,12 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_to_s
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.primitives.Longs;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Appenders;
@@ -98,6 +101,12 @@ final class Mathsat5FormulaManager extends AbstractFormulaManager<Long, Long, Lo
   @Override
   public <T extends Formula> T substitute(
       final T f, final Map<? extends Formula, ? extends Formula> fromToMapping) {
+    return Iterables.getOnlyElement(substituteAll(ImmutableList.of(f), fromToMapping));
+  }
+
+  @Override
+  public <T extends Formula> ImmutableList<T> substituteAll(
+      final List<T> formulas, final Map<? extends Formula, ? extends Formula> fromToMapping) {
     long[] changeFrom = new long[fromToMapping.size()];
     long[] changeTo = new long[fromToMapping.size()];
     int idx = 0;
@@ -106,16 +115,21 @@ final class Mathsat5FormulaManager extends AbstractFormulaManager<Long, Long, Lo
       changeTo[idx] = extractInfo(e.getValue());
       idx++;
     }
-    FormulaType<T> type = getFormulaType(f);
-    return getFormulaCreator()
-        .encapsulate(
-            type,
-            msat_apply_substitution(
-                getFormulaCreator().getEnv(),
-                extractInfo(f),
-                fromToMapping.size(),
-                changeFrom,
-                changeTo));
+    ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(formulas.size());
+    for (T f : formulas) {
+      FormulaType<T> type = getFormulaType(f);
+      result.add(
+          getFormulaCreator()
+              .encapsulate(
+                  type,
+                  msat_apply_substitution(
+                      getFormulaCreator().getEnv(),
+                      extractInfo(f),
+                      fromToMapping.size(),
+                      changeFrom,
+                      changeTo)));
+    }
+    return result.build();
   }
 
   @Override
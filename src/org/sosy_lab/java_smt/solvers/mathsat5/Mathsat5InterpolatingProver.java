@@ -10,9 +10,15 @@ package org.sosy_lab.java_smt.solvers.mathsat5;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_assert_formula;
+import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_check_sat;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_create_itp_group;
+import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_destroy_env;
+import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_free_termination_callback;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_get_interpolant;
+import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_pop_backtrack_point;
+import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_push_backtrack_point;
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_set_itp_group;
+import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_set_termination_callback;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -30,6 +36,7 @@ import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.TreeInterpolation;
 
 class Mathsat5InterpolatingProver extends Mathsat5AbstractProver<Integer>
     implements InterpolatingProverEnvironment<Integer> {
@@ -106,9 +113,12 @@ class Mathsat5InterpolatingProver extends Mathsat5AbstractProver<Integer>
         "interpolation can only be done over previously asserted formulas.");
 
     int[] groupsOfA = Ints.toArray(formulasOfA);
-    long itp;
+    return creator.encapsulateBoolean(getMsatInterpolant(curEnv, groupsOfA));
+  }
+
+  private long getMsatInterpolant(long pEnv, int[] groupsOfA) throws SolverException {
     try {
-      itp = msat_get_interpolant(curEnv, groupsOfA);
+      return msat_get_interpolant(pEnv, groupsOfA);
     } catch (IllegalArgumentException e) {
       final String message = e.getMessage();
       if (!Strings.isNullOrEmpty(message)
@@ -120,7 +130,6 @@ class Mathsat5InterpolatingProver extends Mathsat5AbstractProver<Integer>
       }
       throw e;
     }
-    return creator.encapsulateBoolean(itp);
   }
 
   @Override
@@ -145,10 +154,51 @@ class Mathsat5InterpolatingProver extends Mathsat5AbstractProver<Integer>
 
   @Override
   public List<BooleanFormula> getTreeInterpolants(
-      List<? extends Collection<Integer>> partitionedFormulas, int[] startOfSubTree) {
-    throw new UnsupportedOperationException(
-        "directly receiving tree interpolants is not supported."
-            + "Use another solver or another strategy for interpolants.");
+      List<? extends Collection<Integer>> partitionedFormulas, int[] startOfSubTree)
+      throws SolverException, InterruptedException {
+    Preconditions.checkState(!closed);
+    // The interpolation queries for the tree contain interpolants instead of asserted formulas,
+    // thus they are solved in a separate environment that shares the terms of this prover.
+    long itpEnv = context.createEnvironment(curConfig);
+    try {
+      return TreeInterpolation.computeTreeInterpolants(
+          partitionedFormulas,
+          startOfSubTree,
+          getAssertedFormulasById(),
+          (formulasOfA, formulasOfB) -> getBinaryInterpolant(itpEnv, formulasOfA, formulasOfB));
+    } finally {
+      msat_destroy_env(itpEnv);
+    }
+  }
+
+  private BooleanFormula getBinaryInterpolant(
+      long pEnv, List<BooleanFormula> formulasOfA, List<BooleanFormula> formulasOfB)
+      throws SolverException, InterruptedException {
+    msat_push_backtrack_point(pEnv);
+    try {
+      int groupOfA = msat_create_itp_group(pEnv);
+      int groupOfB = msat_create_itp_group(pEnv);
+      msat_set_itp_group(pEnv, groupOfA);
+      for (BooleanFormula f : formulasOfA) {
+        msat_assert_formula(pEnv, creator.extractInfo(f));
+      }
+      msat_set_itp_group(pEnv, groupOfB);
+      for (BooleanFormula f : formulasOfB) {
+        msat_assert_formula(pEnv, creator.extractInfo(f));
+      }
+
+      final long hook = msat_set_termination_callback(pEnv, context.getTerminationTest());
+      try {
+        if (msat_check_sat(pEnv)) {
+          throw new SolverException("interpolation query for tree interpolants is satisfiable");
+        }
+      } finally {
+        msat_free_termination_callback(hook);
+      }
+      return creator.encapsulateBoolean(getMsatInterpolant(pEnv, new int[] {groupOfA}));
+    } finally {
+      msat_pop_backtrack_point(pEnv);
+    }
   }
 
   @Override
@@ -24,12 +24,17 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_term
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.BiPredicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel;
 
 class Mathsat5Model extends AbstractModel<Long, Long, Long> {
@@ -49,26 +54,67 @@ class Mathsat5Model extends AbstractModel<Long, Long, Long> {
 
   @Override
   public ImmutableList<ValueAssignment> asList() {
-    Preconditions.checkState(!isClosed());
-    Preconditions.checkState(!prover.isClosed(), "cannot use model after prover is closed");
     ImmutableList.Builder<ValueAssignment> assignments = ImmutableList.builder();
+    for (long[] keyAndValue : getModelEntries(null)) {
+      assignments.addAll(getAssignments(keyAndValue[0], keyAndValue[1]));
+    }
+    return assignments.build();
+  }
+
+  /**
+   * Only the native terms of the matching symbols are collected eagerly, such that the native
+   * iterator is always released. They are converted into assignments while iterating.
+   */
+  @Override
+  public Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    List<long[]> entries = getModelEntries(pSymbolFilter);
+    return Iterators.concat(
+        Iterators.transform(
+            entries.iterator(),
+            keyAndValue -> {
+              Preconditions.checkState(!isClosed());
+              Preconditions.checkState(
+                  !prover.isClosed(), "cannot use model after prover is closed");
+              return getAssignments(keyAndValue[0], keyAndValue[1]).iterator();
+            }));
+  }
 
+  /**
+   * @param pSymbolFilter filter for name and type of the symbol, or null to accept all symbols
+   * @return pairs of key and value of all matching symbols in the model
+   */
+  private List<long[]> getModelEntries(
+      @Nullable BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    Preconditions.checkState(!isClosed());
+    Preconditions.checkState(!prover.isClosed(), "cannot use model after prover is closed");
+    List<long[]> entries = new ArrayList<>();
     long modelIterator = msat_model_create_iterator(model);
-    while (msat_model_iterator_has_next(modelIterator)) {
-      long[] key = new long[1];
-      long[] value = new long[1];
-      if (msat_model_iterator_next(modelIterator, key, value)) {
-        throw new NoSuchElementException();
+    try {
+      while (msat_model_iterator_has_next(modelIterator)) {
+        long[] key = new long[1];
+        long[] value = new long[1];
+        if (msat_model_iterator_next(modelIterator, key, value)) {
+          throw new NoSuchElementException();
+        }
+        if (pSymbolFilter == null
+            || pSymbolFilter.test(
+                formulaCreator.getName(key[0]),
+                getAssignmentType(formulaCreator.getFormulaType(key[0])))) {
+          entries.add(new long[] {key[0], value[0]});
+        }
       }
+    } finally {
+      msat_destroy_model_iterator(modelIterator);
+    }
+    return entries;
+  }
 
-      if (msat_is_array_type(creator.getEnv(), msat_term_get_type(value[0]))) {
-        assignments.addAll(getArrayAssignments(key[0], key[0], value[0], ImmutableList.of()));
-      } else {
-        assignments.add(getAssignment(key[0], value[0]));
-      }
+  private Collection<ValueAssignment> getAssignments(long key, long value) {
+    if (msat_is_array_type(creator.getEnv(), msat_term_get_type(value))) {
+      return getArrayAssignments(key, key, value, ImmutableList.of());
+    } else {
+      return ImmutableList.of(getAssignment(key, value));
     }
-    msat_destroy_model_iterator(modelIterator);
-    return assignments.build();
   }
 
   private ValueAssignment getAssignment(long key, long value) {
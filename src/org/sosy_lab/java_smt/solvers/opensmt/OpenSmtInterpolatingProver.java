@@ -23,11 +23,16 @@ import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.ShutdownHook;
+import org.sosy_lab.java_smt.basicimpl.TreeInterpolation;
 import org.sosy_lab.java_smt.solvers.opensmt.OpenSmtSolverContext.OpenSMTOptions;
+import org.sosy_lab.java_smt.solvers.opensmt.api.MainSolver;
 import org.sosy_lab.java_smt.solvers.opensmt.api.PTRef;
 import org.sosy_lab.java_smt.solvers.opensmt.api.VectorInt;
 import org.sosy_lab.java_smt.solvers.opensmt.api.VectorPTRef;
 import org.sosy_lab.java_smt.solvers.opensmt.api.VectorVectorInt;
+import org.sosy_lab.java_smt.solvers.opensmt.api.sstat;
 
 class OpenSmtInterpolatingProver extends OpenSmtAbstractProver<Integer>
     implements InterpolatingProverEnvironment<Integer> {
@@ -113,8 +118,53 @@ class OpenSmtInterpolatingProver extends OpenSmtAbstractProver<Integer>
 
   @Override
   public List<BooleanFormula> getTreeInterpolants(
-      List<? extends Collection<Integer>> partitionedFormulas, int[] startOfSubTree) {
-    throw new UnsupportedOperationException("OpenSMT does not support tree interpolants");
+      List<? extends Collection<Integer>> partitionedFormulas, int[] startOfSubTree)
+      throws SolverException, InterruptedException {
+    checkState(!closed);
+    // The interpolation queries for the tree contain interpolants instead of asserted formulas,
+    // thus they are solved by a separate solver instance.
+    MainSolver itpSolver = new MainSolver(creator.getEnv(), osmtConfig, "JavaSmt");
+    try {
+      return TreeInterpolation.computeTreeInterpolants(
+          partitionedFormulas,
+          startOfSubTree,
+          getAssertedFormulasById(),
+          (formulasOfA, formulasOfB) -> getBinaryInterpolant(itpSolver, formulasOfA, formulasOfB));
+    } finally {
+      itpSolver.delete();
+    }
+  }
+
+  @SuppressWarnings("try") // ShutdownHook is never referenced, and this is correct.
+  private BooleanFormula getBinaryInterpolant(
+      MainSolver pSolver, List<BooleanFormula> formulasOfA, List<BooleanFormula> formulasOfB)
+      throws SolverException, InterruptedException {
+    pSolver.push();
+    try {
+      // the formulas are indexed in the order of insertion, starting with 0 on the empty solver
+      List<Integer> indicesOfA = new ArrayList<>(formulasOfA.size());
+      for (BooleanFormula f : formulasOfA) {
+        indicesOfA.add(indicesOfA.size());
+        pSolver.insertFormula(creator.extractInfo(f));
+      }
+      for (BooleanFormula f : formulasOfB) {
+        pSolver.insertFormula(creator.extractInfo(f));
+      }
+
+      sstat result;
+      try (ShutdownHook listener = new ShutdownHook(shutdownNotifier, pSolver::stop)) {
+        shutdownNotifier.shutdownIfNecessary();
+        result = pSolver.check();
+        shutdownNotifier.shutdownIfNecessary();
+      }
+      if (!result.equals(sstat.False())) {
+        throw new SolverException("interpolation query for tree interpolants is not unsat");
+      }
+      return creator.encapsulateBoolean(
+          pSolver.getInterpolationContext().getSingleInterpolant(new VectorInt(indicesOfA)));
+    } finally {
+      pSolver.pop();
+    }
   }
 
   @Override
@@ -221,6 +221,9 @@ abstract class Z3AbstractProver extends AbstractProverWithAllSat<Void> {
                 key, i, Native.statsToString(z3context, stats)));
       }
     }
+    creator
+        .getCleanupStatistics()
+        .forEach((key, value) -> builder.put(getUnusedKey(seenKeys, key), value));
 
     return builder.buildOrThrow();
   }
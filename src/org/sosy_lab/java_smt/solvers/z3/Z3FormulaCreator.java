@@ -11,6 +11,8 @@ package org.sosy_lab.java_smt.solvers.z3;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -27,9 +29,8 @@ import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -57,6 +58,7 @@ import org.sosy_lab.java_smt.api.StringFormula;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.basicimpl.FormulaCreator;
 import org.sosy_lab.java_smt.basicimpl.FunctionDeclarationImpl;
+import org.sosy_lab.java_smt.basicimpl.SymbolTable;
 import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3ArrayFormula;
 import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3BitvectorFormula;
 import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3BooleanFormula;
@@ -112,12 +114,46 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   @Option(secure = true, description = "Whether to use PhantomReferences for discarding Z3 AST")
   private boolean usePhantomReferences = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Release the Z3 ASTs of garbage-collected formulas only when a prover pops a level or "
+              + "checks satisfiability, instead of whenever a formula is created. "
+              + "This only has an effect together with usePhantomReferences.")
+  private boolean cleanupPhantomReferencesOnProverOperations = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Maximum number of Z3 ASTs released in one cleanup of phantom references (0 for no "
+              + "limit). Remaining ASTs are released in later cleanups.")
+  private int phantomReferenceCleanupBatchSize = 0;
+
+  @Option(
+      secure = true,
+      description =
+          "Maximum time in milliseconds spent in one cleanup of phantom references (0 for no "
+              + "limit). Remaining ASTs are released in later cleanups.")
+  private int phantomReferenceCleanupTimeLimit = 0;
+
+  @Option(
+      secure = true,
+      description =
+          "Whether to return the same Java object when wrapping the same Z3 AST several times. "
+              + "This reduces allocations, e.g., in formula visitors, and makes identity-based "
+              + "caches of formulas more effective.")
+  private boolean internFormulas = false;
+
+  /** Weakly interned wrappers for Z3 ASTs, or null if interning is disabled. */
+  private final @Nullable Cache<Long, Z3Formula> internedFormulas;
+
   /**
    * We need to track all created symbols for parsing.
    *
-   * <p>This map stores symbols (names) and their declaration (type information).
+   * <p>This table stores symbols (names) and their declaration (type information). It uses
+   * primitive handles, because the number of symbols can be very large.
    */
-  private final Map<String, Long> symbolsToDeclarations = new LinkedHashMap<>();
+  private final SymbolTable symbolsToDeclarations = new SymbolTable();
 
   private final Table<Long, Long, Long> allocatedArraySorts = HashBasedTable.create();
 
@@ -126,8 +162,9 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
 
   private final Z3AstReference referenceListHead;
 
-  // todo: getters for statistic.
   private final Timer cleanupTimer = new Timer();
+  private long releasedAsts = 0;
+  private long releasedMemory = 0;
   protected final ShutdownNotifier shutdownNotifier;
 
   @SuppressWarnings("ParameterNumber")
@@ -144,6 +181,7 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     super(pEnv, pBoolType, pIntegerType, pRealType, pStringType, pRegexType);
     shutdownNotifier = pShutdownNotifier;
     config.inject(this);
+    internedFormulas = internFormulas ? CacheBuilder.newBuilder().weakValues().build() : null;
 
     if (usePhantomReferences) {
       // Setup sentinel nodes for doubly-linked phantom reference list.
@@ -264,13 +302,22 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   }
 
   @Override
-  @SuppressWarnings("MethodTypeParameterName")
+  @SuppressWarnings({"MethodTypeParameterName", "unchecked"})
   protected <TD extends Formula, TR extends Formula> ArrayFormula<TD, TR> encapsulateArray(
       Long pTerm, FormulaType<TD> pIndexType, FormulaType<TR> pElementType) {
     assert getFormulaType(pTerm).equals(FormulaType.getArrayType(pIndexType, pElementType));
     cleanupReferences();
-    return storePhantomReference(
-        new Z3ArrayFormula<>(getEnv(), pTerm, pIndexType, pElementType), pTerm);
+    Z3Formula interned = getInterned(pTerm);
+    if (interned instanceof Z3ArrayFormula) {
+      Z3ArrayFormula<TD, TR> array = (Z3ArrayFormula<TD, TR>) interned;
+      if (array.getIndexType().equals(pIndexType) && array.getElementType().equals(pElementType)) {
+        return array;
+      }
+    }
+    return intern(
+        storePhantomReference(
+            new Z3ArrayFormula<>(getEnv(), pTerm, pIndexType, pElementType), pTerm),
+        pTerm);
   }
 
   @SuppressWarnings("unchecked")
@@ -283,30 +330,30 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             "Trying to encapsulate formula of type %s as %s", getFormulaType(pTerm), pType);
     cleanupReferences();
     if (pType.isBooleanType()) {
-      return (T) storePhantomReference(new Z3BooleanFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3BooleanFormula.class, Z3BooleanFormula::new);
     } else if (pType.isIntegerType()) {
-      return (T) storePhantomReference(new Z3IntegerFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3IntegerFormula.class, Z3IntegerFormula::new);
     } else if (pType.isRationalType()) {
-      return (T) storePhantomReference(new Z3RationalFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3RationalFormula.class, Z3RationalFormula::new);
     } else if (pType.isStringType()) {
-      return (T) storePhantomReference(new Z3StringFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3StringFormula.class, Z3StringFormula::new);
     } else if (pType.isRegexType()) {
-      return (T) storePhantomReference(new Z3RegexFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3RegexFormula.class, Z3RegexFormula::new);
     } else if (pType.isBitvectorType()) {
-      return (T) storePhantomReference(new Z3BitvectorFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3BitvectorFormula.class, Z3BitvectorFormula::new);
     } else if (pType.isFloatingPointType()) {
-      return (T) storePhantomReference(new Z3FloatingPointFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3FloatingPointFormula.class, Z3FloatingPointFormula::new);
     } else if (pType.isFloatingPointRoundingModeType()) {
       return (T)
-          storePhantomReference(new Z3FloatingPointRoundingModeFormula(getEnv(), pTerm), pTerm);
+          wrap(
+              pTerm,
+              Z3FloatingPointRoundingModeFormula.class,
+              Z3FloatingPointRoundingModeFormula::new);
     } else if (pType.isArrayType()) {
       ArrayFormulaType<?, ?> arrFt = (ArrayFormulaType<?, ?>) pType;
-      return (T)
-          storePhantomReference(
-              new Z3ArrayFormula<>(getEnv(), pTerm, arrFt.getIndexType(), arrFt.getElementType()),
-              pTerm);
+      return (T) encapsulateArray(pTerm, arrFt.getIndexType(), arrFt.getElementType());
     } else if (pType.isEnumerationType()) {
-      return (T) storePhantomReference(new Z3EnumerationFormula(getEnv(), pTerm), pTerm);
+      return (T) wrap(pTerm, Z3EnumerationFormula.class, Z3EnumerationFormula::new);
     }
 
     throw new IllegalArgumentException("Cannot create formulas of type " + pType + " in Z3");
@@ -316,21 +363,21 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   public BooleanFormula encapsulateBoolean(Long pTerm) {
     assert getFormulaType(pTerm).isBooleanType();
     cleanupReferences();
-    return storePhantomReference(new Z3BooleanFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3BooleanFormula.class, Z3BooleanFormula::new);
   }
 
   @Override
   public BitvectorFormula encapsulateBitvector(Long pTerm) {
     assert getFormulaType(pTerm).isBitvectorType();
     cleanupReferences();
-    return storePhantomReference(new Z3BitvectorFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3BitvectorFormula.class, Z3BitvectorFormula::new);
   }
 
   @Override
   protected FloatingPointFormula encapsulateFloatingPoint(Long pTerm) {
     assert getFormulaType(pTerm).isFloatingPointType();
     cleanupReferences();
-    return storePhantomReference(new Z3FloatingPointFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3FloatingPointFormula.class, Z3FloatingPointFormula::new);
   }
 
   @Override
@@ -341,7 +388,7 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             Native.astToString(getEnv(), pTerm),
             Native.sortToString(getEnv(), Native.getSort(getEnv(), pTerm)));
     cleanupReferences();
-    return storePhantomReference(new Z3StringFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3StringFormula.class, Z3StringFormula::new);
   }
 
   @Override
@@ -352,7 +399,7 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             Native.astToString(getEnv(), pTerm),
             Native.sortToString(getEnv(), Native.getSort(getEnv(), pTerm)));
     cleanupReferences();
-    return storePhantomReference(new Z3RegexFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3RegexFormula.class, Z3RegexFormula::new);
   }
 
   @Override
@@ -363,7 +410,7 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             Native.astToString(getEnv(), pTerm),
             Native.sortToString(getEnv(), Native.getSort(getEnv(), pTerm)));
     cleanupReferences();
-    return storePhantomReference(new Z3EnumerationFormula(getEnv(), pTerm), pTerm);
+    return wrap(pTerm, Z3EnumerationFormula.class, Z3EnumerationFormula::new);
   }
 
   @Override
@@ -423,6 +470,11 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     }
   }
 
+  @FunctionalInterface
+  private interface Z3FormulaConstructor<T extends Z3Formula> {
+    T create(long z3context, long z3expr);
+  }
+
   private <T extends Z3Formula> T storePhantomReference(T out, long pTerm) {
     if (usePhantomReferences) {
       referenceListHead.insert(new Z3AstReference(out, referenceQueue, pTerm));
@@ -430,21 +482,94 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     return out;
   }
 
+  /**
+   * Returns the interned wrapper of the given class for the term, or creates a new wrapper with the
+   * given constructor.
+   */
+  private <T extends Z3Formula> T wrap(
+      long pTerm, Class<T> pClass, Z3FormulaConstructor<T> pConstructor) {
+    Z3Formula interned = getInterned(pTerm);
+    if (pClass.isInstance(interned)) {
+      return pClass.cast(interned);
+    }
+    return intern(storePhantomReference(pConstructor.create(getEnv(), pTerm), pTerm), pTerm);
+  }
+
+  private @Nullable Z3Formula getInterned(long pTerm) {
+    return internedFormulas == null ? null : internedFormulas.getIfPresent(pTerm);
+  }
+
+  private <T extends Z3Formula> T intern(T pFormula, long pTerm) {
+    if (internedFormulas != null) {
+      internedFormulas.put(pTerm, pFormula);
+    }
+    return pFormula;
+  }
+
   private void cleanupReferences() {
-    if (!usePhantomReferences) {
-      return;
+    if (usePhantomReferences && !cleanupPhantomReferencesOnProverOperations) {
+      releaseCollectedReferences();
+    }
+  }
+
+  /** Called by provers before checking satisfiability and after popping a level. */
+  void cleanupReferencesOnProverOperation() {
+    if (usePhantomReferences && cleanupPhantomReferencesOnProverOperations) {
+      releaseCollectedReferences();
+    }
+  }
+
+  /** Release the ASTs of collected formulas, limited by the configured batch size and time. */
+  private void releaseCollectedReferences() {
+    Z3AstReference ref = (Z3AstReference) referenceQueue.poll();
+    if (ref == null) {
+      return; // nothing to release, and nothing to measure
     }
     cleanupTimer.start();
+    // The estimate of Z3 covers the memory of all contexts in this process and is thus distorted by
+    // concurrent work in other contexts. We query it only for the rare cleanups on prover
+    // operations, because the JNI calls would be too expensive for each created formula.
+    boolean measureMemory = cleanupPhantomReferencesOnProverOperations;
+    long memoryBefore = measureMemory ? Native.getEstimatedAllocSize() : 0;
     try {
-      Z3AstReference ref;
-      while ((ref = (Z3AstReference) referenceQueue.poll()) != null) {
+      long timeLimit = TimeUnit.MILLISECONDS.toNanos(phantomReferenceCleanupTimeLimit);
+      long start = timeLimit == 0 ? 0 : System.nanoTime();
+      int batchSize = phantomReferenceCleanupBatchSize;
+      int released = 0;
+      do {
         ref.cleanup(environment);
-      }
+        released++;
+      } while ((batchSize == 0 || released < batchSize)
+          && (timeLimit == 0 || System.nanoTime() - start < timeLimit)
+          && (ref = (Z3AstReference) referenceQueue.poll()) != null);
+      releasedAsts += released;
     } finally {
+      if (measureMemory) {
+        releasedMemory += Math.max(0, memoryBefore - Native.getEstimatedAllocSize());
+      }
       cleanupTimer.stop();
     }
   }
 
+  /**
+   * Statistics about the release of Z3 ASTs via phantom references, if enabled. The estimate of the
+   * released memory is only available for cleanups on prover operations, and it also contains
+   * memory released concurrently by other Z3 contexts.
+   */
+  ImmutableMap<String, String> getCleanupStatistics() {
+    if (!usePhantomReferences) {
+      return ImmutableMap.of();
+    }
+    ImmutableMap.Builder<String, String> statistics = ImmutableMap.builder();
+    statistics.put("javasmt.releasedAsts", Long.toString(releasedAsts));
+    if (cleanupPhantomReferencesOnProverOperations) {
+      statistics.put("javasmt.releasedMemoryEstimate", Long.toString(releasedMemory));
+    }
+    statistics.put(
+        "javasmt.cleanupTime", cleanupTimer.getSumTime().formatAs(TimeUnit.MILLISECONDS));
+    return statistics.buildOrThrow();
+  }
+
   private String getAppName(long f) {
     long funcDecl = Native.getAppDecl(environment, f);
     long symbol = Native.getDeclName(environment, funcDecl);
@@ -1076,11 +1201,22 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     }
   }
 
+  /**
+   * Forget the declaration of the symbol, such that the parser no longer declares it implicitly.
+   * The native declaration is not released, because Z3 creates the same declaration again for the
+   * same name and sort.
+   */
+  @Override
+  public void releaseSymbol(String pSymbol) {
+    symbolsToDeclarations.remove(pSymbol);
+  }
+
   /**
    * get a previously created application declaration, or <code>NULL</code> if the symbol is
    * unknown.
    */
   @Nullable Long getKnownDeclaration(String symbolName) {
-    return symbolsToDeclarations.get(symbolName);
+    long declaration = symbolsToDeclarations.getOrDefault(symbolName, 0);
+    return declaration == 0 ? null : declaration;
   }
 }
@@ -0,0 +1,148 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.solvers.z3;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.ArrayFormula;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3IntegerFormula;
+import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3RationalFormula;
+import org.sosy_lab.java_smt.test.SolverBasedTest0;
+
+/** Interning of Z3 formula wrappers, with and without phantom references. */
+@RunWith(Parameterized.class)
+public class Z3FormulaInterningTest extends SolverBasedTest0 {
+
+  @Parameters(name = "usePhantomReferences={0}")
+  public static List<Object[]> getParameters() {
+    return ImmutableList.of(new Object[] {false}, new Object[] {true});
+  }
+
+  @Parameter public boolean usePhantomReferences;
+
+  @Override
+  protected Solvers solverToUse() {
+    return Solvers.Z3;
+  }
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.z3.internFormulas", "true")
+        .setOption("solver.z3.usePhantomReferences", Boolean.toString(usePhantomReferences));
+  }
+
+  private Z3FormulaCreator getCreator() {
+    return (Z3FormulaCreator) ((Z3FormulaManager) mgr).getFormulaCreator();
+  }
+
+  @Test
+  public void sameAstSameInstance() {
+    IntegerFormula x = imgr.makeVariable("x");
+    assertThat(imgr.makeVariable("x")).isSameInstanceAs(x);
+
+    Z3FormulaCreator creator = getCreator();
+    assertThat(creator.encapsulate(FormulaType.IntegerType, creator.extractInfo(x)))
+        .isSameInstanceAs(x);
+
+    // the visitor wraps the arguments of a function application again
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    List<Formula> args =
+        mgr.visit(
+            bmgr.and(a, b),
+            new DefaultFormulaVisitor<List<Formula>>() {
+              @Override
+              protected List<Formula> visitDefault(Formula pF) {
+                return ImmutableList.of();
+              }
+
+              @Override
+              public List<Formula> visitFunction(
+                  Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pDeclaration) {
+                return pArgs;
+              }
+            });
+    assertThat(args).hasSize(2);
+    assertThat(args.get(0)).isSameInstanceAs(a);
+    assertThat(args.get(1)).isSameInstanceAs(b);
+  }
+
+  @Test
+  public void integerWrappedAsRational() {
+    IntegerFormula x = imgr.makeVariable("x");
+    Z3FormulaCreator creator = getCreator();
+    Long term = creator.extractInfo(x);
+
+    RationalFormula rational = creator.encapsulate(FormulaType.RationalType, term);
+    assertThat(rational).isNotSameInstanceAs(x);
+    assertThat(rational).isInstanceOf(Z3RationalFormula.class);
+
+    // wrapping as integer again must not return the rational wrapper
+    Formula integer = creator.encapsulate(FormulaType.IntegerType, term);
+    assertThat(integer).isInstanceOf(Z3IntegerFormula.class);
+    assertThat(integer).isEqualTo(x);
+  }
+
+  @Test
+  public void arraysWithDifferentTypes() {
+    requireArrays();
+    ArrayFormula<IntegerFormula, IntegerFormula> intArray =
+        amgr.makeArray("intArray", FormulaType.IntegerType, FormulaType.IntegerType);
+    ArrayFormula<IntegerFormula, BooleanFormula> boolArray =
+        amgr.makeArray("boolArray", FormulaType.IntegerType, FormulaType.BooleanType);
+    ArrayFormula<BooleanFormula, IntegerFormula> boolIndexArray =
+        amgr.makeArray("boolIndexArray", FormulaType.BooleanType, FormulaType.IntegerType);
+
+    assertThat(amgr.makeArray("intArray", FormulaType.IntegerType, FormulaType.IntegerType))
+        .isSameInstanceAs(intArray);
+    assertThat(boolArray).isNotSameInstanceAs(intArray);
+    assertThat(boolIndexArray).isNotSameInstanceAs(intArray);
+    assertThat(amgr.getElementType(boolArray)).isEqualTo(FormulaType.BooleanType);
+    assertThat(amgr.getIndexType(boolIndexArray)).isEqualTo(FormulaType.BooleanType);
+    assertThat(amgr.getElementType(intArray)).isEqualTo(FormulaType.IntegerType);
+    assertThat(amgr.getIndexType(intArray)).isEqualTo(FormulaType.IntegerType);
+  }
+
+  @Test
+  public void internedFormulasRemainUsable() throws SolverException, InterruptedException {
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 1000; i++) {
+        assertThat(imgr.add(imgr.makeVariable("y" + i), imgr.makeNumber(round))).isNotNull();
+      }
+      System.gc();
+
+      // the wrappers of collected formulas are created again for the same ASTs
+      IntegerFormula y = imgr.makeVariable("y0");
+      assertThat(imgr.makeVariable("y0")).isSameInstanceAs(y);
+      try (ProverEnvironment prover = context.newProverEnvironment()) {
+        prover.addConstraint(imgr.greaterThan(imgr.add(y, imgr.makeNumber(round)), y));
+        assertThat(prover.isUnsat()).isEqualTo(round == 0);
+      }
+    }
+  }
+}
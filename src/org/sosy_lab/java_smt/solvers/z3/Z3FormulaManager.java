@@ -8,14 +8,20 @@
 
 package org.sosy_lab.java_smt.solvers.z3;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.primitives.Longs;
 import com.microsoft.z3.Native;
 import com.microsoft.z3.Z3Exception;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.sosy_lab.common.Appender;
@@ -28,6 +34,15 @@ import org.sosy_lab.java_smt.basicimpl.AbstractFormulaManager;
 
 final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Long> {
 
+  /** Commands that declare or define a new symbol, which is given as next token. */
+  private static final ImmutableSet<String> DECLARING_COMMANDS =
+      ImmutableSet.of("declare-fun", "declare-const", "define-fun", "define-fun-rec");
+
+  private static final Pattern UNKNOWN_CONSTANT_PATTERN =
+      Pattern.compile(
+          "\\(error \"line \\d+ column \\d+: unknown constant"
+              + " (?<name>.*?)\\s?(?<sorts>\\(.*\\))?\\s?\\\"\\)\\n");
+
   private final Z3FormulaCreator formulaCreator;
 
   @SuppressWarnings("checkstyle:parameternumber")
@@ -64,7 +79,7 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
 
     // Z3 does not access the existing symbols on its own,
     // but requires all symbols as part of the query.
-    // Thus, we track the used symbols on our own and give them to the parser call, if required.
+    // Thus, we track the used symbols on our own and give them to the parser call.
     // Later, we collect all symbols from the parsed query and
     // define them again to have them tracked.
 
@@ -74,9 +89,17 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
     long[] sortSymbols = new long[0];
     long[] sorts = new long[0];
 
-    // first step: lets try to parse the query directly, without additional information
+    // first step: scan the query once for all known symbols that are not declared in the query,
+    // such that the query can be parsed with a single call in most cases.
     List<Long> declSymbols = new ArrayList<>();
     List<Long> decls = new ArrayList<>();
+    for (String symbol : collectUndeclaredSymbols(str)) {
+      Long appDecl = formulaCreator.getKnownDeclaration(symbol);
+      if (appDecl != null) {
+        declSymbols.add(Native.mkStringSymbol(env, symbol));
+        decls.add(appDecl);
+      }
+    }
 
     long e = 0;
     boolean finished = false;
@@ -95,16 +118,13 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
         finished = true;
 
       } catch (Z3Exception nested) {
-        // get the missing symbol and restart the parsing with them
-        Pattern pattern =
-            Pattern.compile(
-                "\\(error \"line \\d+ column \\d+: unknown constant"
-                    + " (?<name>.*?)\\s?(?<sorts>\\(.*\\))?\\s?\\\"\\)\\n");
-        Matcher matcher = pattern.matcher(nested.getMessage());
+        // The scan should have found all symbols, but we keep this fallback for symbols
+        // with an unusual notation: get the missing symbol and restart the parsing with it.
+        Matcher matcher = UNKNOWN_CONSTANT_PATTERN.matcher(nested.getMessage());
         if (matcher.matches()) {
           String missingSymbol = matcher.group(1);
           Long appDecl = formulaCreator.getKnownDeclaration(missingSymbol);
-          if (appDecl != null) { // if the symbol is known, then use it
+          if (appDecl != null && !decls.contains(appDecl)) { // if the symbol is known, use it
             declSymbols.add(Native.mkStringSymbol(env, missingSymbol));
             decls.add(appDecl);
             continue; // restart the parsing
@@ -147,6 +167,74 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
     }
   }
 
+  /**
+   * Scan an SMT-LIB2 string for all symbols that are used, but not declared or defined in the
+   * string itself. The scan is only approximate, e.g., it also returns keywords, operators, and
+   * bound variables, which are then simply not found among the known declarations.
+   */
+  @VisibleForTesting
+  static Set<String> collectUndeclaredSymbols(String pInput) {
+    Set<String> symbols = new LinkedHashSet<>();
+    Set<String> declared = new HashSet<>();
+    boolean nextIsDeclared = false;
+    int length = pInput.length();
+    int i = 0;
+    while (i < length) {
+      char c = pInput.charAt(i);
+      String symbol = null;
+      if (c == ';') { // comment until end of line
+        while (i < length && pInput.charAt(i) != '\n') {
+          i++;
+        }
+      } else if (c == '"') { // string literal, quotes are escaped by doubling them
+        i++;
+        while (i < length) {
+          if (pInput.charAt(i) == '"') {
+            if (i + 1 < length && pInput.charAt(i + 1) == '"') {
+              i++;
+            } else {
+              break;
+            }
+          }
+          i++;
+        }
+        i++;
+      } else if (c == '|') { // quoted symbol
+        int end = pInput.indexOf('|', i + 1);
+        if (end < 0) {
+          end = length;
+        }
+        symbol = pInput.substring(i + 1, end);
+        i = end + 1;
+      } else if (c == '(' || c == ')' || Character.isWhitespace(c)) {
+        i++;
+      } else { // simple symbol, keyword, or literal
+        int start = i;
+        while (i < length) {
+          char d = pInput.charAt(i);
+          if (d == '(' || d == ')' || d == ';' || d == '"' || Character.isWhitespace(d)) {
+            break;
+          }
+          i++;
+        }
+        symbol = pInput.substring(start, i);
+      }
+
+      if (symbol != null) {
+        if (nextIsDeclared) {
+          declared.add(symbol);
+          nextIsDeclared = false;
+        } else if (DECLARING_COMMANDS.contains(symbol)) {
+          nextIsDeclared = true;
+        } else {
+          symbols.add(symbol);
+        }
+      }
+    }
+    symbols.removeAll(declared);
+    return symbols;
+  }
+
   @Override
   protected BooleanFormula applyQELightImpl(BooleanFormula pF) throws InterruptedException {
     return applyTacticImpl(pF, "qe-light");
@@ -202,6 +290,12 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
   @Override
   public <T extends Formula> T substitute(
       final T f, final Map<? extends Formula, ? extends Formula> fromToMapping) {
+    return Iterables.getOnlyElement(substituteAll(ImmutableList.of(f), fromToMapping));
+  }
+
+  @Override
+  public <T extends Formula> ImmutableList<T> substituteAll(
+      final List<T> formulas, final Map<? extends Formula, ? extends Formula> fromToMapping) {
     long[] changeFrom = new long[fromToMapping.size()];
     long[] changeTo = new long[fromToMapping.size()];
     int idx = 0;
@@ -210,16 +304,21 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
       changeTo[idx] = extractInfo(e.getValue());
       idx++;
     }
-    FormulaType<T> type = getFormulaType(f);
-    return getFormulaCreator()
-        .encapsulate(
-            type,
-            Native.substitute(
-                getFormulaCreator().getEnv(),
-                extractInfo(f),
-                fromToMapping.size(),
-                changeFrom,
-                changeTo));
+    ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(formulas.size());
+    for (T f : formulas) {
+      FormulaType<T> type = getFormulaType(f);
+      result.add(
+          getFormulaCreator()
+              .encapsulate(
+                  type,
+                  Native.substitute(
+                      getFormulaCreator().getEnv(),
+                      extractInfo(f),
+                      fromToMapping.size(),
+                      changeFrom,
+                      changeTo)));
+    }
+    return result.build();
   }
 
   @Override
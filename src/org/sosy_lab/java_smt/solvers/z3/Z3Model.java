@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.solvers.z3;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.VerifyException;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.microsoft.z3.Native;
 import com.microsoft.z3.Native.LongPtr;
@@ -17,10 +18,15 @@ import com.microsoft.z3.enumerations.Z3_decl_kind;
 import com.microsoft.z3.enumerations.Z3_sort_kind;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiPredicate;
 import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel;
 import org.sosy_lab.java_smt.basicimpl.AbstractProver;
 
@@ -44,27 +50,87 @@ final class Z3Model extends AbstractModel<Long, Long, Long> {
   public ImmutableList<ValueAssignment> asList() {
     Preconditions.checkState(!isClosed());
     ImmutableList.Builder<ValueAssignment> out = ImmutableList.builder();
+    int numSymbols = getNumSymbols();
+    for (int symbolIdx = 0; symbolIdx < numSymbols; symbolIdx++) {
+      out.addAll(getAssignments(symbolIdx, null));
+    }
+    return out.build();
+  }
+
+  /** Converts the assignments of each symbol only when the iteration reaches the symbol. */
+  @Override
+  public Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    Preconditions.checkState(!isClosed());
+    int numSymbols = getNumSymbols();
+    return new AbstractIterator<ValueAssignment>() {
+      private int symbolIdx = 0;
+      private Iterator<ValueAssignment> assignments = Collections.emptyIterator();
+
+      @Override
+      protected ValueAssignment computeNext() {
+        while (!assignments.hasNext()) {
+          if (symbolIdx >= numSymbols) {
+            return endOfData();
+          }
+          Preconditions.checkState(!isClosed());
+          assignments = getAssignments(symbolIdx++, pSymbolFilter).iterator();
+        }
+        return assignments.next();
+      }
+    };
+  }
+
+  /** Z3 lists the constants of the model first, and then the functions. */
+  private int getNumSymbols() {
+    return Native.modelGetNumConsts(z3context, model) + Native.modelGetNumFuncs(z3context, model);
+  }
 
-    // Iterate through constants.
-    for (int constIdx = 0; constIdx < Native.modelGetNumConsts(z3context, model); constIdx++) {
-      long keyDecl = Native.modelGetConstDecl(z3context, model, constIdx);
+  /**
+   * @param symbolIdx index of the symbol, counting constants first and then functions
+   * @param pSymbolFilter filter for name and type of the symbol, or null to accept all symbols
+   * @return ValueAssignments for the symbol with the given index
+   */
+  private Collection<ValueAssignment> getAssignments(
+      int symbolIdx, @Nullable BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    int numConsts = Native.modelGetNumConsts(z3context, model);
+    if (symbolIdx < numConsts) {
+      // Iterate through constants.
+      long keyDecl = Native.modelGetConstDecl(z3context, model, symbolIdx);
       Native.incRef(z3context, keyDecl);
-      out.addAll(getConstAssignments(keyDecl));
-      Native.decRef(z3context, keyDecl);
-    }
+      try {
+        if (!matches(keyDecl, pSymbolFilter)) {
+          return ImmutableList.of();
+        }
+        return getConstAssignments(keyDecl);
+      } finally {
+        Native.decRef(z3context, keyDecl);
+      }
 
-    // Iterate through function applications.
-    for (int funcIdx = 0; funcIdx < Native.modelGetNumFuncs(z3context, model); funcIdx++) {
-      long funcDecl = Native.modelGetFuncDecl(z3context, model, funcIdx);
+    } else {
+      // Iterate through function applications.
+      long funcDecl = Native.modelGetFuncDecl(z3context, model, symbolIdx - numConsts);
       Native.incRef(z3context, funcDecl);
-      if (!isInternalSymbol(funcDecl)) {
+      try {
+        if (isInternalSymbol(funcDecl) || !matches(funcDecl, pSymbolFilter)) {
+          return ImmutableList.of();
+        }
         String functionName = z3creator.symbolToString(Native.getDeclName(z3context, funcDecl));
-        out.addAll(getFunctionAssignments(funcDecl, funcDecl, functionName));
+        return getFunctionAssignments(funcDecl, funcDecl, functionName);
+      } finally {
+        Native.decRef(z3context, funcDecl);
       }
-      Native.decRef(z3context, funcDecl);
     }
+  }
 
-    return out.build();
+  /** Checks name and type of a declaration without converting any value of the model. */
+  private boolean matches(long decl, @Nullable BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+    if (pSymbolFilter == null) {
+      return true;
+    }
+    String name = z3creator.symbolToString(Native.getDeclName(z3context, decl));
+    FormulaType<?> type =
+        getAssignmentType(z3creator.getFormulaTypeFromSort(Native.getRange(z3context, decl)));
+    return pSymbolFilter.test(name, type);
   }
 
   /**
@@ -74,6 +74,7 @@ class Z3OptimizationProver extends Z3AbstractProver implements OptimizationProve
   @Override
   public OptStatus check() throws InterruptedException, Z3SolverException {
     Preconditions.checkState(!closed);
+    creator.cleanupReferencesOnProverOperation();
     int status;
     try {
       status =
@@ -114,6 +115,7 @@ class Z3OptimizationProver extends Z3AbstractProver implements OptimizationProve
   protected void popImpl() {
     Native.optimizePop(z3context, z3optSolver);
     pop0();
+    creator.cleanupReferencesOnProverOperation();
   }
 
   @Override
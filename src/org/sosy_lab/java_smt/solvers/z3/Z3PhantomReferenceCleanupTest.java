@@ -0,0 +1,92 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.solvers.z3;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+
+import java.util.Map;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.test.SolverBasedTest0;
+
+/** Release of Z3 ASTs in limited batches on prover operations, and the statistics about it. */
+public class Z3PhantomReferenceCleanupTest extends SolverBasedTest0 {
+
+  private static final int BATCH_SIZE = 10;
+
+  @Override
+  protected Solvers solverToUse() {
+    return Solvers.Z3;
+  }
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.z3.usePhantomReferences", "true")
+        .setOption("solver.z3.cleanupPhantomReferencesOnProverOperations", "true")
+        .setOption("solver.z3.phantomReferenceCleanupBatchSize", Integer.toString(BATCH_SIZE))
+        .setOption("solver.z3.phantomReferenceCleanupTimeLimit", "10000");
+  }
+
+  @Test
+  public void statisticsAreReported() throws SolverException, InterruptedException {
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.addConstraint(bmgr.makeVariable("a"));
+      assertThat(prover.isUnsat()).isFalse();
+      Map<String, String> statistics = prover.getStatistics();
+      assertThat(statistics).containsKey("javasmt.releasedAsts");
+      assertThat(statistics).containsKey("javasmt.releasedMemoryEstimate");
+      assertThat(statistics).containsKey("javasmt.cleanupTime");
+      assertThat(Long.parseLong(statistics.get("javasmt.releasedMemoryEstimate"))).isAtLeast(0L);
+    }
+  }
+
+  @Test
+  public void cleanupIsLimitedByBatchSize() throws InterruptedException {
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      long released = getReleasedAsts(prover);
+      for (int round = 0; round < 50 && released <= BATCH_SIZE; round++) {
+        createGarbage(round);
+        System.gc();
+
+        // creating formulas does not release anything in this mode
+        bmgr.makeVariable("trigger" + round);
+        assertThat(getReleasedAsts(prover)).isEqualTo(released);
+
+        prover.push();
+        prover.pop();
+        long releasedNow = getReleasedAsts(prover);
+        assertThat(releasedNow - released).isAtMost(BATCH_SIZE);
+        released = releasedNow;
+      }
+      // the garbage collector does not guarantee to enqueue the references
+      assume()
+          .withMessage("too few phantom references were enqueued by the garbage collector")
+          .that(released)
+          .isGreaterThan((long) BATCH_SIZE);
+    }
+  }
+
+  private void createGarbage(int pRound) {
+    for (int i = 0; i < 100; i++) {
+      BooleanFormula unused =
+          bmgr.and(bmgr.makeVariable("x" + pRound + "_" + i), bmgr.makeVariable("y" + i));
+      assertThat(unused).isNotNull();
+    }
+  }
+
+  private static long getReleasedAsts(ProverEnvironment pProver) {
+    return Long.parseLong(pProver.getStatistics().get("javasmt.releasedAsts"));
+  }
+}
@@ -69,6 +69,7 @@ class Z3TheoremProver extends Z3AbstractProver implements ProverEnvironment {
   protected void popImpl() {
     Native.solverPop(z3context, z3solver, 1);
     pop0();
+    creator.cleanupReferencesOnProverOperation();
   }
 
   @Override
@@ -84,6 +85,7 @@ class Z3TheoremProver extends Z3AbstractProver implements ProverEnvironment {
   @Override
   public boolean isUnsat() throws Z3SolverException, InterruptedException {
     Preconditions.checkState(!closed);
+    creator.cleanupReferencesOnProverOperation();
     logSolverStack();
     int result;
     try {
@@ -99,6 +101,7 @@ class Z3TheoremProver extends Z3AbstractProver implements ProverEnvironment {
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
       throws Z3SolverException, InterruptedException {
     Preconditions.checkState(!closed);
+    creator.cleanupReferencesOnProverOperation();
 
     int result;
     try {
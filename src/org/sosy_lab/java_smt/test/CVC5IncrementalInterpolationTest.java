@@ -0,0 +1,30 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.TruthJUnit.assume;
+
+import org.junit.Before;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/** Runs the interpolation tests for CVC5 with one reused solver for all interpolation queries. */
+public class CVC5IncrementalInterpolationTest extends InterpolatingProverTest {
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.cvc5.incrementalInterpolation", "true");
+  }
+
+  @Before
+  public void requireCVC5() {
+    assume().that(solverToUse()).isEqualTo(Solvers.CVC5);
+  }
+}
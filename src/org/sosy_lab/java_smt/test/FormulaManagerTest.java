@@ -10,6 +10,7 @@ package org.sosy_lab.java_smt.test;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.TruthJUnit.assume;
+import static org.junit.Assert.assertThrows;
 import static org.sosy_lab.java_smt.api.FormulaType.BooleanType;
 import static org.sosy_lab.java_smt.api.FormulaType.IntegerType;
 
@@ -24,6 +25,7 @@ import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.ArrayFormula;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
 import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
@@ -125,6 +127,57 @@ public class FormulaManagerTest extends SolverBasedTest0.ParameterizedSolverBase
     assertThatFormula(out2).isEquivalentTo(out);
   }
 
+  @Test
+  public void testSubstituteAll() throws SolverException, InterruptedException {
+    requireSubstitution();
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula a1 = bmgr.makeVariable("a1");
+    BooleanFormula c1 = bmgr.makeVariable("c1");
+    BooleanFormula shared = bmgr.and(a, b);
+    ImmutableList<BooleanFormula> inputs =
+        ImmutableList.of(bmgr.or(shared, c), bmgr.xor(shared, bmgr.not(c)), c);
+    ImmutableMap<BooleanFormula, BooleanFormula> substitution = ImmutableMap.of(a, a1, c, c1);
+
+    ImmutableList<BooleanFormula> outputs = mgr.substituteAll(inputs, substitution);
+    assertThat(outputs).hasSize(3);
+    BooleanFormula sharedOut = bmgr.and(a1, b);
+    assertThatFormula(outputs.get(0)).isEquivalentTo(bmgr.or(sharedOut, c1));
+    assertThatFormula(outputs.get(1)).isEquivalentTo(bmgr.xor(sharedOut, bmgr.not(c1)));
+    assertThatFormula(outputs.get(2)).isEquivalentTo(c1);
+    assertThat(mgr.substituteAll(ImmutableList.<BooleanFormula>of(), substitution)).isEmpty();
+  }
+
+  @Test
+  public void testSubstituteAllSharedSubterms() throws SolverException, InterruptedException {
+    requireSubstitution();
+    requireIntegers();
+
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula one = imgr.makeNumber(1);
+    BooleanFormula shared = imgr.lessThan(x, y);
+    BooleanFormula b = bmgr.makeVariable("b");
+    ImmutableList<BooleanFormula> inputs =
+        ImmutableList.of(
+            bmgr.and(shared, imgr.equal(x, one)),
+            bmgr.or(shared, b),
+            bmgr.implication(b, shared));
+    // the shared atom is substituted as a whole, its operand x also occurs outside of it
+    ImmutableMap<Formula, Formula> substitution =
+        ImmutableMap.of(shared, bmgr.makeVariable("p"), x, imgr.makeVariable("x1"));
+
+    ImmutableList<BooleanFormula> outputs = mgr.substituteAll(inputs, substitution);
+    assertThat(outputs).hasSize(3);
+    BooleanFormula p = bmgr.makeVariable("p");
+    IntegerFormula x1 = imgr.makeVariable("x1");
+    assertThatFormula(outputs.get(0)).isEquivalentTo(bmgr.and(p, imgr.equal(x1, one)));
+    assertThatFormula(outputs.get(1)).isEquivalentTo(bmgr.or(p, b));
+    assertThatFormula(outputs.get(2)).isEquivalentTo(bmgr.implication(b, p));
+  }
+
   @Test
   public void testSubstitutionMultipleInstances() throws SolverException, InterruptedException {
     requireSubstitution();
@@ -355,6 +408,23 @@ public class FormulaManagerTest extends SolverBasedTest0.ParameterizedSolverBase
     assertThatFormula(mgr.simplify(f)).isEquisatisfiableTo(f);
   }
 
+  @Test
+  public void releaseSymbolTest() throws SolverException, InterruptedException {
+    requireIntegers();
+    requireParser();
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula f = imgr.equal(x, imgr.makeNumber(1));
+
+    mgr.releaseSymbol("x");
+    assertThatFormula(f).isSatisfiable();
+    if (solver == Solvers.Z3) {
+      // the released symbol is no longer declared implicitly
+      assertThrows(IllegalArgumentException.class, () -> mgr.parse("(assert (= x 1))"));
+    }
+    assertThatFormula(mgr.parse("(declare-fun x () Int)(assert (= x 1))")).isEquivalentTo(f);
+    assertThat(imgr.makeVariable("x")).isEqualTo(x);
+  }
+
   @Test
   public void simplifyArrayTest() throws SolverException, InterruptedException {
     requireIntegers();
@@ -0,0 +1,79 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.ImplicantAllSat;
+
+public class ImplicantAllSatTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  private List<BooleanFormula> allSat(BooleanFormula constraint, List<BooleanFormula> important)
+      throws SolverException, InterruptedException {
+    return new ImplicantAllSat(context)
+        .allSat(
+            ImmutableList.of(constraint),
+            important,
+            new AllSatCallback<List<BooleanFormula>>() {
+              private final List<BooleanFormula> models = new ArrayList<>();
+
+              @Override
+              public void apply(List<BooleanFormula> pModel) {
+                models.add(bmgr.and(pModel));
+              }
+
+              @Override
+              public List<BooleanFormula> getResult() {
+                return models;
+              }
+            });
+  }
+
+  @Test
+  public void irrelevantPredicatesAreRemoved() throws SolverException, InterruptedException {
+    requireUnsatCoreOverAssumptions();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula d = bmgr.makeVariable("d");
+    BooleanFormula e = bmgr.makeVariable("e");
+    BooleanFormula constraint = bmgr.or(a, bmgr.and(b, c));
+
+    List<BooleanFormula> models = allSat(constraint, ImmutableList.of(a, b, c, d, e));
+
+    // without generalization, there would be 20 models
+    assertThat(models.size()).isAtMost(3);
+    assertThatFormula(bmgr.or(models)).isEquivalentTo(constraint);
+  }
+
+  @Test
+  public void theoryConstraintsAreNotGeneralized() throws SolverException, InterruptedException {
+    requireIntegers();
+    requireUnsatCoreOverAssumptions();
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula b1 = bmgr.makeVariable("b1");
+    BooleanFormula b2 = bmgr.makeVariable("b2");
+    BooleanFormula constraint =
+        bmgr.and(
+            bmgr.equivalence(b1, imgr.equal(x, imgr.makeNumber(1))),
+            bmgr.equivalence(b2, imgr.equal(x, imgr.makeNumber(2))));
+
+    List<BooleanFormula> models = allSat(constraint, ImmutableList.of(b1, b2));
+
+    assertThatFormula(bmgr.or(models)).isEquivalentTo(bmgr.not(bmgr.and(b1, b2)));
+  }
+}
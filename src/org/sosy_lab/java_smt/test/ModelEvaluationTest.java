@@ -8,12 +8,16 @@
 
 package org.sosy_lab.java_smt.test;
 
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
 import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.junit.Test;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
@@ -21,7 +25,9 @@ import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -183,6 +189,58 @@ public class ModelEvaluationTest extends SolverBasedTest0.ParameterizedSolverBas
     }
   }
 
+  @Test
+  public void testRepeatedEvaluationIsCached() throws SolverException, InterruptedException {
+    assume()
+        .withMessage("Solver %s does not wrap its models in a CachingModel", solverToUse())
+        .that(solverToUse())
+        .isAnyOf(
+            Solvers.Z3,
+            Solvers.MATHSAT5,
+            Solvers.SMTINTERPOL,
+            Solvers.PRINCESS,
+            Solvers.YICES2,
+            Solvers.BOOLECTOR,
+            Solvers.BITWUZLA,
+            Solvers.CVC5);
+    BooleanFormula x = bmgr.makeVariable("x");
+    BooleanFormula y = bmgr.makeVariable("y");
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(bmgr.and(x, bmgr.not(y)));
+      assertThat(prover).isSatisfiable();
+      try (Model m = prover.getModel()) {
+        for (int i = 0; i < 3; i++) {
+          assertThat(m.evaluate(x)).isTrue();
+          assertThat(m.evaluate(y)).isFalse();
+        }
+        assertThat(m.getStatistics()).containsEntry("evaluationCacheMisses", "2");
+        assertThat(m.getStatistics()).containsEntry("evaluationCacheHits", "4");
+      }
+    }
+  }
+
+  @Test
+  public void testEvaluateAll() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula a = imgr.makeVariable("a");
+    IntegerFormula b = imgr.makeVariable("b");
+    BooleanFormula p = bmgr.makeVariable("p");
+    IntegerFormula sum = imgr.add(a, b);
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(
+          bmgr.and(p, imgr.equal(a, imgr.makeNumber(3)), imgr.equal(b, imgr.makeNumber(4))));
+      assertThat(prover).isSatisfiable();
+      try (Model m = prover.getModel()) {
+        Map<Formula, Object> values = m.evaluateAll(ImmutableList.of(a, b, p, sum, a));
+        assertThat(values).hasSize(4);
+        for (Formula f : ImmutableList.of(a, b, p, sum)) {
+          assertThat(values).containsEntry(f, m.evaluate(f));
+        }
+        assertThat(values).containsEntry(sum, BigInteger.valueOf(7));
+      }
+    }
+  }
+
   @NonNull
   private List<BooleanFormula> getConstraints() {
     List<BooleanFormula> constraints = new ArrayList<>();
@@ -17,6 +17,7 @@ import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.file.Files;
@@ -417,6 +418,44 @@ public class ModelTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
     }
   }
 
+  @Test
+  public void testFilteredIterator() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x1 = imgr.makeVariable("x1");
+    IntegerFormula x2 = imgr.makeVariable("x2");
+    IntegerFormula y = imgr.makeVariable("y");
+    BooleanFormula b = bmgr.makeVariable("b");
+    IntegerFormula uf = fmgr.declareAndCallUF("xUF", IntegerType, y);
+
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(
+          bmgr.and(
+              b,
+              imgr.equal(x1, imgr.makeNumber(1)),
+              imgr.equal(x2, imgr.makeNumber(2)),
+              imgr.equal(y, imgr.makeNumber(3)),
+              imgr.equal(uf, imgr.makeNumber(4))));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        List<ValueAssignment> withPrefix =
+            ImmutableList.copyOf(m.iterator((name, type) -> name.startsWith("x")));
+        assertThat(Lists.transform(withPrefix, ValueAssignment::getName))
+            .containsExactly("x1", "x2", "xUF");
+        assertThat(withPrefix)
+            .containsExactlyElementsIn(
+                Iterables.filter(m.asList(), va -> va.getName().startsWith("x")));
+
+        List<ValueAssignment> booleans =
+            ImmutableList.copyOf(m.iterator((name, type) -> type.isBooleanType()));
+        assertThat(Lists.transform(booleans, ValueAssignment::getName)).containsExactly("b");
+        assertThat(booleans.get(0).getValue()).isEqualTo(true);
+
+        assertThat(m.iterator((name, type) -> false).hasNext()).isFalse();
+      }
+    }
+  }
+
   @Test
   public void testGetMultipleUFsWithBvs() throws Exception {
     requireBitvectors();
@@ -0,0 +1,90 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.ParallelAllSat;
+
+public class ParallelAllSatTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  private static class CollectingCallback implements AllSatCallback<List<BooleanFormula>> {
+
+    private final List<BooleanFormula> models = new ArrayList<>();
+    private final List<List<BooleanFormula>> rawModels = new ArrayList<>();
+
+    private final BooleanFormulaManager bmgr;
+
+    CollectingCallback(BooleanFormulaManager pBmgr) {
+      bmgr = pBmgr;
+    }
+
+    @Override
+    public void apply(List<BooleanFormula> pModel) {
+      rawModels.add(ImmutableList.copyOf(pModel));
+      models.add(bmgr.and(pModel));
+    }
+
+    @Override
+    public List<BooleanFormula> getResult() {
+      return models;
+    }
+  }
+
+  private List<BooleanFormula> parallelAllSat(
+      BooleanFormula constraint, List<BooleanFormula> important, int depth)
+      throws InterruptedException, SolverException, InvalidConfigurationException {
+    ParallelAllSat allSat =
+        new ParallelAllSat(mgr, solverToUse(), config, logger, shutdownNotifierToUse(), depth, 2);
+    CollectingCallback callback = new CollectingCallback(bmgr);
+    List<BooleanFormula> models = allSat.allSat(ImmutableList.of(constraint), important, callback);
+    assertThat(callback.rawModels).containsNoDuplicates();
+    return models;
+  }
+
+  @Test
+  public void allModelsAreFound()
+      throws InterruptedException, SolverException, InvalidConfigurationException {
+    requireParser();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula d = bmgr.makeVariable("d");
+    BooleanFormula constraint = bmgr.and(bmgr.or(a, b), bmgr.xor(c, d));
+    ImmutableList<BooleanFormula> important = ImmutableList.of(a, b, c, d);
+
+    for (int depth : new int[] {0, 1, 2, 5}) {
+      List<BooleanFormula> models = parallelAllSat(constraint, important, depth);
+      for (BooleanFormula model : models) {
+        assertThatFormula(model).implies(constraint);
+      }
+      assertThatFormula(bmgr.or(models)).isEquivalentTo(constraint);
+    }
+  }
+
+  @Test
+  public void unsatConstraint()
+      throws InterruptedException, SolverException, InvalidConfigurationException {
+    requireParser();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula constraint = bmgr.and(a, bmgr.not(a));
+
+    assertThat(parallelAllSat(constraint, ImmutableList.of(a, b), 2)).isEmpty();
+  }
+}
@@ -0,0 +1,195 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.PortfolioProverEnvironment;
+
+public class PortfolioProverEnvironmentTest
+    extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  private PortfolioProverEnvironment newPortfolio(ProverOptions... options)
+      throws InvalidConfigurationException {
+    return newPortfolio(ImmutableList.of(solverToUse(), solverToUse()), options);
+  }
+
+  private PortfolioProverEnvironment newPortfolio(List<Solvers> solvers, ProverOptions... options)
+      throws InvalidConfigurationException {
+    return new PortfolioProverEnvironment(
+        mgr, solvers, config, logger, shutdownNotifierToUse(), options);
+  }
+
+  @Test
+  public void pushPopAndCheck()
+      throws InvalidConfigurationException, SolverException, InterruptedException {
+    requireParser();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+
+    try (PortfolioProverEnvironment prover = newPortfolio()) {
+      prover.addConstraint(bmgr.or(a, b));
+      assertThat(prover.isUnsat()).isFalse();
+      assertThat(prover.getLastWinner()).isPresent();
+
+      prover.push(bmgr.not(a));
+      prover.push(bmgr.not(b));
+      assertThat(prover.getLastWinner()).isEmpty();
+      assertThat(prover.size()).isEqualTo(2);
+      assertThat(prover.isUnsat()).isTrue();
+
+      prover.pop();
+      assertThat(prover.isUnsat()).isFalse();
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(b)))).isTrue();
+    }
+  }
+
+  @Test
+  public void modelFromWinner()
+      throws InvalidConfigurationException, SolverException, InterruptedException {
+    requireParser();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+
+    try (PortfolioProverEnvironment prover = newPortfolio(ProverOptions.GENERATE_MODELS)) {
+      prover.addConstraint(bmgr.and(a, bmgr.not(b)));
+      assertThat(prover.isUnsat()).isFalse();
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(a)).isTrue();
+        assertThat(model.evaluate(b)).isFalse();
+      }
+    }
+  }
+
+  @Test
+  public void modelAssignmentsFromWinner()
+      throws InvalidConfigurationException, SolverException, InterruptedException {
+    requireParser();
+    requireIntegers();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula fx = fmgr.declareAndCallUF("f", FormulaType.IntegerType, x);
+    BooleanFormula constraint =
+        bmgr.and(
+            a,
+            bmgr.not(b),
+            imgr.equal(x, imgr.makeNumber(3)),
+            imgr.equal(fx, imgr.makeNumber(5)));
+
+    try (PortfolioProverEnvironment prover = newPortfolio(ProverOptions.GENERATE_MODELS)) {
+      prover.addConstraint(constraint);
+      assertThat(prover.isUnsat()).isFalse();
+
+      ImmutableList<ValueAssignment> assignments = prover.getModelAssignments();
+      assertThat(assignments).hasSize(4);
+      assertThat(getValues(assignments))
+          .containsExactly(
+              "a", true, "b", false, "x", BigInteger.valueOf(3), "f", BigInteger.valueOf(5));
+      // keys and values are rebuilt in the main manager, also for simplified Boolean assignments
+      for (ValueAssignment assignment : assignments) {
+        switch (assignment.getName()) {
+          case "a":
+            assertThat(assignment.getKey()).isEqualTo(a);
+            assertThat(assignment.getValueAsFormula()).isEqualTo(bmgr.makeTrue());
+            break;
+          case "b":
+            assertThat(assignment.getKey()).isEqualTo(b);
+            assertThat(assignment.getValueAsFormula()).isEqualTo(bmgr.makeFalse());
+            break;
+          case "x":
+            assertThat(assignment.getKey()).isEqualTo(x);
+            assertThat(assignment.getValueAsFormula()).isEqualTo(imgr.makeNumber(3));
+            break;
+          default:
+            assertThat(assignment.getValueAsFormula()).isEqualTo(imgr.makeNumber(5));
+        }
+      }
+      List<BooleanFormula> assignmentFormulas =
+          Lists.transform(assignments, ValueAssignment::getAssignmentAsFormula);
+      assertThatFormula(bmgr.and(assignmentFormulas)).implies(constraint);
+
+      try (Model model = prover.getModel()) {
+        assertThat(model.asList()).containsExactlyElementsIn(assignments);
+        assertThat(ImmutableList.copyOf(model)).containsExactlyElementsIn(assignments);
+      }
+    }
+  }
+
+  @Test
+  public void modelEvaluationWithDifferentSolvers()
+      throws InvalidConfigurationException, SolverException, InterruptedException {
+    requireParser();
+    requireIntegers();
+    Solvers other = solverToUse() == Solvers.SMTINTERPOL ? Solvers.PRINCESS : Solvers.SMTINTERPOL;
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula sum = imgr.add(x, y);
+
+    try (PortfolioProverEnvironment prover =
+        newPortfolio(ImmutableList.of(solverToUse(), other), ProverOptions.GENERATE_MODELS)) {
+      prover.addConstraint(imgr.equal(x, imgr.makeNumber(3)));
+      prover.addConstraint(imgr.equal(y, imgr.add(x, imgr.makeNumber(1))));
+      assertThat(prover.isUnsat()).isFalse();
+      assertThat(prover.getLastWinner().orElseThrow()).isAnyOf(solverToUse(), other);
+
+      // the terms are translated into the context of the winner and the results back
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(sum)).isEqualTo(BigInteger.valueOf(7));
+        assertThat(model.evaluate((Formula) y)).isEqualTo(BigInteger.valueOf(4));
+        assertThat(model.eval(sum)).isEqualTo(imgr.makeNumber(7));
+        assertThat(model.eval(imgr.greaterThan(y, x))).isEqualTo(bmgr.makeTrue());
+      }
+    }
+  }
+
+  private static Map<String, Object> getValues(List<ValueAssignment> pAssignments) {
+    Map<String, Object> values = new HashMap<>();
+    for (ValueAssignment assignment : pAssignments) {
+      values.put(assignment.getName(), assignment.getValue());
+    }
+    return values;
+  }
+
+  @Test
+  public void unsatCoreFromWinner()
+      throws InvalidConfigurationException, SolverException, InterruptedException {
+    requireParser();
+    requireUnsatCore();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+
+    try (PortfolioProverEnvironment prover = newPortfolio(ProverOptions.GENERATE_UNSAT_CORE)) {
+      prover.addConstraint(a);
+      prover.addConstraint(b);
+      prover.addConstraint(bmgr.not(a));
+      assertThat(prover.isUnsat()).isTrue();
+      List<BooleanFormula> core = prover.getUnsatCore();
+      assertThat(core).contains(bmgr.not(a));
+      assertThat(ImmutableList.of(a, b, bmgr.not(a))).containsAtLeastElementsIn(core);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.ProverPool;
+
+public class ProverPoolTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  @Test
+  public void reuseProverWithEmptyStack() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    try (ProverPool pool = new ProverPool(context, 2)) {
+      try (ProverEnvironment prover = pool.acquire()) {
+        prover.addConstraint(a);
+        prover.push(bmgr.not(a));
+        assertThat(prover.size()).isEqualTo(1);
+        assertThat(prover.isUnsat()).isTrue();
+      }
+      assertThat(pool.getNumberOfIdleProvers()).isEqualTo(1);
+
+      try (ProverEnvironment prover = pool.acquire()) {
+        assertThat(prover.size()).isEqualTo(0);
+        prover.addConstraint(bmgr.not(a));
+        assertThat(prover.isUnsat()).isFalse();
+      }
+
+      assertThat(pool.getStatistics()).containsEntry("hits", "1");
+      assertThat(pool.getStatistics()).containsEntry("misses", "1");
+    }
+  }
+
+  @Test
+  public void proversAreGroupedByOptions() throws InterruptedException {
+    try (ProverPool pool = new ProverPool(context, 2)) {
+      pool.acquire().close();
+      pool.acquire(ProverOptions.GENERATE_MODELS).close();
+      assertThat(pool.getStatistics()).containsEntry("misses", "2");
+      assertThat(pool.getNumberOfIdleProvers()).isEqualTo(2);
+
+      pool.acquire(ProverOptions.GENERATE_MODELS).close();
+      assertThat(pool.getStatistics()).containsEntry("hits", "1");
+    }
+  }
+
+  @Test
+  public void poolSizeIsLimited() throws InterruptedException {
+    try (ProverPool pool = new ProverPool(context, 1)) {
+      ProverEnvironment prover1 = pool.acquire();
+      ProverEnvironment prover2 = pool.acquire();
+      prover1.close();
+      prover2.close();
+      assertThat(pool.getNumberOfIdleProvers()).isEqualTo(1);
+      assertThat(pool.getStatistics()).containsEntry("discarded", "1");
+    }
+  }
+}
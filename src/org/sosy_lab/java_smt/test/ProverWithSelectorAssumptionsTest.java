@@ -0,0 +1,80 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.java_smt.api.SolverContext.ProverOptions.GENERATE_MODELS;
+import static org.sosy_lab.java_smt.api.SolverContext.ProverOptions.GENERATE_UNSAT_CORE_OVER_ASSUMPTIONS;
+import static org.sosy_lab.java_smt.api.SolverContext.ProverOptions.USE_SELECTORS_FOR_ASSUMPTIONS;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Solving with assumptions, emulated with selector literals where no native support exists. */
+public class ProverWithSelectorAssumptionsTest
+    extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  @Test
+  public void checkWithAssumptions() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(USE_SELECTORS_FOR_ASSUMPTIONS, GENERATE_MODELS)) {
+      prover.push(bmgr.or(bmgr.not(a), bmgr.not(b)));
+      assertThat(prover.size()).isEqualTo(1);
+
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(a, b))).isTrue();
+      assertThat(prover.size()).isEqualTo(1);
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(a, c))).isFalse();
+      List<ValueAssignment> assignments = prover.getModelAssignments();
+      assertThat(assignments).isNotEmpty();
+      for (ValueAssignment assignment : assignments) {
+        assertThat(assignment.getName()).isAnyOf("a", "b", "c");
+      }
+
+      // guarded assumptions from a popped level are asserted again when needed
+      prover.push(bmgr.not(c));
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(a, c))).isTrue();
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(b))).isFalse();
+      prover.pop();
+      assertThat(prover.size()).isEqualTo(1);
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(a, c))).isFalse();
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(b, c))).isFalse();
+      assertThat(prover.isUnsat()).isFalse();
+    }
+  }
+
+  @Test
+  public void unsatCoreOverAssumptions() throws SolverException, InterruptedException {
+    requireUnsatCore();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(
+            USE_SELECTORS_FOR_ASSUMPTIONS, GENERATE_UNSAT_CORE_OVER_ASSUMPTIONS)) {
+      prover.push(bmgr.or(bmgr.not(a), bmgr.not(b)));
+      Optional<List<BooleanFormula>> core =
+          prover.unsatCoreOverAssumptions(ImmutableList.of(a, b, c));
+      assertThat(core).isPresent();
+      assertThat(core.orElseThrow()).containsAtLeast(a, b);
+
+      assertThat(prover.unsatCoreOverAssumptions(ImmutableList.of(a, c))).isEmpty();
+    }
+  }
+}
@@ -670,6 +670,37 @@ public class QuantifierManagerTest extends SolverBasedTest0.ParameterizedSolverB
     assertThat(out).isEqualTo(imgr.equal(x, imgr.makeNumber(7)));
   }
 
+  @Test
+  public void testQELightOnePointRule() throws SolverException, InterruptedException {
+    requireIntegers();
+    assume()
+        .withMessage("Solver %s does not provide the bound variables of quantifiers", solverToUse())
+        .that(solverToUse())
+        .isNotEqualTo(Solvers.PRINCESS);
+    // exists y, z : (y=4 && x=y+3) --> x=4+3
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula z = imgr.makeVariable("z");
+    BooleanFormula exists =
+        qmgr.exists(
+            ImmutableList.of(y, z),
+            bmgr.and(
+                imgr.equal(y, imgr.makeNumber(4)), imgr.equal(x, imgr.add(y, imgr.makeNumber(3)))));
+    BooleanFormula outExists = mgr.applyTactic(exists, Tactic.QE_LIGHT);
+    assertThat(mgr.extractVariables(outExists)).doesNotContainKey("y");
+    assertThat(mgr.extractVariables(outExists)).doesNotContainKey("z");
+    assertThatFormula(outExists).isEquivalentTo(imgr.equal(x, imgr.makeNumber(7)));
+
+    // forall y : (y!=x || a[y]=0) --> a[x]=0
+    BooleanFormula forall =
+        qmgr.forall(
+            y,
+            bmgr.or(
+                bmgr.not(imgr.equal(y, x)), imgr.equal(amgr.select(a, y), imgr.makeNumber(0))));
+    BooleanFormula outForall = mgr.applyTactic(forall, Tactic.QE_LIGHT);
+    assertThat(mgr.extractVariables(outForall)).doesNotContainKey("y");
+    assertThatFormula(outForall).isEquivalentTo(a_at_x_eq_0);
+  }
+
   @Test
   public void testIntrospectionForall() {
     requireIntegers();
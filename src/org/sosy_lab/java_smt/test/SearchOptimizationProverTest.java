@@ -0,0 +1,136 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.java_smt.api.SolverContext.ProverOptions.GENERATE_MODELS;
+
+import java.math.BigInteger;
+import org.junit.Test;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment.OptStatus;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.SearchOptimizationProverEnvironment;
+
+/** Optimization by incremental search, which is available for every solver. */
+public class SearchOptimizationProverTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  private OptimizationProverEnvironment newSearchOptimizationProver() {
+    return new SearchOptimizationProverEnvironment(
+        context.newProverEnvironment(GENERATE_MODELS), mgr);
+  }
+
+  @Test
+  public void integerMaximizeAndMinimize() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    try (OptimizationProverEnvironment prover = newSearchOptimizationProver()) {
+      prover.addConstraint(imgr.lessOrEquals(x, imgr.makeNumber(1000)));
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(-17)));
+
+      prover.push();
+      int max = prover.maximize(x);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(max, Rational.ZERO)).hasValue(Rational.ofString("1000"));
+      assertThat(prover.lower(max, Rational.ZERO)).hasValue(Rational.ofString("1000"));
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(1000));
+      }
+      assertThat(prover.size()).isEqualTo(1);
+      prover.pop();
+
+      prover.push();
+      int min = prover.minimize(x);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.lower(min, Rational.ZERO)).hasValue(Rational.ofString("-17"));
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(-17));
+      }
+      prover.pop();
+    }
+  }
+
+  @Test
+  public void integerUnbounded() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    try (OptimizationProverEnvironment prover = newSearchOptimizationProver()) {
+      prover.addConstraint(imgr.greaterOrEquals(x, imgr.makeNumber(5)));
+      int max = prover.maximize(x);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(max, Rational.ZERO)).isEmpty();
+    }
+  }
+
+  @Test
+  public void lexicographicObjectives() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    try (OptimizationProverEnvironment prover = newSearchOptimizationProver()) {
+      // x + y <= 10, 0 <= y <= 4, x <= 8
+      prover.addConstraint(imgr.lessOrEquals(imgr.add(x, y), imgr.makeNumber(10)));
+      prover.addConstraint(imgr.greaterOrEquals(y, imgr.makeNumber(0)));
+      prover.addConstraint(imgr.lessOrEquals(y, imgr.makeNumber(4)));
+      prover.addConstraint(imgr.lessOrEquals(x, imgr.makeNumber(8)));
+
+      int handleX = prover.maximize(x);
+      int handleY = prover.maximize(y);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(handleX, Rational.ZERO)).hasValue(Rational.ofString("8"));
+      assertThat(prover.upper(handleY, Rational.ZERO)).hasValue(Rational.ofString("2"));
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(8));
+        assertThat(model.evaluate(y)).isEqualTo(BigInteger.valueOf(2));
+      }
+    }
+  }
+
+  @Test
+  public void bitvectorMaximizeAndMinimize() throws SolverException, InterruptedException {
+    requireBitvectors();
+    BitvectorFormula x = bvmgr.makeVariable(8, "x");
+    try (OptimizationProverEnvironment prover = newSearchOptimizationProver()) {
+      // unsigned 3 < x < 200 and x is odd
+      prover.addConstraint(bvmgr.lessThan(bvmgr.makeBitvector(8, 3), x, false));
+      prover.addConstraint(bvmgr.lessThan(x, bvmgr.makeBitvector(8, 200), false));
+      prover.addConstraint(bvmgr.equal(bvmgr.extract(x, 0, 0), bvmgr.makeBitvector(1, 1)));
+
+      prover.push();
+      int max = prover.maximize(x);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.upper(max, Rational.ZERO)).hasValue(Rational.ofString("199"));
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(199));
+      }
+      prover.pop();
+
+      int min = prover.minimize(x);
+      assertThat(prover.check()).isEqualTo(OptStatus.OPT);
+      assertThat(prover.lower(min, Rational.ZERO)).hasValue(Rational.ofString("5"));
+    }
+  }
+
+  @Test
+  public void unsatConstraints() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    try (OptimizationProverEnvironment prover = newSearchOptimizationProver()) {
+      prover.addConstraint(imgr.lessThan(x, imgr.makeNumber(0)));
+      prover.addConstraint(imgr.greaterThan(x, imgr.makeNumber(0)));
+      int max = prover.maximize(x);
+      assertThat(prover.check()).isEqualTo(OptStatus.UNSAT);
+      assertThat(prover.upper(max, Rational.ZERO)).isEmpty();
+    }
+  }
+}
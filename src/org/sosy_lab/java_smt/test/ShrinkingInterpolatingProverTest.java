@@ -0,0 +1,201 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.withAssumptionsWrapper.InterpolatingProverWithAssumptionsWrapper;
+import org.sosy_lab.java_smt.solvers.opensmt.Logics;
+import org.sosy_lab.java_smt.utils.ShrinkingInterpolatingProverEnvironment;
+
+/** Interpolants after shrinking are still interpolants and the sizes are reported. */
+public class ShrinkingInterpolatingProverTest
+    extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  @Override
+  protected Logics logicToUse() {
+    return Logics.QF_LIA;
+  }
+
+  @SuppressWarnings({"unchecked", "resource"})
+  private <T> InterpolatingProverEnvironment<T> newShrinkingEnvironment() {
+    requireInterpolation();
+    return new ShrinkingInterpolatingProverEnvironment<>(
+        (InterpolatingProverEnvironment<T>) context.newProverEnvironmentWithInterpolation(),
+        context);
+  }
+
+  /** Returns a given formula as interpolant, such that the shrinking can be checked directly. */
+  private static final class FixedInterpolantProver<T>
+      extends InterpolatingProverWithAssumptionsWrapper<T> {
+
+    private BooleanFormula interpolant;
+
+    private FixedInterpolantProver(
+        InterpolatingProverEnvironment<T> pDelegate, FormulaManager pFmgr, BooleanFormula pItp) {
+      super(pDelegate, pFmgr);
+      interpolant = pItp;
+    }
+
+    @Override
+    public BooleanFormula getInterpolant(Collection<T> pFormulasOfA) {
+      return interpolant;
+    }
+  }
+
+  /** Shrinks the given formula as if it was returned as interpolant by the solver. */
+  @SuppressWarnings({"unchecked", "resource"})
+  private <T> BooleanFormula shrink(BooleanFormula pFormula)
+      throws SolverException, InterruptedException {
+    requireInterpolation();
+    try (InterpolatingProverEnvironment<T> prover =
+        new ShrinkingInterpolatingProverEnvironment<>(
+            new FixedInterpolantProver<>(
+                (InterpolatingProverEnvironment<T>) context.newProverEnvironmentWithInterpolation(),
+                mgr,
+                pFormula),
+            context)) {
+      return prover.getInterpolant(ImmutableList.of());
+    }
+  }
+
+  @Test
+  public void removeRedundantConjunct() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    BooleanFormula redundant = imgr.greaterThan(x, imgr.makeNumber(0));
+    BooleanFormula formula =
+        bmgr.and(
+            redundant, imgr.greaterThan(x, imgr.makeNumber(1)), imgr.equal(y, imgr.makeNumber(1)));
+
+    BooleanFormula shrunk = shrink(formula);
+    assertThatFormula(shrunk).isEquivalentTo(formula);
+    assertThat(bmgr.toConjunctionArgs(shrunk, true)).doesNotContain(redundant);
+  }
+
+  @Test
+  public void removeRedundantDisjunct() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    BooleanFormula redundant = imgr.greaterThan(x, imgr.makeNumber(2));
+    BooleanFormula formula =
+        bmgr.or(
+            redundant, imgr.greaterThan(x, imgr.makeNumber(1)), imgr.equal(y, imgr.makeNumber(1)));
+
+    BooleanFormula shrunk = shrink(formula);
+    assertThatFormula(shrunk).isEquivalentTo(formula);
+    assertThat(bmgr.toDisjunctionArgs(shrunk, true)).doesNotContain(redundant);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "resource"})
+  public <T> void reuseRepeatedInterpolant() throws SolverException, InterruptedException {
+    requireInterpolation();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    FixedInterpolantProver<T> fixed =
+        new FixedInterpolantProver<>(
+            (InterpolatingProverEnvironment<T>) context.newProverEnvironmentWithInterpolation(),
+            mgr,
+            bmgr.and(a, b));
+
+    try (InterpolatingProverEnvironment<T> prover =
+        new ShrinkingInterpolatingProverEnvironment<>(fixed, context)) {
+      BooleanFormula first = prover.getInterpolant(ImmutableList.of());
+      assertThat(prover.getStatistics()).containsEntry("javasmt.reusedInterpolants", "0");
+
+      // a repeated query returns the previous interpolant
+      assertThat(prover.getInterpolant(ImmutableList.of())).isEqualTo(first);
+      assertThat(prover.getStatistics()).containsEntry("javasmt.reusedInterpolants", "1");
+
+      // a larger equivalent interpolant over the same symbols is replaced by the previous one
+      fixed.interpolant = bmgr.and(bmgr.or(a, bmgr.and(a, b)), bmgr.or(b, bmgr.and(a, b)));
+      assertThat(prover.getInterpolant(ImmutableList.of())).isEqualTo(first);
+      assertThat(prover.getStatistics()).containsEntry("javasmt.reusedInterpolants", "2");
+      assertThat(prover.getStatistics()).containsEntry("javasmt.processedInterpolants", "3");
+    }
+  }
+
+  @Test
+  public <T> void shrinkInterpolant() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula z = imgr.makeVariable("z");
+    IntegerFormula zero = imgr.makeNumber(0);
+
+    // A: x = y & y = 0 & x >= 0, B: x = z & z > 0
+    BooleanFormula a =
+        bmgr.and(imgr.equal(x, y), imgr.equal(y, zero), imgr.greaterOrEquals(x, zero));
+    BooleanFormula b = bmgr.and(imgr.equal(x, z), imgr.greaterThan(z, zero));
+
+    try (InterpolatingProverEnvironment<T> prover = newShrinkingEnvironment()) {
+      T idA = prover.push(a);
+      prover.push(b);
+      assertThat(prover.isUnsat()).isTrue();
+
+      BooleanFormula itp = prover.getInterpolant(ImmutableList.of(idA));
+      assertThatFormula(a).implies(itp);
+      assertThatFormula(bmgr.and(itp, b)).isUnsatisfiable();
+      assertThat(mgr.extractVariables(itp).keySet()).containsNoneOf("y", "z");
+
+      // a repeated query returns an equivalent interpolant
+      assertThatFormula(prover.getInterpolant(ImmutableList.of(idA))).isEquivalentTo(itp);
+
+      Map<String, String> statistics = prover.getStatistics();
+      assertThat(statistics).containsEntry("javasmt.processedInterpolants", "2");
+      long before = Long.parseLong(statistics.get("javasmt.interpolantSizeBefore"));
+      long after = Long.parseLong(statistics.get("javasmt.interpolantSizeAfter"));
+      assertThat(after).isAtMost(before);
+    }
+  }
+
+  @Test
+  public <T> void shrinkSequenceOfInterpolants() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula z = imgr.makeVariable("z");
+    IntegerFormula one = imgr.makeNumber(1);
+
+    // x = 1, y = x + 1, z = y + 1, z < 3
+    BooleanFormula p1 = imgr.equal(x, one);
+    BooleanFormula p2 = imgr.equal(y, imgr.add(x, one));
+    BooleanFormula p3 = imgr.equal(z, imgr.add(y, one));
+    BooleanFormula p4 = imgr.lessThan(z, imgr.makeNumber(3));
+
+    try (InterpolatingProverEnvironment<T> prover = newShrinkingEnvironment()) {
+      T id1 = prover.push(p1);
+      T id2 = prover.push(p2);
+      T id3 = prover.push(p3);
+      T id4 = prover.push(p4);
+      assertThat(prover.isUnsat()).isTrue();
+
+      List<BooleanFormula> itps = prover.getSeqInterpolants0(ImmutableList.of(id1, id2, id3, id4));
+      assertThat(itps).hasSize(3);
+      assertThatFormula(p1).implies(itps.get(0));
+      assertThatFormula(bmgr.and(itps.get(0), p2)).implies(itps.get(1));
+      assertThatFormula(bmgr.and(itps.get(1), p3)).implies(itps.get(2));
+      assertThatFormula(bmgr.and(itps.get(2), p4)).isUnsatisfiable();
+      assertThat(prover.getStatistics()).containsEntry("javasmt.processedInterpolants", "3");
+    }
+  }
+}
@@ -0,0 +1,128 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import org.junit.Test;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FloatingPointFormula;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.SmtLib2Printer;
+
+public class SmtLib2PrinterTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  @Test
+  public void printSharedBooleanFormula()
+      throws IOException, SolverException, InterruptedException {
+    requireParser();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b c");
+    BooleanFormula shared = bmgr.xor(a, b);
+    BooleanFormula f = bmgr.and(bmgr.or(shared, a), bmgr.implication(b, shared));
+
+    StringBuilder out = new StringBuilder();
+    new SmtLib2Printer(mgr).print(f, out);
+
+    assertThat(out.toString()).contains("(declare-fun |b c| () Bool)");
+    assertThatFormula(mgr.parse(out.toString())).isEquivalentTo(f);
+  }
+
+  @Test
+  public void printBoundNamesWithoutClash()
+      throws IOException, SolverException, InterruptedException {
+    requireParser();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable(".cse 0");
+    BooleanFormula shared = bmgr.xor(a, b);
+    BooleanFormula f = bmgr.and(bmgr.or(shared, a), bmgr.implication(b, shared));
+
+    StringBuilder out = new StringBuilder();
+    new SmtLib2Printer(mgr).print(f, out);
+
+    // the prefix of bound names is compared with the unquoted symbol
+    assertThat(out.toString()).contains("(declare-fun |.cse 0| () Bool)");
+    assertThat(out.toString()).contains("(.cse_0 ");
+    assertThatFormula(mgr.parse(out.toString())).isEquivalentTo(f);
+  }
+
+  @Test
+  public void printIntegerFormulaWithUF()
+      throws IOException, SolverException, InterruptedException {
+    requireParser();
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    FunctionDeclaration<IntegerFormula> uf =
+        fmgr.declareUF("f", FormulaType.IntegerType, FormulaType.IntegerType);
+    IntegerFormula sum = imgr.add(fmgr.callUF(uf, x), imgr.makeNumber(-3));
+    BooleanFormula f =
+        bmgr.or(imgr.equal(sum, x), imgr.lessThan(imgr.multiply(sum, imgr.makeNumber(2)), x));
+
+    StringBuilder out = new StringBuilder();
+    new SmtLib2Printer(mgr).print(f, out);
+
+    assertThatFormula(mgr.parse(out.toString())).isEquivalentTo(f);
+  }
+
+  @Test
+  public void printFloatingPointFormula()
+      throws IOException, SolverException, InterruptedException {
+    requireParser();
+    requireFloats();
+    FloatingPointType type = FormulaType.getSinglePrecisionFloatingPointType();
+    FloatingPointFormula x = fpmgr.makeVariable("x", type);
+    FloatingPointFormula sum = fpmgr.add(x, fpmgr.makeNumber(1.5, type));
+    BooleanFormula f =
+        bmgr.or(
+            fpmgr.lessThan(sum, fpmgr.makeNumber(-0.25, type)),
+            fpmgr.equalWithFPSemantics(x, fpmgr.makeNumber(3.0, type)));
+
+    StringBuilder out = new StringBuilder();
+    new SmtLib2Printer(mgr).print(f, out);
+
+    assertThatFormula(mgr.parse(out.toString())).isEquivalentTo(f);
+  }
+
+  @Test
+  public void printRationalFormula() throws IOException, SolverException, InterruptedException {
+    requireParser();
+    requireRationals();
+    RationalFormula x = rmgr.makeVariable("x");
+    BooleanFormula f =
+        bmgr.and(
+            rmgr.lessThan(x, rmgr.makeNumber(Rational.ofString("7/3"))),
+            rmgr.greaterThan(rmgr.multiply(x, rmgr.makeNumber(2)), rmgr.makeNumber(-1)));
+
+    StringBuilder out = new StringBuilder();
+    new SmtLib2Printer(mgr).print(f, out);
+
+    assertThatFormula(mgr.parse(out.toString())).isEquivalentTo(f);
+  }
+
+  @Test
+  public void printDeepFormula() throws IOException {
+    requireVisitor();
+    BooleanFormula f = bmgr.makeVariable("v");
+    for (int i = 0; i < 10000; i++) {
+      f = bmgr.xor(f, bmgr.makeVariable("v" + (i % 10)));
+    }
+
+    // must not overflow the stack of the printer
+    StringBuilder out = new StringBuilder();
+    new SmtLib2Printer(mgr).print(f, out);
+    assertThat(out.toString()).endsWith(")\n");
+  }
+}
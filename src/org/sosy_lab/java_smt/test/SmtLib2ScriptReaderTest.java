@@ -0,0 +1,90 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.SmtLib2ScriptReader;
+import org.sosy_lab.java_smt.utils.SmtLib2ScriptReader.ScriptListener;
+
+public class SmtLib2ScriptReaderTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  private static final String SCRIPT =
+      "(set-logic QF_LIA)\n"
+          + "; a comment with (unbalanced parenthesis\n"
+          + "(declare-fun x () Int)\n"
+          + "(declare-const |y z| Int)\n"
+          + "(assert (> x 0))\n"
+          + "(push 1)\n"
+          + "(define-fun w () Int (+ x 1))\n"
+          + "(assert (= |y z| w))\n"
+          + "(check-sat)\n"
+          + "(pop 1)\n"
+          + "(assert (< |y z| 0))\n"
+          + "(check-sat)\n"
+          + "(exit)\n";
+
+  @Test
+  public void readScript() throws IOException, SolverException, InterruptedException {
+    requireParser();
+    requireIntegers();
+
+    List<BooleanFormula> asserted = new ArrayList<>();
+    List<String> events = new ArrayList<>();
+    new SmtLib2ScriptReader(mgr)
+        .read(
+            new StringReader(SCRIPT),
+            new ScriptListener() {
+              @Override
+              public void assertFormula(BooleanFormula pFormula) {
+                asserted.add(pFormula);
+                events.add("assert");
+              }
+
+              @Override
+              public void push(int pLevels) {
+                events.add("push " + pLevels);
+              }
+
+              @Override
+              public void pop(int pLevels) {
+                events.add("pop " + pLevels);
+              }
+
+              @Override
+              public void checkSat() {
+                events.add("check-sat");
+              }
+            });
+
+    assertThat(events)
+        .containsExactly("assert", "push 1", "assert", "check-sat", "pop 1", "assert", "check-sat")
+        .inOrder();
+
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula yz = imgr.makeVariable("y z");
+    assertThatFormula(asserted.get(0)).isEquivalentTo(imgr.greaterThan(x, imgr.makeNumber(0)));
+    assertThatFormula(asserted.get(1))
+        .isEquivalentTo(imgr.equal(yz, imgr.add(x, imgr.makeNumber(1))));
+    assertThatFormula(asserted.get(2)).isEquivalentTo(imgr.lessThan(yz, imgr.makeNumber(0)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void popWithoutPush() throws IOException, SolverException, InterruptedException {
+    new SmtLib2ScriptReader(mgr).read(new StringReader("(pop 1)"), pFormula -> {});
+  }
+}
@@ -0,0 +1,198 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+import org.sosy_lab.java_smt.solvers.opensmt.Logics;
+
+/**
+ * JMH benchmarks for the most common operations of the solver API. The benchmarks are
+ * parameterized over all solvers and use the formulas from {@link HardIntegerFormulaGenerator} and
+ * {@link HardBitvectorFormulaGenerator}, such that results are comparable across solvers and
+ * across commits.
+ *
+ * <p>Run them with {@code ant benchmarks}. Additional arguments for JMH can be given with {@code
+ * -Dbenchmark.args="..."}, e.g., {@code -Dbenchmark.args="-p solver=Z3,MATHSAT5 -p size=20"}.
+ * Combinations of solver and theory that are not available on the current machine fail during
+ * setup and are reported by JMH, the remaining benchmarks continue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+  /** The theory used for generating the benchmark formulas. */
+  public enum Theory {
+    INTEGER,
+    BITVECTOR
+  }
+
+  /** Without explicit values, JMH runs the benchmarks for all enum constants. */
+  @Param
+  public Solvers solver;
+
+  @Param
+  public Theory theory;
+
+  /** Parameter for the formula generators, the formula size grows linearly with it. */
+  @Param({"10", "50"})
+  public int size;
+
+  private SolverContext context;
+  private FormulaManager mgr;
+  private BooleanFormulaManager bmgr;
+
+  private BooleanFormula formula;
+  private String dump;
+  private Map<BooleanFormula, BooleanFormula> substitution;
+  private int variableCounter;
+
+  @Setup(Level.Trial)
+  public void setUp() throws InvalidConfigurationException {
+    ConfigurationBuilder configBuilder =
+        Configuration.builder().setOption("solver.solver", solver.toString());
+    if (solver == Solvers.OPENSMT) {
+      configBuilder.setOption("solver.opensmt.logic", Logics.QF_LIA.toString());
+    }
+    context =
+        new SolverContextFactory(
+                configBuilder.build(),
+                LogManager.createNullLogManager(),
+                ShutdownNotifier.createDummy())
+            .generateContext();
+    mgr = context.getFormulaManager();
+    bmgr = mgr.getBooleanFormulaManager();
+
+    // throws UnsupportedOperationException for solvers without the requested theory
+    switch (theory) {
+      case INTEGER:
+        formula =
+            new HardIntegerFormulaGenerator(mgr.getIntegerFormulaManager(), bmgr).generate(size);
+        break;
+      case BITVECTOR:
+        formula =
+            new HardBitvectorFormulaGenerator(mgr.getBitvectorFormulaManager(), bmgr)
+                .generate(size);
+        break;
+      default:
+        throw new AssertionError("unexpected theory " + theory);
+    }
+
+    dump = mgr.dumpFormula(formula).toString();
+
+    // negate all Boolean choice variables of the generated formula
+    ImmutableMap.Builder<BooleanFormula, BooleanFormula> builder = ImmutableMap.builder();
+    for (Formula variable : mgr.extractVariables(formula).values()) {
+      if (variable instanceof BooleanFormula) {
+        builder.put((BooleanFormula) variable, bmgr.not((BooleanFormula) variable));
+      }
+    }
+    substitution = builder.buildOrThrow();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (context != null) {
+      context.close();
+    }
+  }
+
+  @Benchmark
+  public BooleanFormula makeVariable() {
+    return mgr.makeVariable(FormulaType.BooleanType, "benchmark@" + variableCounter++);
+  }
+
+  @Benchmark
+  public BooleanFormula and() {
+    return bmgr.and(formula, bmgr.not(formula));
+  }
+
+  @Benchmark
+  public BooleanFormula or() {
+    return bmgr.or(formula, bmgr.not(formula));
+  }
+
+  @Benchmark
+  public void visitRecursively(Blackhole blackhole) {
+    mgr.visitRecursively(
+        formula,
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula f) {
+            blackhole.consume(f);
+            return TraversalProcess.CONTINUE;
+          }
+        });
+  }
+
+  @Benchmark
+  public BooleanFormula transformRecursively() {
+    return mgr.transformRecursively(formula, new FormulaTransformationVisitor(mgr) {});
+  }
+
+  @Benchmark
+  public BooleanFormula substitute() {
+    return mgr.substitute(formula, substitution);
+  }
+
+  @Benchmark
+  public String dumpFormula() {
+    return mgr.dumpFormula(formula).toString();
+  }
+
+  @Benchmark
+  public BooleanFormula parse() {
+    return mgr.parse(dump);
+  }
+
+  @Benchmark
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(formula);
+      return prover.isUnsat();
+    }
+  }
+}
@@ -438,6 +438,44 @@ public class SolverConcurrencyTest {
     closeSolver(context);
   }
 
+  /**
+   * Test solving on concurrent stacks in one synchronized context, while other threads create
+   * formulas. Satisfiability checks are only executed in parallel if the solver supports it,
+   * otherwise the context falls back to exclusive locking.
+   */
+  @Test
+  public void testConcurrentIntegerStackWithSynchronizedContext()
+      throws InvalidConfigurationException, InterruptedException {
+    requireIntegers();
+    SolverContext context =
+        initSolver(
+            "solver.synchronize", "true", "solver.synchronized.useConcurrentChecks", "true");
+    FormulaManager mgr = context.getFormulaManager();
+    IntegerFormulaManager imgr = mgr.getIntegerFormulaManager();
+    BooleanFormulaManager bmgr = mgr.getBooleanFormulaManager();
+    HardIntegerFormulaGenerator gen = new HardIntegerFormulaGenerator(imgr, bmgr);
+
+    ConcurrentLinkedQueue<BasicProverEnvironment<?>> proverList = new ConcurrentLinkedQueue<>();
+    for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+      BooleanFormula instance = gen.generate(INTEGER_FORMULA_GEN.getOrDefault(solver, 9));
+      BasicProverEnvironment<?> pe = context.newProverEnvironment();
+      pe.push(instance);
+      proverList.add(pe);
+    }
+    assertConcurrency(
+        "testConcurrentIntegerStackWithSynchronizedContext",
+        () -> {
+          BasicProverEnvironment<?> stack = proverList.poll();
+          // formula creation concurrent to the checks of other threads
+          BooleanFormula formula = imgr.equal(imgr.makeVariable("x"), imgr.makeNumber(1));
+          assertThat(bmgr.isTrue(formula)).isFalse();
+          assertWithMessage("Solver %s failed a concurrency test", solverToUse())
+              .that(stack.isUnsat())
+              .isTrue();
+        });
+    closeSolver(context);
+  }
+
   /**
    * Test solving of large formula on concurrent stacks in one context (Stacks are not created in
    * the Threads).
@@ -19,6 +19,7 @@ import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multiset;
 import com.google.common.truth.TruthJUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 import org.junit.Test;
@@ -114,6 +115,21 @@ public class SolverFormulaIOTest extends SolverBasedTest0.ParameterizedSolverBas
     checkThatDumpIsParseable(formDump);
   }
 
+  @Test
+  public void parseWithManyKnownSymbols() throws SolverException, InterruptedException {
+    requireParser();
+    List<BooleanFormula> vars = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      vars.add(bmgr.makeVariable("v" + i));
+    }
+    vars.add(bmgr.makeVariable("main v"));
+    BooleanFormula f = bmgr.or(bmgr.and(vars), bmgr.not(bmgr.or(vars)));
+
+    // all symbols are already known to the solver and must be resolved when parsing
+    BooleanFormula parsed = mgr.parse(mgr.dumpFormula(f).toString());
+    assertThatFormula(parsed).isEquivalentTo(f);
+  }
+
   @Test
   public void varWithSpaceDumpTest() {
     // Boolector will fail this anyway since bools are bitvecs for btor
@@ -14,12 +14,10 @@ import static org.sosy_lab.java_smt.api.FormulaType.BooleanType;
 import static org.sosy_lab.java_smt.api.FormulaType.IntegerType;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.truth.TruthJUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.junit.Test;
-import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.Formula;
@@ -67,7 +65,8 @@ public class SolverTacticsTest extends SolverBasedTest0.ParameterizedSolverBased
 
   @Test
   public void cnfTacticDefaultTest1() throws SolverException, InterruptedException {
-    TruthJUnit.assume().that(solver).isEqualTo(Solvers.Z3);
+    requireVisitor();
+
     BooleanFormula a = bmgr.makeVariable("a");
     BooleanFormula b = bmgr.makeVariable("b");
     BooleanFormula equiv_a_b = bmgr.equivalence(a, b);
@@ -88,7 +87,8 @@ public class SolverTacticsTest extends SolverBasedTest0.ParameterizedSolverBased
 
   @Test
   public void cnfTacticDefaultTest2() throws SolverException, InterruptedException {
-    TruthJUnit.assume().that(solver).isEqualTo(Solvers.Z3);
+    requireVisitor();
+
     BooleanFormula a = bmgr.makeVariable("a");
     BooleanFormula b = bmgr.makeVariable("b");
     BooleanFormula c = bmgr.makeVariable("c");
@@ -111,7 +111,8 @@ public class SolverTacticsTest extends SolverBasedTest0.ParameterizedSolverBased
 
   @Test
   public void cnfTacticDefaultTest3() throws SolverException, InterruptedException {
-    TruthJUnit.assume().that(solver).isEqualTo(Solvers.Z3);
+    requireVisitor();
+
     BooleanFormula x = bmgr.makeVariable("x");
     BooleanFormula y = bmgr.makeVariable("y");
     BooleanFormula z = bmgr.makeVariable("z");
@@ -131,6 +132,30 @@ public class SolverTacticsTest extends SolverBasedTest0.ParameterizedSolverBased
     assertThat(checker.isInCNF()).isTrue();
   }
 
+  @Test
+  public void cnfTacticSharedSubformulaTest() throws SolverException, InterruptedException {
+    requireVisitor();
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula shared = bmgr.equivalence(a, bmgr.xor(b, c));
+    BooleanFormula f =
+        bmgr.and(bmgr.or(shared, c), bmgr.implication(shared, bmgr.ifThenElse(a, b, c)));
+
+    BooleanFormula cnf = mgr.applyTactic(f, Tactic.TSEITIN_CNF);
+    assertThatFormula(cnf).isEquisatisfiableTo(f);
+    assertThatFormula(cnf).implies(f);
+    CNFChecker checker = new CNFChecker(mgr);
+    checker.visit(cnf);
+    assertThat(checker.isInCNF()).isTrue();
+
+    BooleanFormula notF = bmgr.not(f);
+    BooleanFormula cnfNotF = mgr.applyTactic(notF, Tactic.TSEITIN_CNF);
+    assertThatFormula(cnfNotF).isEquisatisfiableTo(notF);
+    assertThatFormula(cnfNotF).implies(notF);
+  }
+
   @Test
   public void ufEliminationSimpleTest() throws SolverException, InterruptedException {
     requireIntegers();
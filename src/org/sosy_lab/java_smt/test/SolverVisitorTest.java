@@ -1060,6 +1060,103 @@ public class SolverVisitorTest extends SolverBasedTest0.ParameterizedSolverBased
         .isEquivalentTo(imgr.equal(imgr.makeVariable("y'"), imgr.makeNumber(1)));
   }
 
+  @Test
+  public void recursiveTransformationWithCacheTest() throws Exception {
+    requireIntegers();
+
+    BooleanFormula shared =
+        imgr.equal(imgr.add(imgr.makeVariable("x"), imgr.makeVariable("y")), imgr.makeNumber(1));
+    BooleanFormula f1 = bmgr.or(shared, imgr.equal(imgr.makeVariable("z"), imgr.makeNumber(10)));
+    BooleanFormula f2 = bmgr.and(shared, imgr.equal(imgr.makeVariable("z"), imgr.makeNumber(5)));
+    final List<String> renamedVariables = new ArrayList<>();
+    FormulaTransformationVisitor renaming =
+        new FormulaTransformationVisitor(mgr) {
+          @Override
+          public Formula visitFreeVariable(Formula formula, String name) {
+            renamedVariables.add(name);
+            return mgr.makeVariable(mgr.getFormulaType(formula), name + "'");
+          }
+        };
+
+    BooleanFormula transformed1 = mgr.transformRecursivelyWithCache(f1, renaming);
+    assertThat(renamedVariables).containsExactly("x", "y", "z");
+    BooleanFormula transformed2 = mgr.transformRecursivelyWithCache(f2, renaming);
+    assertThat(renamedVariables).containsExactly("x", "y", "z"); // no further visitation
+
+    assertThatFormula(transformed1).isEquivalentTo(mgr.transformRecursively(f1, renaming));
+    assertThatFormula(transformed2)
+        .isEquivalentTo(
+            bmgr.and(
+                imgr.equal(
+                    imgr.add(imgr.makeVariable("x'"), imgr.makeVariable("y'")), imgr.makeNumber(1)),
+                imgr.equal(imgr.makeVariable("z'"), imgr.makeNumber(5))));
+  }
+
+  @Test
+  public void recursiveVisitationWithCacheTest() {
+    requireIntegers();
+
+    BooleanFormula shared =
+        imgr.equal(imgr.add(imgr.makeVariable("x"), imgr.makeVariable("y")), imgr.makeNumber(1));
+    BooleanFormula f1 = bmgr.or(shared, bmgr.makeVariable("a"));
+    BooleanFormula f2 = bmgr.and(shared, bmgr.makeVariable("b"));
+    final List<String> foundVars = new ArrayList<>();
+    FormulaVisitor<TraversalProcess> collector =
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula f) {
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitFreeVariable(Formula f, String name) {
+            foundVars.add(name);
+            return TraversalProcess.CONTINUE;
+          }
+        };
+
+    mgr.visitRecursivelyWithCache(f1, collector);
+    assertThat(foundVars).containsExactly("x", "y", "a");
+    mgr.visitRecursivelyWithCache(f2, collector);
+    assertThat(foundVars).containsExactly("x", "y", "a", "b");
+  }
+
+  @Test
+  public void recursiveVisitationWithCacheAfterAbortTest() {
+    requireIntegers();
+
+    IntegerFormula sum = imgr.add(imgr.makeVariable("x"), imgr.makeVariable("y"));
+    BooleanFormula f = bmgr.or(imgr.equal(sum, imgr.makeNumber(1)), bmgr.makeVariable("a"));
+    final List<String> foundVars = new ArrayList<>();
+    final boolean[] abort = {true};
+    FormulaVisitor<TraversalProcess> collector =
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula pF) {
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitFreeVariable(Formula pF, String name) {
+            foundVars.add(name);
+            return abort[0] ? TraversalProcess.ABORT : TraversalProcess.CONTINUE;
+          }
+        };
+
+    mgr.visitRecursivelyWithCache(f, collector);
+    assertThat(foundVars).hasSize(1);
+
+    // the aborted traversal must not hide any sub-formula from the next traversal
+    foundVars.clear();
+    abort[0] = false;
+    mgr.visitRecursivelyWithCache(f, collector);
+    assertThat(foundVars).containsExactly("x", "y", "a");
+
+    foundVars.clear();
+    mgr.visitRecursivelyWithCache(f, collector);
+    assertThat(foundVars).isEmpty();
+  }
+
   @Test
   public void booleanRecursiveTraversalTest() {
     requireIntegers();
@@ -0,0 +1,65 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sosy_lab.java_smt.basicimpl.SymbolTable;
+
+public class SymbolTableTest {
+
+  private static final int SYMBOLS = 10000;
+
+  @Test
+  public void putAndGet() {
+    SymbolTable table = new SymbolTable();
+    assertThat(table.isEmpty()).isTrue();
+    for (int i = 0; i < SYMBOLS; i++) {
+      table.put("x@" + i, i + 1);
+    }
+    table.put("x@0", 42);
+
+    assertThat(table.size()).isEqualTo(SYMBOLS);
+    assertThat(table.getOrDefault("x@0", 0)).isEqualTo(42);
+    for (int i = 1; i < SYMBOLS; i++) {
+      assertThat(table.getOrDefault("x@" + i, 0)).isEqualTo(i + 1);
+    }
+    assertThat(table.containsKey("y")).isFalse();
+    assertThat(table.getOrDefault("y", -1)).isEqualTo(-1);
+  }
+
+  @Test
+  public void remove() {
+    SymbolTable table = new SymbolTable();
+    for (int i = 0; i < SYMBOLS; i++) {
+      table.put("x@" + i, i);
+    }
+    for (int i = 0; i < SYMBOLS; i += 2) {
+      assertThat(table.remove("x@" + i)).isTrue();
+    }
+    assertThat(table.remove("x@0")).isFalse();
+
+    assertThat(table.size()).isEqualTo(SYMBOLS / 2);
+    for (int i = 0; i < SYMBOLS; i++) {
+      assertThat(table.containsKey("x@" + i)).isEqualTo(i % 2 == 1);
+    }
+
+    Map<String, Long> entries = new HashMap<>();
+    table.forEach(entries::put);
+    assertThat(entries).hasSize(SYMBOLS / 2);
+    assertThat(entries).containsEntry("x@1", 1L);
+
+    table.clear();
+    assertThat(table.isEmpty()).isTrue();
+    assertThat(table.containsKey("x@1")).isFalse();
+  }
+}
@@ -25,15 +25,20 @@ import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.SolverContextFactory;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.IntegerFormulaManager;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.api.RationalFormulaManager;
 import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.FormulaTranslator;
 
 /** Testing formula serialization. */
 @RunWith(Parameterized.class)
@@ -114,6 +119,18 @@ public class TranslateFormulaTest {
         .isNoneOf(Solvers.BOOLECTOR, Solvers.BITWUZLA);
   }
 
+  private void requireRationals() {
+    requireIntegers();
+    assume()
+        .withMessage("Solver %s does not support mixed integer and rational theory", translateFrom)
+        .that(translateFrom)
+        .isNoneOf(Solvers.PRINCESS, Solvers.OPENSMT, Solvers.BOOLECTOR, Solvers.BITWUZLA);
+    assume()
+        .withMessage("Solver %s does not support mixed integer and rational theory", translateTo)
+        .that(translateTo)
+        .isNoneOf(Solvers.PRINCESS, Solvers.OPENSMT, Solvers.BOOLECTOR, Solvers.BITWUZLA);
+  }
+
   @Test
   public void testDumpingAndParsing() throws SolverException, InterruptedException {
     requireParserTo();
@@ -178,6 +195,81 @@ public class TranslateFormulaTest {
     assertUsing(from).that(inputFrom).isEquivalentTo(translatedReverseInput);
   }
 
+  @Test
+  public void testStructuralTranslating() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    BooleanFormula inputFrom = createTestFormula(managerFrom);
+    BooleanFormula inputTo = createTestFormula(managerTo);
+    BooleanFormula translatedInput =
+        new FormulaTranslator(managerFrom, managerTo).translate(inputFrom);
+
+    assertUsing(to).that(inputTo).isEquivalentTo(translatedInput);
+  }
+
+  @Test
+  public void testStructuralTranslatingWithUF() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    FormulaTranslator translator = new FormulaTranslator(managerFrom, managerTo);
+    IntegerFormulaManager ifmgrFrom = managerFrom.getIntegerFormulaManager();
+    IntegerFormula x = ifmgrFrom.makeVariable("x");
+    IntegerFormula fx =
+        managerFrom.getUFManager().declareAndCallUF("f", FormulaType.IntegerType, x);
+    BooleanFormula first = ifmgrFrom.greaterThan(fx, ifmgrFrom.makeNumber(1));
+    BooleanFormula second =
+        managerFrom.getBooleanFormulaManager().and(first, ifmgrFrom.equal(x, fx));
+
+    // the second translation reuses the translation of the shared sub-formula and UF
+    BooleanFormula translatedFirst = translator.translate(first);
+    BooleanFormula translatedSecond = translator.translate(second);
+
+    IntegerFormulaManager ifmgrTo = managerTo.getIntegerFormulaManager();
+    IntegerFormula xTo = ifmgrTo.makeVariable("x");
+    IntegerFormula fxTo =
+        managerTo.getUFManager().declareAndCallUF("f", FormulaType.IntegerType, xTo);
+    BooleanFormula firstTo = ifmgrTo.greaterThan(fxTo, ifmgrTo.makeNumber(1));
+    assertUsing(to).that(translatedFirst).isEquivalentTo(firstTo);
+    assertUsing(to)
+        .that(translatedSecond)
+        .isEquivalentTo(
+            managerTo.getBooleanFormulaManager().and(firstTo, ifmgrTo.equal(xTo, fxTo)));
+  }
+
+  @Test
+  public void testStructuralTranslatingRationalDivisionOfIntegers()
+      throws SolverException, InterruptedException {
+    requireRationals();
+
+    BooleanFormula translated =
+        new FormulaTranslator(managerFrom, managerTo).translate(createDivisionFormula(managerFrom));
+
+    // an integer division would yield 0 instead of 1/2
+    assertUsing(to).that(translated).isEquivalentTo(createDivisionFormula(managerTo));
+    assertUsing(to)
+        .that(translated)
+        .implies(
+            managerTo
+                .getRationalFormulaManager()
+                .equal(
+                    managerTo.getRationalFormulaManager().makeVariable("r"),
+                    managerTo.getRationalFormulaManager().makeNumber(Rational.ofString("1/2"))));
+  }
+
+  /** x = 1 & y = 2 & r = x / y, with rational division of the integers x and y. */
+  private BooleanFormula createDivisionFormula(FormulaManager mgr) {
+    IntegerFormulaManager ifmgr = mgr.getIntegerFormulaManager();
+    RationalFormulaManager rfmgr = mgr.getRationalFormulaManager();
+    IntegerFormula x = ifmgr.makeVariable("x");
+    IntegerFormula y = ifmgr.makeVariable("y");
+    RationalFormula r = rfmgr.makeVariable("r");
+    return mgr.getBooleanFormulaManager()
+        .and(
+            ifmgr.equal(x, ifmgr.makeNumber(1)),
+            ifmgr.equal(y, ifmgr.makeNumber(2)),
+            rfmgr.equal(r, rfmgr.divide(x, y)));
+  }
+
   private BooleanFormula createTestFormula(FormulaManager mgr) {
     requireIntegers();
 
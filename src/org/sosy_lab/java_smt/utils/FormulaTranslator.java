@@ -0,0 +1,470 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.ArrayFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FloatingPointNumber;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.NumeralFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormulaManager;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.RationalFormulaManager;
+import org.sosy_lab.java_smt.api.RegexFormula;
+import org.sosy_lab.java_smt.api.StringFormula;
+import org.sosy_lab.java_smt.api.StringFormulaManager;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Structural translation of formulas from one {@link FormulaManager} into another one, without a
+ * round-trip through SMT-LIB2 strings.
+ *
+ * <p>The source formula is traversed once with a {@link FormulaVisitor} and each node is rebuilt
+ * with the theory managers of the target, based on its {@link FunctionDeclarationKind}. Shared
+ * sub-formulas are translated only once. The results and the mapping of uninterpreted functions
+ * are kept across calls of {@link #translate}, such that repeated translations of related formulas
+ * only translate the new parts.
+ *
+ * <p>Nodes that can not be rebuilt from their kind, e.g., quantifiers, bitvector extraction, or
+ * solver-specific operations of kind {@link FunctionDeclarationKind#OTHER}, lead to an {@link
+ * UnsupportedOperationException}. {@link FormulaManager#translateFrom} then falls back to the
+ * translation via SMT-LIB2.
+ */
+public final class FormulaTranslator {
+
+  private final FormulaManager source;
+  private final FormulaManager target;
+  private final BooleanFormulaManager bmgr;
+
+  /** Maps each uninterpreted function of the source to its declaration in the target. */
+  private final Map<FunctionDeclaration<?>, FunctionDeclaration<?>> declarations =
+      new ConcurrentHashMap<>();
+
+  /** Its identity is the key for the cache of translated formulas in the source manager. */
+  private final TranslationVisitor visitor = new TranslationVisitor();
+
+  public FormulaTranslator(FormulaManager pSource, FormulaManager pTarget) {
+    source = checkNotNull(pSource);
+    target = checkNotNull(pTarget);
+    bmgr = pTarget.getBooleanFormulaManager();
+  }
+
+  /**
+   * Translate a formula of the source manager into the target manager.
+   *
+   * @throws UnsupportedOperationException if the formula contains operations that can not be
+   *     rebuilt in the target manager.
+   */
+  public <T extends Formula> T translate(T pFormula) {
+    return source.transformRecursivelyWithCache(visitor, pFormula);
+  }
+
+  private final class TranslationVisitor implements FormulaVisitor<Formula> {
+
+    @Override
+    public Formula visitFreeVariable(Formula f, String name) {
+      return target.makeVariable(source.getFormulaType(f), name);
+    }
+
+    @Override
+    public Formula visitBoundVariable(Formula f, int deBruijnIdx) {
+      throw new UnsupportedOperationException("translation of bound variables is not supported");
+    }
+
+    @Override
+    public Formula visitConstant(Formula f, Object value) {
+      FormulaType<?> type = source.getFormulaType(f);
+      if (type.isBooleanType() && value instanceof Boolean) {
+        return bmgr.makeBoolean((Boolean) value);
+      } else if (type.isIntegerType() && value instanceof BigInteger) {
+        return target.getIntegerFormulaManager().makeNumber((BigInteger) value);
+      } else if (type.isRationalType() && value instanceof BigInteger) {
+        return target.getRationalFormulaManager().makeNumber((BigInteger) value);
+      } else if (type.isRationalType() && value instanceof Rational) {
+        return target.getRationalFormulaManager().makeNumber((Rational) value);
+      } else if (type.isRationalType() && value instanceof BigDecimal) {
+        return target.getRationalFormulaManager().makeNumber((BigDecimal) value);
+      } else if (type.isBitvectorType() && value instanceof BigInteger) {
+        int size = ((BitvectorType) type).getSize();
+        return target.getBitvectorFormulaManager().makeBitvector(size, (BigInteger) value);
+      } else if (type.isStringType() && value instanceof String) {
+        return target.getStringFormulaManager().makeString((String) value);
+      } else if (type.isFloatingPointType() && value instanceof FloatingPointNumber) {
+        FloatingPointNumber number = (FloatingPointNumber) value;
+        return target
+            .getFloatingPointFormulaManager()
+            .makeNumber(
+                number.getExponent(),
+                number.getMantissa(),
+                number.getSign(),
+                (FloatingPointType) type);
+      }
+      throw new UnsupportedOperationException(
+          String.format("translation of constant %s of type %s is not supported", value, type));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Formula visitFunction(
+        Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+      // the arguments are already translated, i.e., they belong to the target manager
+      switch (functionDeclaration.getKind()) {
+        case AND:
+          return bmgr.and(asBooleans(args));
+        case OR:
+          return bmgr.or(asBooleans(args));
+        case NOT:
+          return bmgr.not((BooleanFormula) getOnlyArg(args));
+        case IMPLIES:
+          return bmgr.implication((BooleanFormula) args.get(0), (BooleanFormula) args.get(1));
+        case XOR:
+          return asBooleans(args).stream().reduce(bmgr::xor).orElseThrow();
+        case IFF:
+        case EQ:
+          return equalChain(args);
+        case DISTINCT:
+          return distinct(args);
+        case ITE:
+          return bmgr.ifThenElse((BooleanFormula) args.get(0), args.get(1), args.get(2));
+        case UF:
+          return target.getUFManager().callUF(getTargetDeclaration(functionDeclaration), args);
+
+        case UMINUS:
+        case ADD:
+        case SUB:
+        case MUL:
+        case DIV:
+          return arithmetic(functionDeclaration, args);
+        case TO_REAL:
+          return toRational((NumeralFormula) getOnlyArg(args));
+        case MODULO:
+          return target
+              .getIntegerFormulaManager()
+              .modulo((IntegerFormula) args.get(0), (IntegerFormula) args.get(1));
+        case LT:
+          return numeralManager(args)
+              .lessThan((NumeralFormula) args.get(0), (NumeralFormula) args.get(1));
+        case LTE:
+          return numeralManager(args)
+              .lessOrEquals((NumeralFormula) args.get(0), (NumeralFormula) args.get(1));
+        case GT:
+          return numeralManager(args)
+              .greaterThan((NumeralFormula) args.get(0), (NumeralFormula) args.get(1));
+        case GTE:
+          return numeralManager(args)
+              .greaterOrEquals((NumeralFormula) args.get(0), (NumeralFormula) args.get(1));
+        case EQ_ZERO:
+          return numeralManager(args)
+              .equal((NumeralFormula) getOnlyArg(args), numeralManager(args).makeNumber(0));
+        case GTE_ZERO:
+          return numeralManager(args)
+              .greaterOrEquals(
+                  (NumeralFormula) getOnlyArg(args), numeralManager(args).makeNumber(0));
+        case FLOOR:
+          return target.getRationalFormulaManager().floor((NumeralFormula) getOnlyArg(args));
+
+        case BV_NOT:
+          return bvmgr().not((BitvectorFormula) getOnlyArg(args));
+        case BV_NEG:
+          return bvmgr().negate((BitvectorFormula) getOnlyArg(args));
+        case BV_AND:
+          return asBitvectors(args).stream().reduce(bvmgr()::and).orElseThrow();
+        case BV_OR:
+          return asBitvectors(args).stream().reduce(bvmgr()::or).orElseThrow();
+        case BV_XOR:
+          return asBitvectors(args).stream().reduce(bvmgr()::xor).orElseThrow();
+        case BV_ADD:
+          return asBitvectors(args).stream().reduce(bvmgr()::add).orElseThrow();
+        case BV_SUB:
+          return asBitvectors(args).stream().reduce(bvmgr()::subtract).orElseThrow();
+        case BV_MUL:
+          return asBitvectors(args).stream().reduce(bvmgr()::multiply).orElseThrow();
+        case BV_CONCAT:
+          return asBitvectors(args).stream().reduce(bvmgr()::concat).orElseThrow();
+        case BV_SDIV:
+        case BV_UDIV:
+          return bvmgr()
+              .divide(
+                  (BitvectorFormula) args.get(0),
+                  (BitvectorFormula) args.get(1),
+                  functionDeclaration.getKind() == FunctionDeclarationKind.BV_SDIV);
+        case BV_SREM:
+        case BV_UREM:
+          return bvmgr()
+              .remainder(
+                  (BitvectorFormula) args.get(0),
+                  (BitvectorFormula) args.get(1),
+                  functionDeclaration.getKind() == FunctionDeclarationKind.BV_SREM);
+        case BV_SMOD:
+          return bvmgr().smodulo((BitvectorFormula) args.get(0), (BitvectorFormula) args.get(1));
+        case BV_SHL:
+          return bvmgr().shiftLeft((BitvectorFormula) args.get(0), (BitvectorFormula) args.get(1));
+        case BV_LSHR:
+        case BV_ASHR:
+          return bvmgr()
+              .shiftRight(
+                  (BitvectorFormula) args.get(0),
+                  (BitvectorFormula) args.get(1),
+                  functionDeclaration.getKind() == FunctionDeclarationKind.BV_ASHR);
+        case BV_SIGN_EXTENSION:
+        case BV_ZERO_EXTENSION:
+          {
+            BitvectorFormula arg = (BitvectorFormula) getOnlyArg(args);
+            int size = ((BitvectorType) functionDeclaration.getType()).getSize();
+            return bvmgr()
+                .extend(
+                    arg,
+                    size - bvmgr().getLength(arg),
+                    functionDeclaration.getKind() == FunctionDeclarationKind.BV_SIGN_EXTENSION);
+          }
+        case BV_EQ:
+          return bvmgr().equal((BitvectorFormula) args.get(0), (BitvectorFormula) args.get(1));
+        case BV_ULT:
+        case BV_SLT:
+          return bvmgr()
+              .lessThan(
+                  (BitvectorFormula) args.get(0),
+                  (BitvectorFormula) args.get(1),
+                  functionDeclaration.getKind() == FunctionDeclarationKind.BV_SLT);
+        case BV_ULE:
+        case BV_SLE:
+          return bvmgr()
+              .lessOrEquals(
+                  (BitvectorFormula) args.get(0),
+                  (BitvectorFormula) args.get(1),
+                  functionDeclaration.getKind() == FunctionDeclarationKind.BV_SLE);
+        case BV_UGT:
+        case BV_SGT:
+          return bvmgr()
+              .greaterThan(
+                  (BitvectorFormula) args.get(0),
+                  (BitvectorFormula) args.get(1),
+                  functionDeclaration.getKind() == FunctionDeclarationKind.BV_SGT);
+        case BV_UGE:
+        case BV_SGE:
+          return bvmgr()
+              .greaterOrEquals(
+                  (BitvectorFormula) args.get(0),
+                  (BitvectorFormula) args.get(1),
+                  functionDeclaration.getKind() == FunctionDeclarationKind.BV_SGE);
+
+        case SELECT:
+          return target
+              .getArrayFormulaManager()
+              .select((ArrayFormula<Formula, Formula>) args.get(0), args.get(1));
+        case STORE:
+          return target
+              .getArrayFormulaManager()
+              .store((ArrayFormula<Formula, Formula>) args.get(0), args.get(1), args.get(2));
+        case CONST:
+          return target
+              .getArrayFormulaManager()
+              .makeArray(
+                  (ArrayFormulaType<Formula, Formula>) functionDeclaration.getType(),
+                  getOnlyArg(args));
+
+        case STR_CONCAT:
+          return strmgr().concat(Lists.transform(args, StringFormula.class::cast));
+        case STR_LENGTH:
+          return strmgr().length((StringFormula) getOnlyArg(args));
+        case STR_PREFIX:
+          return strmgr().prefix((StringFormula) args.get(0), (StringFormula) args.get(1));
+        case STR_SUFFIX:
+          return strmgr().suffix((StringFormula) args.get(0), (StringFormula) args.get(1));
+        case STR_CONTAINS:
+          return strmgr().contains((StringFormula) args.get(0), (StringFormula) args.get(1));
+        case STR_LT:
+          return strmgr().lessThan((StringFormula) args.get(0), (StringFormula) args.get(1));
+        case STR_LE:
+          return strmgr().lessOrEquals((StringFormula) args.get(0), (StringFormula) args.get(1));
+        case STR_IN_RE:
+          return strmgr().in((StringFormula) args.get(0), (RegexFormula) args.get(1));
+
+        default:
+          throw new UnsupportedOperationException(
+              String.format(
+                  "translation of operation %s of kind %s is not supported",
+                  functionDeclaration.getName(), functionDeclaration.getKind()));
+      }
+    }
+
+    @Override
+    public Formula visitQuantifier(
+        BooleanFormula f,
+        Quantifier quantifier,
+        List<Formula> boundVariables,
+        BooleanFormula body) {
+      throw new UnsupportedOperationException("translation of quantifiers is not supported");
+    }
+  }
+
+  /** Get the declaration of an uninterpreted function in the target manager. */
+  @SuppressWarnings("unchecked")
+  private FunctionDeclaration<Formula> getTargetDeclaration(FunctionDeclaration<?> pDeclaration) {
+    return (FunctionDeclaration<Formula>)
+        declarations.computeIfAbsent(
+            pDeclaration,
+            d -> target.getUFManager().declareUF(d.getName(), d.getType(), d.getArgumentTypes()));
+  }
+
+  /**
+   * Rebuild an arithmetic operation with the manager for its result type. An operation with
+   * rational result can have integer arguments, e.g., the division of two integers in CVC5, so such
+   * arguments are converted to rationals first.
+   */
+  private Formula arithmetic(FunctionDeclaration<?> pDeclaration, List<Formula> pArgs) {
+    final NumeralFormulaManager<NumeralFormula, ?> nmgr;
+    final List<NumeralFormula> args;
+    if (pDeclaration.getType().isRationalType()) {
+      nmgr = target.getRationalFormulaManager();
+      args = ImmutableList.copyOf(Lists.transform(asNumerals(pArgs), this::toRational));
+    } else if (pDeclaration.getType().isIntegerType()) {
+      nmgr = integerManager();
+      args = asNumerals(pArgs);
+    } else {
+      throw new UnsupportedOperationException(
+          String.format(
+              "translation of operation %s with result type %s is not supported",
+              pDeclaration.getName(), pDeclaration.getType()));
+    }
+    switch (pDeclaration.getKind()) {
+      case UMINUS:
+        checkArgument(args.size() == 1, "expected exactly one argument, but got %s", args);
+        return nmgr.negate(args.get(0));
+      case ADD:
+        return nmgr.sum(args);
+      case SUB:
+        return args.stream().reduce(nmgr::subtract).orElseThrow();
+      case MUL:
+        return args.stream().reduce(nmgr::multiply).orElseThrow();
+      case DIV:
+        return nmgr.divide(args.get(0), args.get(1));
+      default:
+        throw new AssertionError("unexpected arithmetic operation " + pDeclaration);
+    }
+  }
+
+  /** Convert an integer formula of the target manager into a rational formula. */
+  private NumeralFormula toRational(NumeralFormula pNumber) {
+    if (!target.getFormulaType(pNumber).isIntegerType()) {
+      return pNumber;
+    }
+    // the sum of an integer and a rational is a rational
+    RationalFormulaManager rmgr = target.getRationalFormulaManager();
+    return rmgr.add(pNumber, rmgr.makeNumber(0));
+  }
+
+  /**
+   * Get the manager for comparing the arguments, i.e., the manager for integers if all arguments
+   * are integers, otherwise the manager for rationals, which also accepts integer arguments.
+   */
+  private NumeralFormulaManager<NumeralFormula, ?> numeralManager(List<Formula> pArgs) {
+    for (Formula arg : pArgs) {
+      if (!target.getFormulaType(arg).isIntegerType()) {
+        return target.getRationalFormulaManager();
+      }
+    }
+    return integerManager();
+  }
+
+  @SuppressWarnings("unchecked")
+  private NumeralFormulaManager<NumeralFormula, ?> integerManager() {
+    return (NumeralFormulaManager<NumeralFormula, ?>)
+        (NumeralFormulaManager<?, ?>) target.getIntegerFormulaManager();
+  }
+
+  private BitvectorFormulaManager bvmgr() {
+    return target.getBitvectorFormulaManager();
+  }
+
+  private StringFormulaManager strmgr() {
+    return target.getStringFormulaManager();
+  }
+
+  /** Equality of two formulas of the target manager, based on their type. */
+  @SuppressWarnings("unchecked")
+  private BooleanFormula equal(Formula pF1, Formula pF2) {
+    FormulaType<?> type = target.getFormulaType(pF1);
+    if (type.isBooleanType()) {
+      return bmgr.equivalence((BooleanFormula) pF1, (BooleanFormula) pF2);
+    } else if (type.isIntegerType() || type.isRationalType()) {
+      List<Formula> args = List.of(pF1, pF2);
+      return numeralManager(args).equal((NumeralFormula) pF1, (NumeralFormula) pF2);
+    } else if (type.isBitvectorType()) {
+      return bvmgr().equal((BitvectorFormula) pF1, (BitvectorFormula) pF2);
+    } else if (type.isArrayType()) {
+      return target
+          .getArrayFormulaManager()
+          .equivalence((ArrayFormula<Formula, Formula>) pF1, (ArrayFormula<Formula, Formula>) pF2);
+    } else if (type.isStringType()) {
+      return strmgr().equal((StringFormula) pF1, (StringFormula) pF2);
+    }
+    throw new UnsupportedOperationException(
+        String.format("translation of equality of type %s is not supported", type));
+  }
+
+  private BooleanFormula equalChain(List<Formula> pArgs) {
+    checkArgument(pArgs.size() >= 2, "equality needs at least two arguments");
+    List<BooleanFormula> equalities = new ArrayList<>();
+    for (int i = 1; i < pArgs.size(); i++) {
+      equalities.add(equal(pArgs.get(i - 1), pArgs.get(i)));
+    }
+    return bmgr.and(equalities);
+  }
+
+  private BooleanFormula distinct(List<Formula> pArgs) {
+    List<BooleanFormula> inequalities = new ArrayList<>();
+    for (int i = 0; i < pArgs.size(); i++) {
+      for (int j = i + 1; j < pArgs.size(); j++) {
+        inequalities.add(bmgr.not(equal(pArgs.get(i), pArgs.get(j))));
+      }
+    }
+    return bmgr.and(inequalities);
+  }
+
+  private static Formula getOnlyArg(List<Formula> pArgs) {
+    checkArgument(pArgs.size() == 1, "expected exactly one argument, but got %s", pArgs);
+    return pArgs.get(0);
+  }
+
+  private static List<BooleanFormula> asBooleans(List<Formula> pArgs) {
+    return Lists.transform(pArgs, BooleanFormula.class::cast);
+  }
+
+  private static List<NumeralFormula> asNumerals(List<Formula> pArgs) {
+    return Lists.transform(pArgs, NumeralFormula.class::cast);
+  }
+
+  private static List<BitvectorFormula> asBitvectors(List<Formula> pArgs) {
+    return Lists.transform(pArgs, BitvectorFormula.class::cast);
+  }
+}
@@ -0,0 +1,137 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Model-based ALL-SAT computation that blocks generalized models instead of full models.
+ *
+ * <p>The standard computation (see {@link ProverEnvironment#allSat}) reports and blocks one full
+ * assignment of the important predicates per model, which can require exponentially many solver
+ * calls, even if most predicates are irrelevant. This class shrinks each model to an implicant of
+ * the constraints: a second prover contains the negated constraints, and an unsat core over the
+ * assumptions given by the model values yields a subset of the model values that already implies
+ * the constraints. This subset is further minimized by removing single values, and then reported
+ * to the callback and blocked.
+ *
+ * <p>An implicant can only be found if the values of the important predicates determine the
+ * constraints, e.g., if the constraints are a Boolean combination of the important predicates. For
+ * all other models, the full model is reported and blocked, as in the standard computation. As
+ * allowed by the contract of {@link AllSatCallback#apply}, the reported models can thus leave out
+ * some of the important predicates, and each of them represents all its completions.
+ *
+ * <p>The solver needs to support {@link
+ * ProverEnvironment#unsatCoreOverAssumptions(java.util.Collection)}, otherwise all models are
+ * reported without generalization.
+ */
+public class ImplicantAllSat {
+
+  private final SolverContext context;
+  private final BooleanFormulaManager bmgr;
+
+  public ImplicantAllSat(SolverContext pContext) {
+    context = checkNotNull(pContext);
+    bmgr = pContext.getFormulaManager().getBooleanFormulaManager();
+  }
+
+  /**
+   * Compute all satisfying assignments of the important predicates for the conjunction of the
+   * given constraints, with generalized assignments where possible.
+   */
+  public <R> R allSat(
+      Collection<BooleanFormula> pConstraints,
+      List<BooleanFormula> pImportant,
+      AllSatCallback<R> pCallback)
+      throws InterruptedException, SolverException {
+    BooleanFormula constraint = bmgr.and(pConstraints);
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS);
+        ProverEnvironment negatedProver =
+            context.newProverEnvironment(ProverOptions.GENERATE_UNSAT_CORE_OVER_ASSUMPTIONS)) {
+      prover.addConstraint(constraint);
+      negatedProver.addConstraint(bmgr.not(constraint));
+      boolean generalize = true;
+
+      while (!prover.isUnsat()) {
+        List<BooleanFormula> values = getModelValues(prover, pImportant);
+        List<BooleanFormula> cube = values;
+        if (generalize) {
+          try {
+            cube = generalize(negatedProver, values);
+          } catch (UnsupportedOperationException e) {
+            generalize = false;
+          }
+        }
+        pCallback.apply(cube);
+        prover.addConstraint(bmgr.not(bmgr.and(cube)));
+      }
+    }
+    return pCallback.getResult();
+  }
+
+  private ImmutableList<BooleanFormula> getModelValues(
+      ProverEnvironment pProver, List<BooleanFormula> pImportant) throws SolverException {
+    ImmutableList.Builder<BooleanFormula> values = ImmutableList.builder();
+    try (Evaluator evaluator = pProver.getEvaluator()) {
+      for (BooleanFormula predicate : pImportant) {
+        Boolean value = evaluator.evaluate(predicate);
+        if (value == null) {
+          // the value does not matter, see AbstractProverWithAllSat
+        } else if (value) {
+          values.add(predicate);
+        } else {
+          values.add(bmgr.not(predicate));
+        }
+      }
+    }
+    return values.build();
+  }
+
+  /**
+   * Shrink the given model values to a subset that implies the constraints, if possible.
+   *
+   * @param pNegatedProver a prover containing the negated constraints.
+   * @param pValues the values of a model of the constraints.
+   * @return a minimal subset of the values that implies the constraints, or all values.
+   */
+  private List<BooleanFormula> generalize(
+      ProverEnvironment pNegatedProver, List<BooleanFormula> pValues)
+      throws SolverException, InterruptedException {
+    Optional<List<BooleanFormula>> core = pNegatedProver.unsatCoreOverAssumptions(pValues);
+    if (core.isEmpty()) {
+      // the values do not determine the constraints
+      return pValues;
+    }
+
+    // unsat cores are not necessarily minimal, thus try to remove each remaining value
+    List<BooleanFormula> implicant = new ArrayList<>(core.orElseThrow());
+    for (int i = implicant.size() - 1; i >= 0; i--) {
+      List<BooleanFormula> candidate = new ArrayList<>(implicant);
+      candidate.remove(i);
+      if (pNegatedProver.isUnsatWithAssumptions(candidate)) {
+        implicant = candidate;
+      }
+    }
+    return implicant;
+  }
+}
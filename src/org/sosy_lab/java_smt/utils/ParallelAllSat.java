@@ -0,0 +1,286 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Parallel ALL-SAT computation by cube splitting.
+ *
+ * <p>The first {@code k} important predicates are used to split the search space into {@code 2^k}
+ * cubes, i.e., all combinations of these predicates and their negations. Each cube is enumerated
+ * with {@link ProverEnvironment#allSat} in a {@link ForkJoinPool}. As solver contexts are not
+ * thread-safe, each thread of the pool uses its own {@link SolverContext}, into which all
+ * constraints are translated via {@link FormulaManager#translateFrom}.
+ *
+ * <p>The models of all cubes are deduplicated and passed to the callback in the calling thread,
+ * such that the callback does not need to be thread-safe. Models are passed as lists of the
+ * original important predicates (or their negation) from the main {@link FormulaManager}. The order
+ * of models and the order of the predicates within a model is not specified.
+ */
+public class ParallelAllSat {
+
+  private final FormulaManager mainManager;
+  private final Solvers solver;
+  private final Configuration config;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final int splitDepth;
+  private final int parallelism;
+
+  /**
+   * Create a new instance for the parallel ALL-SAT computation.
+   *
+   * @param pMainManager the manager of all given and returned formulas.
+   * @param pSolver the solver used for all cubes.
+   * @param pConfig the configuration for the solver contexts of the worker threads.
+   * @param pLogger the logger for the solver contexts of the worker threads.
+   * @param pShutdownNotifier a notifier for stopping the computation.
+   * @param pSplitDepth the number of important predicates used for splitting, i.e., the
+   *     computation uses {@code 2^pSplitDepth} cubes.
+   * @param pParallelism the number of worker threads and solver contexts.
+   */
+  public ParallelAllSat(
+      FormulaManager pMainManager,
+      Solvers pSolver,
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      int pSplitDepth,
+      int pParallelism) {
+    checkArgument(pSplitDepth >= 0 && pSplitDepth < 31, "invalid split depth %s", pSplitDepth);
+    checkArgument(pParallelism > 0, "parallelism must be positive");
+    mainManager = checkNotNull(pMainManager);
+    solver = checkNotNull(pSolver);
+    config = checkNotNull(pConfig);
+    logger = checkNotNull(pLogger);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+    splitDepth = pSplitDepth;
+    parallelism = pParallelism;
+  }
+
+  /**
+   * Compute all satisfying assignments of the important predicates for the conjunction of the
+   * given constraints, see {@link ProverEnvironment#allSat}.
+   */
+  public <R> R allSat(
+      Collection<BooleanFormula> pConstraints,
+      List<BooleanFormula> pImportant,
+      AllSatCallback<R> pCallback)
+      throws InterruptedException, SolverException, InvalidConfigurationException {
+    int depth = Math.min(splitDepth, pImportant.size());
+    int numberOfCubes = 1 << depth;
+    int numberOfWorkers = Math.min(parallelism, numberOfCubes);
+
+    ShutdownManager shutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+    BlockingQueue<Worker> workers = new LinkedBlockingQueue<>();
+    ForkJoinPool pool = new ForkJoinPool(numberOfWorkers);
+    try {
+      // the main manager is only accessed from this thread
+      for (int i = 0; i < numberOfWorkers; i++) {
+        workers.add(new Worker(shutdownManager.getNotifier(), pConstraints, pImportant));
+      }
+
+      CompletionService<List<List<@Nullable Boolean>>> completionService =
+          new ExecutorCompletionService<>(pool);
+      List<Future<List<List<@Nullable Boolean>>>> futures = new ArrayList<>();
+      for (int cube = 0; cube < numberOfCubes; cube++) {
+        final int cubeIndex = cube;
+        futures.add(
+            completionService.submit(
+                () -> {
+                  Worker worker = workers.take();
+                  try {
+                    return worker.enumerateCube(cubeIndex, depth);
+                  } finally {
+                    workers.add(worker);
+                  }
+                }));
+      }
+
+      BooleanFormulaManager bmgr = mainManager.getBooleanFormulaManager();
+      Set<List<@Nullable Boolean>> seen = new HashSet<>();
+      try {
+        for (int i = 0; i < numberOfCubes; i++) {
+          List<List<@Nullable Boolean>> models;
+          try {
+            models = completionService.take().get();
+          } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InterruptedException) {
+              shutdownNotifier.shutdownIfNecessary();
+            }
+            throw new SolverException("ALL-SAT computation of a cube failed", cause);
+          }
+          for (List<@Nullable Boolean> model : models) {
+            if (seen.add(model)) {
+              pCallback.apply(toFormulas(bmgr, pImportant, model));
+            }
+          }
+        }
+      } finally {
+        // stop the remaining cubes in case of an exception
+        shutdownManager.requestShutdown("ALL-SAT computation finished");
+        for (Future<?> future : futures) {
+          try {
+            Uninterruptibles.getUninterruptibly(future);
+          } catch (ExecutionException e) {
+            // ignore, the computation was stopped or has already failed
+          }
+        }
+      }
+      return pCallback.getResult();
+
+    } finally {
+      pool.shutdownNow();
+      for (Worker worker : workers) {
+        worker.close();
+      }
+    }
+  }
+
+  private static ImmutableList<BooleanFormula> toFormulas(
+      BooleanFormulaManager pBmgr, List<BooleanFormula> pImportant, List<@Nullable Boolean> pModel) {
+    ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
+    for (int i = 0; i < pModel.size(); i++) {
+      Boolean value = pModel.get(i);
+      if (value != null) {
+        result.add(value ? pImportant.get(i) : pBmgr.not(pImportant.get(i)));
+      }
+    }
+    return result.build();
+  }
+
+  /** A solver context for one thread, containing all constraints. */
+  private final class Worker implements AutoCloseable {
+
+    private final SolverContext context;
+    private final ProverEnvironment prover;
+    private final List<BooleanFormula> important;
+
+    /** Maps each translated important predicate and its negation to its index and polarity. */
+    private final Map<BooleanFormula, Integer> positiveIndex = new HashMap<>();
+
+    private final Map<BooleanFormula, Integer> negativeIndex = new HashMap<>();
+
+    @SuppressWarnings("resource")
+    private Worker(
+        ShutdownNotifier pNotifier,
+        Collection<BooleanFormula> pConstraints,
+        List<BooleanFormula> pImportant)
+        throws InvalidConfigurationException, InterruptedException {
+      context = new SolverContextFactory(config, logger, pNotifier).generateContext(solver);
+      FormulaManager fmgr = context.getFormulaManager();
+      BooleanFormulaManager bmgr = fmgr.getBooleanFormulaManager();
+      try {
+        prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT);
+        for (BooleanFormula constraint : pConstraints) {
+          prover.addConstraint(fmgr.translateFrom(constraint, mainManager));
+        }
+        ImmutableList.Builder<BooleanFormula> builder = ImmutableList.builder();
+        for (int i = 0; i < pImportant.size(); i++) {
+          BooleanFormula predicate = fmgr.translateFrom(pImportant.get(i), mainManager);
+          builder.add(predicate);
+          positiveIndex.put(predicate, i);
+          negativeIndex.put(bmgr.not(predicate), i);
+        }
+        important = builder.build();
+      } catch (InterruptedException | RuntimeException e) {
+        context.close();
+        throw e;
+      }
+    }
+
+    /**
+     * Enumerate all models within the given cube.
+     *
+     * @param pCube the bits of this number determine the polarity of the first predicates.
+     * @return the models as list of values for all important predicates.
+     */
+    private List<List<@Nullable Boolean>> enumerateCube(int pCube, int pDepth)
+        throws InterruptedException, SolverException {
+      BooleanFormulaManager bmgr = context.getFormulaManager().getBooleanFormulaManager();
+      List<BooleanFormula> cube = new ArrayList<>();
+      for (int i = 0; i < pDepth; i++) {
+        BooleanFormula predicate = important.get(i);
+        cube.add((pCube & (1 << i)) != 0 ? predicate : bmgr.not(predicate));
+      }
+      prover.push(bmgr.and(cube));
+      try {
+        return prover.allSat(
+            new AllSatCallback<>() {
+              private final List<List<@Nullable Boolean>> models = new ArrayList<>();
+
+              @Override
+              public void apply(List<BooleanFormula> pModel) {
+                @Nullable Boolean[] values = new Boolean[important.size()];
+                for (BooleanFormula literal : pModel) {
+                  Integer index = positiveIndex.get(literal);
+                  if (index != null) {
+                    values[index] = true;
+                  } else {
+                    values[checkNotNull(negativeIndex.get(literal))] = false;
+                  }
+                }
+                models.add(Arrays.asList(values));
+              }
+
+              @Override
+              public List<List<@Nullable Boolean>> getResult() {
+                return models;
+              }
+            },
+            important);
+      } finally {
+        prover.pop();
+      }
+    }
+
+    @Override
+    public void close() {
+      prover.close();
+      context.close();
+    }
+  }
+}
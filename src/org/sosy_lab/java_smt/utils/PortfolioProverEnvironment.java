@@ -0,0 +1,718 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiPredicate;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.ShutdownNotifier.ShutdownRequestListener;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.EnumerationFormula;
+import org.sosy_lab.java_smt.api.FloatingPointFormula;
+import org.sosy_lab.java_smt.api.FloatingPointNumber;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.StringFormula;
+
+/**
+ * A prover environment that runs several solvers in parallel and uses the first answer.
+ *
+ * <p>All constraints are given as formulas of a main {@link FormulaManager}, and are translated via
+ * {@link FormulaManager#translateFrom} into one separate {@link SolverContext} per solver of the
+ * portfolio. Each satisfiability check is started on all solvers concurrently. As soon as one
+ * solver answers, all other solvers are stopped via their {@link ShutdownNotifier}. Models and
+ * unsat cores are taken from the solver that answered first and are translated back into the main
+ * {@link FormulaManager}.
+ *
+ * <p>A stopped solver can not be used again, because a shutdown request can not be revoked. Its
+ * context is re-created before the next check, and all constraints of the current assertion stack
+ * are asserted again. A solver that fails with an exception is also re-created, and a solver that
+ * can not be created or can not handle the translated constraints is removed from the portfolio.
+ *
+ * <p>This class is not thread-safe. The main {@link FormulaManager} is only accessed from the
+ * thread that calls the methods of this class. Solvers that do not support using several contexts
+ * from different threads should not be part of a portfolio.
+ */
+public class PortfolioProverEnvironment implements ProverEnvironment {
+
+  private static final String SHUTDOWN_REASON = "another solver of the portfolio was faster";
+
+  private final FormulaManager mainManager;
+  private final Configuration config;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final ProverOptions[] options;
+  private final ExecutorService executor;
+
+  private final List<Member> members = new ArrayList<>();
+
+  /** The asserted constraints in the main manager, one list per level. */
+  private final List<List<BooleanFormula>> stack = new ArrayList<>();
+
+  /** The solver that answered the last satisfiability check, if the stack was not changed. */
+  private @Nullable Member winner = null;
+
+  private final Map<Solvers, Integer> wins = new EnumMap<>(Solvers.class);
+  private boolean closed = false;
+
+  /**
+   * Create a new portfolio with one new {@link SolverContext} per given solver.
+   *
+   * @param pMainManager the manager of all formulas that are given to and returned by this prover.
+   * @param pSolvers the solvers of the portfolio.
+   * @param pConfig the configuration for creating the solver contexts.
+   * @param pLogger the logger for the solver contexts.
+   * @param pShutdownNotifier a notifier for stopping all solvers of the portfolio.
+   * @param pOptions the options for all provers of the portfolio.
+   * @throws InvalidConfigurationException if one of the solvers can not be created.
+   */
+  public PortfolioProverEnvironment(
+      FormulaManager pMainManager,
+      List<Solvers> pSolvers,
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      ProverOptions... pOptions)
+      throws InvalidConfigurationException {
+    checkArgument(!pSolvers.isEmpty(), "portfolio requires at least one solver");
+    mainManager = checkNotNull(pMainManager);
+    config = checkNotNull(pConfig);
+    logger = checkNotNull(pLogger);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+    options = pOptions.clone();
+    executor =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setNameFormat("portfolio-solver-%d")
+                .setDaemon(true)
+                .build());
+    stack.add(new ArrayList<>());
+
+    try {
+      for (Solvers solver : pSolvers) {
+        Member member = new Member(solver);
+        members.add(member);
+        member.create();
+      }
+    } catch (InvalidConfigurationException | RuntimeException e) {
+      close();
+      throw e;
+    } catch (InterruptedException e) {
+      // can not happen, because there are no constraints to be asserted
+      close();
+      throw new AssertionError(e);
+    }
+  }
+
+  /** One solver of the portfolio with its own context and prover. */
+  private final class Member {
+
+    private final Solvers solver;
+    private @Nullable ShutdownManager shutdownManager;
+    private @Nullable ShutdownRequestListener parentListener;
+    private @Nullable SolverContext context;
+    private @Nullable ProverEnvironment prover;
+
+    /** Translators of non-Boolean formulas, e.g., for model queries. */
+    private @Nullable FormulaTranslator fromMain;
+
+    private @Nullable FormulaTranslator toMain;
+
+    /**
+     * Maps the translated constraints back to the original constraints, one map per level of the
+     * stack, such that the entries are dropped on {@link #pop()}.
+     */
+    private final List<Map<BooleanFormula, BooleanFormula>> originals = new ArrayList<>();
+
+    /** Maps the translated assumptions of the last check back to the original assumptions. */
+    private final Map<BooleanFormula, BooleanFormula> assumptionOriginals = new HashMap<>();
+
+    /** Whether the prover contains exactly the constraints of the current stack. */
+    private boolean valid = false;
+
+    /** Whether the solver was removed from the portfolio. */
+    private boolean disabled = false;
+
+    private Member(Solvers pSolver) {
+      solver = pSolver;
+    }
+
+    /** Create a new context and prover, and assert all constraints of the current stack. */
+    @SuppressWarnings("resource")
+    private void create() throws InvalidConfigurationException, InterruptedException {
+      release();
+      // not created with the notifier as parent, because its listener could not be unregistered
+      ShutdownManager manager = ShutdownManager.create();
+      shutdownManager = manager;
+      parentListener = manager::requestShutdown;
+      shutdownNotifier.registerAndCheckImmediately(parentListener);
+      context =
+          new SolverContextFactory(config, logger, manager.getNotifier()).generateContext(solver);
+      fromMain = new FormulaTranslator(mainManager, context.getFormulaManager());
+      toMain = new FormulaTranslator(context.getFormulaManager(), mainManager);
+      prover = context.newProverEnvironment(options);
+      originals.add(new HashMap<>());
+      for (int level = 0; level < stack.size(); level++) {
+        if (level > 0) {
+          push();
+        }
+        for (BooleanFormula constraint : stack.get(level)) {
+          addConstraint(constraint);
+        }
+      }
+      valid = true;
+    }
+
+    private void push() throws InterruptedException {
+      getProver().push();
+      originals.add(new HashMap<>());
+    }
+
+    private void pop() {
+      getProver().pop();
+      originals.remove(originals.size() - 1);
+    }
+
+    private void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+      BooleanFormula translated = getManager().translateFrom(pConstraint, mainManager);
+      getProver().addConstraint(translated);
+      Iterables.getLast(originals).put(translated, pConstraint);
+    }
+
+    /**
+     * Translate the assumptions of a check. They replace the assumptions of the previous check for
+     * the translation back into the main manager.
+     */
+    private ImmutableList<BooleanFormula> translateAssumptions(
+        Collection<BooleanFormula> pAssumptions) {
+      assumptionOriginals.clear();
+      ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
+      for (BooleanFormula assumption : pAssumptions) {
+        BooleanFormula translated = getManager().translateFrom(assumption, mainManager);
+        assumptionOriginals.put(translated, assumption);
+        result.add(translated);
+      }
+      return result.build();
+    }
+
+    private BooleanFormula translateBack(BooleanFormula pFormula) {
+      BooleanFormula original = assumptionOriginals.get(pFormula);
+      for (int level = originals.size() - 1; original == null && level >= 0; level--) {
+        original = originals.get(level).get(pFormula);
+      }
+      return original != null ? original : mainManager.translateFrom(pFormula, getManager());
+    }
+
+    /** Translate a formula of the main manager that is not remembered, e.g., a model query. */
+    @SuppressWarnings("unchecked")
+    private <T extends Formula> T translateQuery(T pFormula) {
+      if (pFormula instanceof BooleanFormula) {
+        return (T) getManager().translateFrom((BooleanFormula) pFormula, mainManager);
+      }
+      return checkNotNull(fromMain).translate(pFormula);
+    }
+
+    /** Translate a formula of this solver into the main manager, e.g., a value of a model. */
+    @SuppressWarnings("unchecked")
+    private <T extends Formula> T translateResult(T pFormula) {
+      if (pFormula instanceof BooleanFormula) {
+        return (T) mainManager.translateFrom((BooleanFormula) pFormula, getManager());
+      }
+      return checkNotNull(toMain).translate(pFormula);
+    }
+
+    private FormulaManager getManager() {
+      return checkNotNull(context).getFormulaManager();
+    }
+
+    private ProverEnvironment getProver() {
+      return checkNotNull(prover);
+    }
+
+    private void release() {
+      valid = false;
+      originals.clear();
+      assumptionOriginals.clear();
+      fromMain = null;
+      toMain = null;
+      if (parentListener != null) {
+        shutdownNotifier.unregister(parentListener);
+        parentListener = null;
+      }
+      if (prover != null) {
+        prover.close();
+        prover = null;
+      }
+      if (context != null) {
+        context.close();
+        context = null;
+      }
+    }
+  }
+
+  /**
+   * A satisfiability check for one solver. The preparation is done in the calling thread and may
+   * access the main manager, the returned task is run in parallel to the other solvers.
+   */
+  @FunctionalInterface
+  private interface Check<R> {
+    Callable<R> prepare(Member member);
+  }
+
+  /**
+   * Run the given check on all solvers of the portfolio and return the first result. All other
+   * solvers are stopped and will be re-created before their next use.
+   */
+  private <R> R race(Check<R> pCheck) throws SolverException, InterruptedException {
+    checkState(!closed);
+    winner = null;
+
+    Map<Member, Callable<R>> tasks = new LinkedHashMap<>();
+    for (Member member : members) {
+      if (prepare(member)) {
+        try {
+          tasks.put(member, pCheck.prepare(member));
+        } catch (RuntimeException e) {
+          disable(member, e);
+        }
+      }
+    }
+    if (tasks.isEmpty()) {
+      throw new SolverException("No solver of the portfolio is available.");
+    }
+
+    CompletionService<R> completionService = new ExecutorCompletionService<>(executor);
+    Map<Future<R>, Member> running = new LinkedHashMap<>();
+    for (Map.Entry<Member, Callable<R>> task : tasks.entrySet()) {
+      running.put(completionService.submit(task.getValue()), task.getKey());
+    }
+
+    R result = null;
+    Member first = null;
+    List<Throwable> failures = new ArrayList<>();
+    try {
+      for (int i = 0; i < running.size() && first == null; i++) {
+        Future<R> future = completionService.take();
+        try {
+          result = future.get();
+          first = running.get(future);
+        } catch (ExecutionException e) {
+          failures.add(e.getCause());
+          checkNotNull(running.get(future)).valid = false;
+        }
+      }
+    } finally {
+      stopOthers(running, first);
+    }
+
+    if (first == null) {
+      shutdownNotifier.shutdownIfNecessary();
+      SolverException exception = new SolverException("All solvers of the portfolio failed.");
+      failures.forEach(exception::addSuppressed);
+      throw exception;
+    }
+    winner = first;
+    wins.merge(first.solver, 1, Integer::sum);
+    return result;
+  }
+
+  /**
+   * Make sure that the given solver contains all constraints of the current stack.
+   *
+   * @return whether the solver can be used.
+   */
+  private boolean prepare(Member pMember) throws InterruptedException {
+    if (pMember.disabled) {
+      return false;
+    }
+    if (!pMember.valid) {
+      try {
+        pMember.create();
+      } catch (InvalidConfigurationException | RuntimeException e) {
+        disable(pMember, e);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void disable(Member pMember, Exception pReason) {
+    logger.logUserException(
+        Level.WARNING, pReason, "Removing solver " + pMember.solver + " from portfolio");
+    pMember.release();
+    pMember.disabled = true;
+  }
+
+  /** Stop all running solvers except the given one and wait until they are terminated. */
+  private <R> void stopOthers(Map<Future<R>, Member> pRunning, @Nullable Member pWinner) {
+    for (Map.Entry<Future<R>, Member> entry : pRunning.entrySet()) {
+      Member member = entry.getValue();
+      if (member != pWinner && !entry.getKey().isDone()) {
+        checkNotNull(member.shutdownManager).requestShutdown(SHUTDOWN_REASON);
+        member.valid = false;
+      }
+    }
+    // the solvers must not be used or closed while they are still running
+    for (Future<R> future : pRunning.keySet()) {
+      try {
+        Uninterruptibles.getUninterruptibly(future);
+      } catch (ExecutionException e) {
+        // ignore, the solver was stopped or has already failed
+      }
+    }
+  }
+
+  private Member getWinner() {
+    checkState(!closed);
+    checkState(winner != null, "No satisfiability check was done for the current stack.");
+    return winner;
+  }
+
+  /**
+   * Returns the solver that answered the last satisfiability check, or nothing if the stack was
+   * changed since then.
+   */
+  public Optional<Solvers> getLastWinner() {
+    return winner == null ? Optional.empty() : Optional.of(winner.solver);
+  }
+
+  /** Invalidate the last result and apply the given change of the stack to all valid solvers. */
+  private void changeStack(StackChange pChange) throws InterruptedException {
+    checkState(!closed);
+    winner = null;
+    for (Member member : members) {
+      if (member.valid) {
+        try {
+          pChange.apply(member);
+        } catch (RuntimeException e) {
+          // the solver will be re-created before its next use
+          member.valid = false;
+        } catch (InterruptedException e) {
+          member.valid = false;
+          throw e;
+        }
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface StackChange {
+    void apply(Member member) throws InterruptedException;
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    checkState(!closed);
+    stack.add(new ArrayList<>());
+    changeStack(Member::push);
+  }
+
+  @Override
+  public void pop() {
+    checkState(!closed);
+    checkState(stack.size() > 1, "initial level must remain until close");
+    stack.remove(stack.size() - 1);
+    try {
+      changeStack(Member::pop);
+    } catch (InterruptedException e) {
+      throw new AssertionError("pop is not interruptible", e);
+    }
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    checkState(!closed);
+    Iterables.getLast(stack).add(pConstraint);
+    changeStack(member -> member.addConstraint(pConstraint));
+    return null;
+  }
+
+  @Override
+  public int size() {
+    checkState(!closed);
+    return stack.size() - 1;
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return race(member -> member.getProver()::isUnsat);
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    return race(
+        member -> {
+          List<BooleanFormula> assumptions = member.translateAssumptions(pAssumptions);
+          return () -> member.getProver().isUnsatWithAssumptions(assumptions);
+        });
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    Optional<List<BooleanFormula>> core =
+        race(
+            member -> {
+              List<BooleanFormula> assumptions = member.translateAssumptions(pAssumptions);
+              return () -> member.getProver().unsatCoreOverAssumptions(assumptions);
+            });
+    if (core.isPresent()) {
+      return Optional.of(translateBack(getWinner(), core.orElseThrow()));
+    }
+    return Optional.empty();
+  }
+
+  private ImmutableList<BooleanFormula> translateBack(
+      Member pMember, Collection<BooleanFormula> pFormulas) {
+    ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
+    for (BooleanFormula f : pFormulas) {
+      result.add(pMember.translateBack(f));
+    }
+    return result.build();
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    Member member = getWinner();
+    return new PortfolioModel(member, member.getProver().getModel());
+  }
+
+  @Override
+  public ImmutableList<Model.ValueAssignment> getModelAssignments() throws SolverException {
+    try (Model model = getModel()) {
+      return model.asList();
+    }
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    Member member = getWinner();
+    return translateBack(member, member.getProver().getUnsatCore());
+  }
+
+  /**
+   * Enumerate all models with the first available solver of the portfolio. This is not done in
+   * parallel, because the callback is not expected to be thread-safe.
+   */
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    checkState(!closed);
+    winner = null;
+    for (Member member : members) {
+      if (prepare(member)) {
+        List<BooleanFormula> important = member.translateAssumptions(pImportant);
+        return member
+            .getProver()
+            .allSat(
+                new AllSatCallback<R>() {
+                  @Override
+                  public void apply(List<BooleanFormula> pModel) {
+                    pCallback.apply(translateBack(member, pModel));
+                  }
+
+                  @Override
+                  public R getResult() throws InterruptedException {
+                    return pCallback.getResult();
+                  }
+                },
+                important);
+      }
+    }
+    throw new SolverException("No solver of the portfolio is available.");
+  }
+
+  /**
+   * Returns the number of wins per solver, i.e., how often each solver answered first, and the
+   * solver statistics of the last winner.
+   */
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    checkState(!closed);
+    ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+    for (Map.Entry<Solvers, Integer> entry : wins.entrySet()) {
+      builder.put("wins." + entry.getKey(), entry.getValue().toString());
+    }
+    Member lastWinner = winner;
+    if (lastWinner != null) {
+      lastWinner
+          .getProver()
+          .getStatistics()
+          .forEach((k, v) -> builder.put(lastWinner.solver + "." + k, v));
+    }
+    return builder.buildOrThrow();
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    winner = null;
+    executor.shutdownNow();
+    for (Member member : members) {
+      member.release();
+    }
+    members.clear();
+    stack.clear();
+  }
+
+  @Override
+  public String toString() {
+    return "PortfolioProverEnvironment" + stack;
+  }
+
+  /**
+   * A model of one solver of the portfolio. Queries are translated into the context of the solver,
+   * evaluated there, and the results are translated back into the main manager.
+   */
+  private final class PortfolioModel implements Model {
+
+    private final Member member;
+    private final Model delegate;
+
+    private PortfolioModel(Member pMember, Model pDelegate) {
+      member = pMember;
+      delegate = pDelegate;
+    }
+
+    @Override
+    public <T extends Formula> @Nullable T eval(T pFormula) {
+      T value = delegate.eval(member.translateQuery(pFormula));
+      return value == null ? null : member.translateResult(value);
+    }
+
+    @Override
+    public @Nullable Object evaluate(Formula pF) {
+      return delegate.evaluate(member.translateQuery(pF));
+    }
+
+    @Override
+    public @Nullable BigInteger evaluate(IntegerFormula pF) {
+      return delegate.evaluate(member.translateQuery(pF));
+    }
+
+    @Override
+    public @Nullable Rational evaluate(RationalFormula pF) {
+      return delegate.evaluate(member.translateQuery(pF));
+    }
+
+    @Override
+    public @Nullable Boolean evaluate(BooleanFormula pF) {
+      return delegate.evaluate(member.translateQuery(pF));
+    }
+
+    @Override
+    public @Nullable BigInteger evaluate(BitvectorFormula pF) {
+      return delegate.evaluate(member.translateQuery(pF));
+    }
+
+    @Override
+    public @Nullable String evaluate(StringFormula pF) {
+      return delegate.evaluate(member.translateQuery(pF));
+    }
+
+    @Override
+    public @Nullable String evaluate(EnumerationFormula pF) {
+      return delegate.evaluate(member.translateQuery(pF));
+    }
+
+    @Override
+    public @Nullable FloatingPointNumber evaluate(FloatingPointFormula pF) {
+      return delegate.evaluate(member.translateQuery(pF));
+    }
+
+    /** Translate all assignments of the model. */
+    @Override
+    public ImmutableList<ValueAssignment> asList() {
+      ImmutableList.Builder<ValueAssignment> builder = ImmutableList.builder();
+      for (ValueAssignment assignment : delegate.asList()) {
+        builder.add(translateAssignment(assignment));
+      }
+      return builder.build();
+    }
+
+    /** The types of the symbols are equal in both contexts, so the filter is applied directly. */
+    @Override
+    public Iterator<ValueAssignment> iterator(BiPredicate<String, FormulaType<?>> pSymbolFilter) {
+      return Iterators.transform(delegate.iterator(pSymbolFilter), this::translateAssignment);
+    }
+
+    /**
+     * Rebuild the assignment from its translated key and value formula. The translated assignment
+     * formula can not be used for this, because the manager might simplify it, e.g., from {@code a
+     * = true} to {@code a}.
+     */
+    private ValueAssignment translateAssignment(ValueAssignment assignment) {
+      return new ValueAssignment(
+          member.translateResult(assignment.getKey()),
+          member.translateResult(assignment.getValueAsFormula()),
+          member.translateResult(assignment.getAssignmentAsFormula()),
+          assignment.getName(),
+          assignment.getValue(),
+          assignment.getArgumentsInterpretation());
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
+}
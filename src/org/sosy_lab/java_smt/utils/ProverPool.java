@@ -0,0 +1,306 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.UserPropagator;
+
+/**
+ * A pool of reusable {@link ProverEnvironment}s for a single {@link SolverContext}.
+ *
+ * <p>Creating a new prover environment is expensive for several solvers, because a new native
+ * solver instance has to be created and configured. For many short queries, this pool hands out
+ * provers that were already used before. Provers are grouped by their set of {@link
+ * ProverOptions}, such that a prover is only reused for the same options it was created with.
+ *
+ * <p>Provers are obtained with {@link #acquire} and are returned to the pool by closing them,
+ * preferably using the try-with-resources syntax. On release, the assertion stack of the prover is
+ * reset to the empty stack by popping all levels. Provers are only returned to the pool if this
+ * reset succeeded and the pool contains less than the configured number of idle provers,
+ * otherwise the prover is closed.
+ *
+ * <p>The pool itself is thread-safe, the provers are not, i.e., each acquired prover must only be
+ * used by one thread at a time, and the usual restrictions of the used {@link SolverContext}
+ * apply.
+ */
+public class ProverPool implements AutoCloseable {
+
+  private final SolverContext context;
+  private final int maxIdleProvers;
+
+  /** Idle provers, grouped by the options they were created with. */
+  private final Map<Set<ProverOptions>, Deque<ProverEnvironment>> idleProvers = new HashMap<>();
+
+  private int numberOfIdleProvers = 0;
+  private int hits = 0;
+  private int misses = 0;
+  private int discarded = 0;
+  private boolean closed = false;
+
+  /**
+   * Create a new pool.
+   *
+   * @param pContext the context that is used to create new provers.
+   * @param pMaxIdleProvers the maximum number of idle provers that are kept in the pool. Provers
+   *     that are released while the pool is full are closed.
+   */
+  public ProverPool(SolverContext pContext, int pMaxIdleProvers) {
+    checkArgument(pMaxIdleProvers >= 0, "pool size must not be negative");
+    context = checkNotNull(pContext);
+    maxIdleProvers = pMaxIdleProvers;
+  }
+
+  /**
+   * Get a prover with an empty assertion stack and the given options, either from the pool or
+   * freshly created. The prover is returned to the pool when it is closed.
+   */
+  public synchronized ProverEnvironment acquire(ProverOptions... pOptions)
+      throws InterruptedException {
+    checkState(!closed, "pool is already closed");
+    Set<ProverOptions> key = toKey(pOptions);
+    Deque<ProverEnvironment> provers = idleProvers.get(key);
+    if (provers != null && !provers.isEmpty()) {
+      hits++;
+      numberOfIdleProvers--;
+      return new PooledProverEnvironment(provers.pop(), key);
+    }
+    misses++;
+    ProverEnvironment prover = context.newProverEnvironment(pOptions);
+    try {
+      prover.push(); // private level, see PooledProverEnvironment
+    } catch (InterruptedException e) {
+      prover.close();
+      throw e;
+    }
+    return new PooledProverEnvironment(prover, key);
+  }
+
+  private static Set<ProverOptions> toKey(ProverOptions... pOptions) {
+    Set<ProverOptions> key = EnumSet.noneOf(ProverOptions.class);
+    for (ProverOptions option : pOptions) {
+      key.add(checkNotNull(option));
+    }
+    return Sets.immutableEnumSet(key);
+  }
+
+  private synchronized void release(ProverEnvironment pProver, Set<ProverOptions> pKey) {
+    if (closed || numberOfIdleProvers >= maxIdleProvers) {
+      discarded++;
+      pProver.close();
+      return;
+    }
+    idleProvers.computeIfAbsent(pKey, k -> new ArrayDeque<>()).push(pProver);
+    numberOfIdleProvers++;
+  }
+
+  private synchronized void discard(ProverEnvironment pProver) {
+    discarded++;
+    pProver.close();
+  }
+
+  /** Returns the number of provers that are currently idle in the pool. */
+  public synchronized int getNumberOfIdleProvers() {
+    return numberOfIdleProvers;
+  }
+
+  /**
+   * Get statistics about the usage of the pool: the number of requests served from the pool
+   * (hits), the number of newly created provers (misses), and the number of provers that were
+   * closed on release instead of being kept (discarded).
+   */
+  public synchronized ImmutableMap<String, String> getStatistics() {
+    return ImmutableMap.of(
+        "hits", Integer.toString(hits),
+        "misses", Integer.toString(misses),
+        "discarded", Integer.toString(discarded),
+        "idle", Integer.toString(numberOfIdleProvers));
+  }
+
+  /**
+   * Close all idle provers. Provers that are still in use are closed when they are released. The
+   * underlying {@link SolverContext} is not closed.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    for (Deque<ProverEnvironment> provers : idleProvers.values()) {
+      provers.forEach(ProverEnvironment::close);
+    }
+    idleProvers.clear();
+    numberOfIdleProvers = 0;
+  }
+
+  /**
+   * A prover handed out by the pool. The first pushed level of the wrapped prover is kept private
+   * and is hidden from the user, such that all constraints of the user can be removed by popping,
+   * even those added on the initial level.
+   */
+  private final class PooledProverEnvironment implements ProverEnvironment {
+
+    private final ProverEnvironment delegate;
+    private final Set<ProverOptions> options;
+    private boolean reusable = true;
+    private boolean closed = false;
+
+    private PooledProverEnvironment(ProverEnvironment pDelegate, Set<ProverOptions> pOptions) {
+      delegate = pDelegate;
+      options = pOptions;
+    }
+
+    @Override
+    public Void push(BooleanFormula f) throws InterruptedException {
+      checkState(!closed);
+      return delegate.push(f);
+    }
+
+    @Override
+    public void pop() {
+      checkState(!closed);
+      checkState(size() > 0, "initial level must remain until close");
+      delegate.pop();
+    }
+
+    @Override
+    public Void addConstraint(BooleanFormula constraint) throws InterruptedException {
+      checkState(!closed);
+      return delegate.addConstraint(constraint);
+    }
+
+    @Override
+    public void push() throws InterruptedException {
+      checkState(!closed);
+      delegate.push();
+    }
+
+    @Override
+    public int size() {
+      checkState(!closed);
+      return delegate.size() - 1;
+    }
+
+    @Override
+    public boolean isUnsat() throws SolverException, InterruptedException {
+      checkState(!closed);
+      return delegate.isUnsat();
+    }
+
+    @Override
+    public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+        throws SolverException, InterruptedException {
+      checkState(!closed);
+      return delegate.isUnsatWithAssumptions(pAssumptions);
+    }
+
+    @Override
+    public Model getModel() throws SolverException {
+      checkState(!closed);
+      return delegate.getModel();
+    }
+
+    @Override
+    public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+      checkState(!closed);
+      return delegate.getModelAssignments();
+    }
+
+    @Override
+    public List<BooleanFormula> getUnsatCore() {
+      checkState(!closed);
+      return delegate.getUnsatCore();
+    }
+
+    @Override
+    public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+        Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+      checkState(!closed);
+      return delegate.unsatCoreOverAssumptions(pAssumptions);
+    }
+
+    @Override
+    public ImmutableMap<String, String> getStatistics() {
+      checkState(!closed);
+      return delegate.getStatistics();
+    }
+
+    @Override
+    public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+        throws InterruptedException, SolverException {
+      checkState(!closed);
+      return delegate.allSat(pCallback, pImportant);
+    }
+
+    @Override
+    public boolean registerUserPropagator(UserPropagator pPropagator) {
+      checkState(!closed);
+      boolean registered = delegate.registerUserPropagator(pPropagator);
+      if (registered) {
+        // a user propagator can not be unregistered, thus the prover can not be reused.
+        reusable = false;
+      }
+      return registered;
+    }
+
+    /** Reset the prover to an empty assertion stack and return it to the pool. */
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (reusable) {
+        try {
+          while (delegate.size() > 1) {
+            delegate.pop();
+          }
+          // remove the private level with all constraints that were added on the initial level
+          delegate.pop();
+          delegate.push();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          discard(delegate);
+          return;
+        } catch (RuntimeException e) {
+          // the prover is in an unexpected state and should not be reused
+          discard(delegate);
+          return;
+        }
+        release(delegate, options);
+      } else {
+        discard(delegate);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+  }
+}
@@ -0,0 +1,380 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Verify.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.IntegerFormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Solver-independent optimization on top of a {@link ProverEnvironment}, for solvers without a
+ * native {@link OptimizationProverEnvironment}.
+ *
+ * <p>Each objective is optimized by a sequence of incremental satisfiability checks. Starting from
+ * the value of the objective in a model, a bound that is strictly better is pushed onto the solver
+ * stack. If the bound is satisfiable, the value in the new model becomes the best known value,
+ * otherwise the bound limits the optimum. Objectives over bitvectors have a finite domain, in which
+ * the optimum is found by binary search. Objectives over integers are first improved with
+ * exponentially growing steps until a limit is found, followed by a binary search. An integer
+ * objective that can still be improved by more than 2^64 is reported as unbounded.
+ *
+ * <p>Several objectives are optimized lexicographically in the order of their creation: each
+ * optimal value is fixed before the next objective is optimized. Bitvector objectives are
+ * interpreted as unsigned numbers. Other types of objectives are not supported.
+ *
+ * <p>The bounds of the objectives are updated after each check of the search, such that {@link
+ * #lower} and {@link #upper} return progressively tightening bounds, also if the search is
+ * interrupted. The value epsilon is irrelevant for integers and bitvectors and thus ignored.
+ *
+ * <p>The given prover needs to be created with {@link ProverOptions#GENERATE_MODELS} and is closed
+ * together with this environment.
+ */
+public class SearchOptimizationProverEnvironment implements OptimizationProverEnvironment {
+
+  /** Integer objectives that can be improved by more than this distance are unbounded. */
+  private static final BigInteger UNBOUNDED_DISTANCE = BigInteger.ONE.shiftLeft(64);
+
+  private final ProverEnvironment prover;
+  private final FormulaManager fmgr;
+
+  /** All objectives, the index of an objective is its handle. */
+  private final List<Objective> objectives = new ArrayList<>();
+
+  /** Whether the prover contains the additional level with the constraints of the last search. */
+  private boolean hasSearchLevel = false;
+
+  public SearchOptimizationProverEnvironment(ProverEnvironment pProver, FormulaManager pFmgr) {
+    prover = checkNotNull(pProver);
+    fmgr = checkNotNull(pFmgr);
+  }
+
+  private void clearSearch() {
+    if (hasSearchLevel) {
+      prover.pop();
+      hasSearchLevel = false;
+    }
+  }
+
+  @Override
+  public int maximize(Formula pObjective) {
+    return addObjective(pObjective, true);
+  }
+
+  @Override
+  public int minimize(Formula pObjective) {
+    return addObjective(pObjective, false);
+  }
+
+  private int addObjective(Formula pObjective, boolean pMaximize) {
+    checkArgument(
+        pObjective instanceof IntegerFormula || pObjective instanceof BitvectorFormula,
+        "Only integer and bitvector objectives are supported, but got %s",
+        pObjective);
+    clearSearch();
+    objectives.add(new Objective(pObjective, pMaximize, prover.size()));
+    return objectives.size() - 1;
+  }
+
+  @Override
+  public OptStatus check() throws InterruptedException, SolverException {
+    clearSearch();
+    for (Objective objective : objectives) {
+      objective.best = null;
+      objective.limit = null;
+    }
+    prover.push();
+    hasSearchLevel = true;
+    if (prover.isUnsat()) {
+      return OptStatus.UNSAT;
+    }
+    for (Objective objective : objectives) {
+      BigInteger optimum = optimize(objective);
+      if (optimum == null) {
+        // all later objectives are irrelevant for an unbounded objective,
+        // but the last check of the search might have been unsatisfiable
+        verify(!prover.isUnsat(), "constraints without bound are unsatisfiable");
+        return OptStatus.OPT;
+      }
+      prover.addConstraint(makeBound(objective, optimum, true));
+      // the search for the next objective and the final model require a satisfiable solver stack
+      verify(
+          !prover.isUnsat(),
+          "optimal value %s of objective %s is unsatisfiable",
+          optimum,
+          objective.formula);
+    }
+    return OptStatus.OPT;
+  }
+
+  /**
+   * Optimizes the objective, starting with a satisfiable solver stack.
+   *
+   * @return the optimal value, or null if the objective is unbounded.
+   */
+  private @Nullable BigInteger optimize(Objective pObjective)
+      throws InterruptedException, SolverException {
+    BigInteger best = getValue(pObjective);
+    pObjective.best = best;
+    BigInteger limit = getDomainLimit(pObjective);
+
+    // exponential search for a limit of an unbounded domain
+    BigInteger step = BigInteger.ONE;
+    while (limit == null) {
+      if (step.compareTo(UNBOUNDED_DISTANCE) > 0) {
+        return null;
+      }
+      BigInteger probe = pObjective.improve(best, step);
+      BigInteger value = tryBound(pObjective, probe);
+      if (value == null) {
+        limit = pObjective.improve(probe, BigInteger.ONE.negate());
+        pObjective.limit = limit;
+      } else {
+        best = value;
+        pObjective.best = best;
+        step = step.shiftLeft(1);
+      }
+    }
+
+    // binary search between the best known value and the limit
+    pObjective.limit = limit;
+    while (!best.equals(limit)) {
+      BigInteger distance = limit.subtract(best).abs();
+      BigInteger probe = pObjective.improve(best, distance.add(BigInteger.ONE).shiftRight(1));
+      BigInteger value = tryBound(pObjective, probe);
+      if (value == null) {
+        limit = pObjective.improve(probe, BigInteger.ONE.negate());
+        pObjective.limit = limit;
+      } else {
+        best = value;
+        pObjective.best = best;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Checks whether the objective can reach the given value.
+   *
+   * @return the value of the objective in a model, or null if the value is not reachable.
+   */
+  private @Nullable BigInteger tryBound(Objective pObjective, BigInteger pValue)
+      throws InterruptedException, SolverException {
+    prover.push();
+    try {
+      prover.addConstraint(makeBound(pObjective, pValue, false));
+      return prover.isUnsat() ? null : getValue(pObjective);
+    } finally {
+      prover.pop();
+    }
+  }
+
+  /** Returns the value of the objective in the current model. */
+  private BigInteger getValue(Objective pObjective) throws SolverException {
+    BigInteger value;
+    try (Model model = prover.getModel()) {
+      if (pObjective.formula instanceof IntegerFormula) {
+        value = model.evaluate((IntegerFormula) pObjective.formula);
+      } else {
+        value = model.evaluate((BitvectorFormula) pObjective.formula);
+      }
+    }
+    // the objective does not depend on the constraints, thus any value is possible
+    return value == null ? BigInteger.ZERO : value;
+  }
+
+  /** Returns the best value of the domain of the objective, or null for an unbounded domain. */
+  private @Nullable BigInteger getDomainLimit(Objective pObjective) {
+    if (pObjective.formula instanceof IntegerFormula) {
+      return null;
+    }
+    if (!pObjective.maximize) {
+      return BigInteger.ZERO;
+    }
+    BitvectorFormulaManager bvmgr = fmgr.getBitvectorFormulaManager();
+    int length = bvmgr.getLength((BitvectorFormula) pObjective.formula);
+    return BigInteger.ONE.shiftLeft(length).subtract(BigInteger.ONE);
+  }
+
+  /**
+   * Returns the constraint that the objective has the given value, or, if not exact, that it is at
+   * least as good as the given value.
+   */
+  private BooleanFormula makeBound(Objective pObjective, BigInteger pValue, boolean pExact) {
+    if (pObjective.formula instanceof IntegerFormula) {
+      IntegerFormulaManager imgr = fmgr.getIntegerFormulaManager();
+      IntegerFormula objective = (IntegerFormula) pObjective.formula;
+      IntegerFormula value = imgr.makeNumber(pValue);
+      if (pExact) {
+        return imgr.equal(objective, value);
+      }
+      return pObjective.maximize
+          ? imgr.greaterOrEquals(objective, value)
+          : imgr.lessOrEquals(objective, value);
+    } else {
+      BitvectorFormulaManager bvmgr = fmgr.getBitvectorFormulaManager();
+      BitvectorFormula objective = (BitvectorFormula) pObjective.formula;
+      BitvectorFormula value = bvmgr.makeBitvector(bvmgr.getLength(objective), pValue);
+      if (pExact) {
+        return bvmgr.equal(objective, value);
+      }
+      return pObjective.maximize
+          ? bvmgr.greaterOrEquals(objective, value, false)
+          : bvmgr.lessOrEquals(objective, value, false);
+    }
+  }
+
+  @Override
+  public Optional<Rational> upper(int pHandle, Rational pEpsilon) {
+    Objective objective = objectives.get(pHandle);
+    return toRational(objective.maximize ? objective.limit : objective.best);
+  }
+
+  @Override
+  public Optional<Rational> lower(int pHandle, Rational pEpsilon) {
+    Objective objective = objectives.get(pHandle);
+    return toRational(objective.maximize ? objective.best : objective.limit);
+  }
+
+  private static Optional<Rational> toRational(@Nullable BigInteger pValue) {
+    return pValue == null ? Optional.empty() : Optional.of(Rational.ofBigInteger(pValue));
+  }
+
+  @Override
+  public void pop() {
+    clearSearch();
+    prover.pop();
+    int level = prover.size();
+    while (!objectives.isEmpty() && objectives.get(objectives.size() - 1).level > level) {
+      objectives.remove(objectives.size() - 1);
+    }
+  }
+
+  @Override
+  public Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    clearSearch();
+    return prover.addConstraint(pConstraint);
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    clearSearch();
+    prover.push();
+  }
+
+  @Override
+  public int size() {
+    return hasSearchLevel ? prover.size() - 1 : prover.size();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    clearSearch();
+    return prover.isUnsat();
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    clearSearch();
+    return prover.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    return prover.getModel();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    return prover.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    return prover.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    clearSearch();
+    return prover.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    clearSearch();
+    return prover.allSat(pCallback, pImportant);
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return prover.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    prover.close();
+  }
+
+  @Override
+  public String toString() {
+    return prover.toString();
+  }
+
+  /** An objective with the best known value and the limit of its optimum. */
+  private static final class Objective {
+    private final Formula formula;
+    private final boolean maximize;
+
+    /** Size of the solver stack when the objective was added. */
+    private final int level;
+
+    /** Value of the objective in the best known model, or null if unknown. */
+    private @Nullable BigInteger best;
+
+    /** Bound that no model can improve on, or null if unknown or unbounded. */
+    private @Nullable BigInteger limit;
+
+    private Objective(Formula pFormula, boolean pMaximize, int pLevel) {
+      formula = pFormula;
+      maximize = pMaximize;
+      level = pLevel;
+    }
+
+    /** Returns the value that is better than the given value by the given distance. */
+    private BigInteger improve(BigInteger pValue, BigInteger pDistance) {
+      return maximize ? pValue.add(pDistance) : pValue.subtract(pDistance);
+    }
+  }
+}
@@ -0,0 +1,314 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Post-processing of interpolants to reduce their size, on top of any {@link
+ * InterpolatingProverEnvironment}.
+ *
+ * <p>Each interpolant is first simplified with {@link FormulaManager#simplify}. Afterwards,
+ * redundant operands of the top-level conjunction or disjunction are removed, i.e., conjuncts that
+ * are implied by the other conjuncts and disjuncts that imply the other disjuncts. Finally, a
+ * previously returned interpolant with the same symbols is reused if it is smaller and equivalent.
+ * All implications are checked on a separate prover of the same context.
+ *
+ * <p>Each step preserves the equivalence of the interpolant. Thus, the shrinking is sound for
+ * sequences and trees of interpolants, too. The sizes of the interpolants before and after
+ * shrinking, measured as number of distinct sub-formulas, are reported by {@link #getStatistics()}.
+ */
+public class ShrinkingInterpolatingProverEnvironment<T>
+    implements InterpolatingProverEnvironment<T> {
+
+  /** Maximal number of previous interpolants that are kept as candidates for the same symbols. */
+  private static final int MAX_CANDIDATES_PER_SYMBOLS = 8;
+
+  /** Maximal number of symbol sets with candidates, the least recently used one is evicted. */
+  private static final int MAX_CANDIDATE_SYMBOL_SETS = 1000;
+
+  private final InterpolatingProverEnvironment<T> delegate;
+  private final SolverContext context;
+  private final FormulaManager fmgr;
+  private final BooleanFormulaManager bmgr;
+
+  /** Prover for checking implications, created on first use. */
+  private @Nullable ProverEnvironment sideProver;
+
+  /**
+   * Previously returned interpolants, grouped by their symbols. Candidates stay valid independent
+   * of the assertion stack, so the map is not cleared on {@link #pop()}, but bounded in size.
+   */
+  private final Map<Set<String>, List<BooleanFormula>> candidates =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Set<String>, List<BooleanFormula>> pEldest) {
+          return size() > MAX_CANDIDATE_SYMBOL_SETS;
+        }
+      };
+
+  private int processedInterpolants = 0;
+  private int reusedInterpolants = 0;
+  private long sizeBefore = 0;
+  private long sizeAfter = 0;
+
+  public ShrinkingInterpolatingProverEnvironment(
+      InterpolatingProverEnvironment<T> pDelegate, SolverContext pContext) {
+    delegate = checkNotNull(pDelegate);
+    context = checkNotNull(pContext);
+    fmgr = pContext.getFormulaManager();
+    bmgr = fmgr.getBooleanFormulaManager();
+  }
+
+  @Override
+  public BooleanFormula getInterpolant(Collection<T> pFormulasOfA)
+      throws SolverException, InterruptedException {
+    return shrink(delegate.getInterpolant(pFormulasOfA));
+  }
+
+  @Override
+  public List<BooleanFormula> getSeqInterpolants(List<? extends Collection<T>> pPartitionedFormulas)
+      throws SolverException, InterruptedException {
+    return shrink(delegate.getSeqInterpolants(pPartitionedFormulas));
+  }
+
+  @Override
+  public List<BooleanFormula> getTreeInterpolants(
+      List<? extends Collection<T>> pPartitionedFormulas, int[] pStartOfSubTree)
+      throws SolverException, InterruptedException {
+    return shrink(delegate.getTreeInterpolants(pPartitionedFormulas, pStartOfSubTree));
+  }
+
+  private List<BooleanFormula> shrink(List<BooleanFormula> pInterpolants)
+      throws SolverException, InterruptedException {
+    List<BooleanFormula> result = new ArrayList<>(pInterpolants.size());
+    for (BooleanFormula itp : pInterpolants) {
+      result.add(shrink(itp));
+    }
+    return result;
+  }
+
+  private BooleanFormula shrink(BooleanFormula pInterpolant)
+      throws SolverException, InterruptedException {
+    int originalSize = getSize(pInterpolant);
+    BooleanFormula itp = pInterpolant;
+
+    BooleanFormula simplified = fmgr.simplify(itp);
+    if (getSize(simplified) < originalSize) {
+      itp = simplified;
+    }
+    itp = removeRedundantOperands(itp);
+    itp = reuseCandidate(itp);
+
+    int size = getSize(itp);
+    processedInterpolants++;
+    sizeBefore += originalSize;
+    sizeAfter += size;
+    return itp;
+  }
+
+  /** Removes conjuncts implied by other conjuncts, or disjuncts implying other disjuncts. */
+  private BooleanFormula removeRedundantOperands(BooleanFormula pFormula)
+      throws SolverException, InterruptedException {
+    Set<BooleanFormula> conjuncts = bmgr.toConjunctionArgs(pFormula, true);
+    if (conjuncts.size() > 1) {
+      List<BooleanFormula> kept = new ArrayList<>(conjuncts);
+      for (int i = kept.size() - 1; i >= 0; i--) {
+        BooleanFormula conjunct = kept.remove(i);
+        if (!implies(bmgr.and(kept), conjunct)) {
+          kept.add(i, conjunct);
+        }
+      }
+      return kept.size() < conjuncts.size() ? bmgr.and(kept) : pFormula;
+    }
+
+    Set<BooleanFormula> disjuncts = bmgr.toDisjunctionArgs(pFormula, true);
+    if (disjuncts.size() > 1) {
+      List<BooleanFormula> kept = new ArrayList<>(disjuncts);
+      for (int i = kept.size() - 1; i >= 0; i--) {
+        BooleanFormula disjunct = kept.remove(i);
+        if (!implies(disjunct, bmgr.or(kept))) {
+          kept.add(i, disjunct);
+        }
+      }
+      return kept.size() < disjuncts.size() ? bmgr.or(kept) : pFormula;
+    }
+    return pFormula;
+  }
+
+  /** Returns a smaller equivalent interpolant from the candidates, or remembers the given one. */
+  private BooleanFormula reuseCandidate(BooleanFormula pFormula)
+      throws SolverException, InterruptedException {
+    List<BooleanFormula> previous =
+        candidates.computeIfAbsent(
+            fmgr.extractVariablesAndUFs(pFormula).keySet(), k -> new ArrayList<>());
+    if (previous.contains(pFormula)) {
+      reusedInterpolants++;
+      return pFormula;
+    }
+    int size = getSize(pFormula);
+    for (BooleanFormula candidate : previous) {
+      if (getSize(candidate) < size
+          && implies(pFormula, candidate)
+          && implies(candidate, pFormula)) {
+        reusedInterpolants++;
+        return candidate;
+      }
+    }
+    if (previous.size() < MAX_CANDIDATES_PER_SYMBOLS) {
+      previous.add(pFormula);
+    }
+    return pFormula;
+  }
+
+  private boolean implies(BooleanFormula pPremise, BooleanFormula pConclusion)
+      throws SolverException, InterruptedException {
+    ProverEnvironment prover = sideProver;
+    if (prover == null) {
+      prover = context.newProverEnvironment();
+      sideProver = prover;
+    }
+    prover.push();
+    try {
+      prover.addConstraint(pPremise);
+      prover.addConstraint(bmgr.not(pConclusion));
+      return prover.isUnsat();
+    } finally {
+      prover.pop();
+    }
+  }
+
+  /** Returns the number of distinct sub-formulas of the formula. */
+  private int getSize(Formula pFormula) {
+    int[] size = {0};
+    fmgr.visitRecursively(
+        pFormula,
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula pF) {
+            size[0]++;
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    return size[0];
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    Map<String, String> statistics = new LinkedHashMap<>(delegate.getStatistics());
+    statistics.put("javasmt.processedInterpolants", Integer.toString(processedInterpolants));
+    statistics.put("javasmt.reusedInterpolants", Integer.toString(reusedInterpolants));
+    statistics.put("javasmt.interpolantSizeBefore", Long.toString(sizeBefore));
+    statistics.put("javasmt.interpolantSizeAfter", Long.toString(sizeAfter));
+    return ImmutableMap.copyOf(statistics);
+  }
+
+  @Override
+  public void pop() {
+    delegate.pop();
+  }
+
+  @Override
+  public @Nullable T addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    return delegate.addConstraint(pConstraint);
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    delegate.push();
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return delegate.isUnsat();
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    return delegate.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    return delegate.getModel();
+  }
+
+  @Override
+  public Evaluator getEvaluator() throws SolverException {
+    return delegate.getEvaluator();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    return delegate.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    return delegate.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    return delegate.allSat(pCallback, pImportant);
+  }
+
+  @Override
+  public void close() {
+    if (sideProver != null) {
+      sideProver.close();
+      sideProver = null;
+    }
+    delegate.close();
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
@@ -0,0 +1,533 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Appender;
+import org.sosy_lab.common.Appenders.AbstractAppender;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FloatingPointNumber;
+import org.sosy_lab.java_smt.api.FloatingPointRoundingMode;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Solver-independent printer for formulas in SMT-LIB2 format, which writes directly into an {@link
+ * Appendable}, e.g., a buffered {@link Writer} of a file.
+ *
+ * <p>The printer traverses the formula iteratively with a {@link FormulaVisitor}, such that even
+ * deep formulas do not overflow the stack. Sub-formulas that occur several times are printed only
+ * once and bound to a name with {@code let}. Shared sub-formulas with the same nesting depth are
+ * bound in the same {@code let}, such that the nesting of {@code let}s is bounded by the depth of
+ * the formula. Apart from the traversed formula DAG, no intermediate String representation of the
+ * formula is built.
+ *
+ * <p>Operations are printed by their {@link FunctionDeclarationKind}. Quantified formulas,
+ * solver-specific operations, e.g., of kind {@link FunctionDeclarationKind#OTHER}, and operations
+ * with indices that can not be derived from their types, e.g., bitvector extraction, are not
+ * supported.
+ */
+public class SmtLib2Printer {
+
+  /** Simple symbols of SMT-LIB2 that do not need to be quoted. */
+  private static final Pattern SIMPLE_SYMBOL =
+      Pattern.compile("[a-zA-Z~!@$%^&*_+=<>.?/\\-][0-9a-zA-Z~!@$%^&*_+=<>.?/\\-]*");
+
+  private static final ImmutableSet<String> RESERVED_WORDS =
+      ImmutableSet.of(
+          "!", "_", "as", "exists", "forall", "let", "match", "par", "true", "false", "BINARY",
+          "DECIMAL", "HEXADECIMAL", "NUMERAL", "STRING");
+
+  /** Operations that are printed as a plain application of the given symbol. */
+  private static final ImmutableMap<FunctionDeclarationKind, String> OPERATORS =
+      ImmutableMap.<FunctionDeclarationKind, String>builder()
+          .put(FunctionDeclarationKind.AND, "and")
+          .put(FunctionDeclarationKind.OR, "or")
+          .put(FunctionDeclarationKind.NOT, "not")
+          .put(FunctionDeclarationKind.XOR, "xor")
+          .put(FunctionDeclarationKind.IMPLIES, "=>")
+          .put(FunctionDeclarationKind.IFF, "=")
+          .put(FunctionDeclarationKind.EQ, "=")
+          .put(FunctionDeclarationKind.DISTINCT, "distinct")
+          .put(FunctionDeclarationKind.ITE, "ite")
+          .put(FunctionDeclarationKind.SELECT, "select")
+          .put(FunctionDeclarationKind.STORE, "store")
+          .put(FunctionDeclarationKind.UMINUS, "-")
+          .put(FunctionDeclarationKind.SUB, "-")
+          .put(FunctionDeclarationKind.ADD, "+")
+          .put(FunctionDeclarationKind.MUL, "*")
+          .put(FunctionDeclarationKind.MODULO, "mod")
+          .put(FunctionDeclarationKind.LT, "<")
+          .put(FunctionDeclarationKind.LTE, "<=")
+          .put(FunctionDeclarationKind.GT, ">")
+          .put(FunctionDeclarationKind.GTE, ">=")
+          .put(FunctionDeclarationKind.FLOOR, "to_int")
+          .put(FunctionDeclarationKind.TO_REAL, "to_real")
+          .put(FunctionDeclarationKind.BV_CONCAT, "concat")
+          .put(FunctionDeclarationKind.BV_NOT, "bvnot")
+          .put(FunctionDeclarationKind.BV_NEG, "bvneg")
+          .put(FunctionDeclarationKind.BV_OR, "bvor")
+          .put(FunctionDeclarationKind.BV_AND, "bvand")
+          .put(FunctionDeclarationKind.BV_XOR, "bvxor")
+          .put(FunctionDeclarationKind.BV_SUB, "bvsub")
+          .put(FunctionDeclarationKind.BV_ADD, "bvadd")
+          .put(FunctionDeclarationKind.BV_SDIV, "bvsdiv")
+          .put(FunctionDeclarationKind.BV_UDIV, "bvudiv")
+          .put(FunctionDeclarationKind.BV_SREM, "bvsrem")
+          .put(FunctionDeclarationKind.BV_UREM, "bvurem")
+          .put(FunctionDeclarationKind.BV_SMOD, "bvsmod")
+          .put(FunctionDeclarationKind.BV_MUL, "bvmul")
+          .put(FunctionDeclarationKind.BV_ULT, "bvult")
+          .put(FunctionDeclarationKind.BV_SLT, "bvslt")
+          .put(FunctionDeclarationKind.BV_ULE, "bvule")
+          .put(FunctionDeclarationKind.BV_SLE, "bvsle")
+          .put(FunctionDeclarationKind.BV_UGT, "bvugt")
+          .put(FunctionDeclarationKind.BV_SGT, "bvsgt")
+          .put(FunctionDeclarationKind.BV_UGE, "bvuge")
+          .put(FunctionDeclarationKind.BV_SGE, "bvsge")
+          .put(FunctionDeclarationKind.BV_EQ, "=")
+          .put(FunctionDeclarationKind.BV_SHL, "bvshl")
+          .put(FunctionDeclarationKind.BV_LSHR, "bvlshr")
+          .put(FunctionDeclarationKind.BV_ASHR, "bvashr")
+          .put(FunctionDeclarationKind.FP_NEG, "fp.neg")
+          .put(FunctionDeclarationKind.FP_ABS, "fp.abs")
+          .put(FunctionDeclarationKind.FP_MAX, "fp.max")
+          .put(FunctionDeclarationKind.FP_MIN, "fp.min")
+          .put(FunctionDeclarationKind.FP_SQRT, "fp.sqrt")
+          .put(FunctionDeclarationKind.FP_SUB, "fp.sub")
+          .put(FunctionDeclarationKind.FP_ADD, "fp.add")
+          .put(FunctionDeclarationKind.FP_DIV, "fp.div")
+          .put(FunctionDeclarationKind.FP_MUL, "fp.mul")
+          .put(FunctionDeclarationKind.FP_LT, "fp.lt")
+          .put(FunctionDeclarationKind.FP_LE, "fp.leq")
+          .put(FunctionDeclarationKind.FP_GE, "fp.geq")
+          .put(FunctionDeclarationKind.FP_GT, "fp.gt")
+          .put(FunctionDeclarationKind.FP_EQ, "fp.eq")
+          .put(FunctionDeclarationKind.FP_ROUND_EVEN, "RNE")
+          .put(FunctionDeclarationKind.FP_ROUND_AWAY, "RNA")
+          .put(FunctionDeclarationKind.FP_ROUND_POSITIVE, "RTP")
+          .put(FunctionDeclarationKind.FP_ROUND_NEGATIVE, "RTN")
+          .put(FunctionDeclarationKind.FP_ROUND_ZERO, "RTZ")
+          .put(FunctionDeclarationKind.FP_ROUND_TO_INTEGRAL, "fp.roundToIntegral")
+          .put(FunctionDeclarationKind.FP_IS_NAN, "fp.isNaN")
+          .put(FunctionDeclarationKind.FP_IS_INF, "fp.isInfinite")
+          .put(FunctionDeclarationKind.FP_IS_ZERO, "fp.isZero")
+          .put(FunctionDeclarationKind.FP_IS_NEGATIVE, "fp.isNegative")
+          .put(FunctionDeclarationKind.FP_IS_SUBNORMAL, "fp.isSubnormal")
+          .put(FunctionDeclarationKind.FP_IS_NORMAL, "fp.isNormal")
+          .put(FunctionDeclarationKind.STR_CONCAT, "str.++")
+          .put(FunctionDeclarationKind.STR_PREFIX, "str.prefixof")
+          .put(FunctionDeclarationKind.STR_SUFFIX, "str.suffixof")
+          .put(FunctionDeclarationKind.STR_CONTAINS, "str.contains")
+          .put(FunctionDeclarationKind.STR_SUBSTRING, "str.substr")
+          .put(FunctionDeclarationKind.STR_REPLACE, "str.replace")
+          .put(FunctionDeclarationKind.STR_REPLACE_ALL, "str.replace_all")
+          .put(FunctionDeclarationKind.STR_CHAR_AT, "str.at")
+          .put(FunctionDeclarationKind.STR_LENGTH, "str.len")
+          .put(FunctionDeclarationKind.STR_INDEX_OF, "str.indexof")
+          .put(FunctionDeclarationKind.STR_TO_RE, "str.to_re")
+          .put(FunctionDeclarationKind.STR_IN_RE, "str.in_re")
+          .put(FunctionDeclarationKind.STR_TO_INT, "str.to_int")
+          .put(FunctionDeclarationKind.INT_TO_STR, "str.from_int")
+          .put(FunctionDeclarationKind.STR_LT, "str.<")
+          .put(FunctionDeclarationKind.STR_LE, "str.<=")
+          .put(FunctionDeclarationKind.RE_PLUS, "re.+")
+          .put(FunctionDeclarationKind.RE_STAR, "re.*")
+          .put(FunctionDeclarationKind.RE_OPTIONAL, "re.opt")
+          .put(FunctionDeclarationKind.RE_CONCAT, "re.++")
+          .put(FunctionDeclarationKind.RE_UNION, "re.union")
+          .put(FunctionDeclarationKind.RE_RANGE, "re.range")
+          .put(FunctionDeclarationKind.RE_INTERSECT, "re.inter")
+          .put(FunctionDeclarationKind.RE_COMPLEMENT, "re.comp")
+          .put(FunctionDeclarationKind.RE_DIFFERENCE, "re.diff")
+          .buildOrThrow();
+
+  private static final ImmutableMap<FloatingPointRoundingMode, String> ROUNDING_MODES =
+      ImmutableMap.of(
+          FloatingPointRoundingMode.NEAREST_TIES_TO_EVEN, "RNE",
+          FloatingPointRoundingMode.NEAREST_TIES_AWAY, "RNA",
+          FloatingPointRoundingMode.TOWARD_POSITIVE, "RTP",
+          FloatingPointRoundingMode.TOWARD_NEGATIVE, "RTN",
+          FloatingPointRoundingMode.TOWARD_ZERO, "RTZ");
+
+  private final FormulaManager fmgr;
+
+  public SmtLib2Printer(FormulaManager pFmgr) {
+    fmgr = checkNotNull(pFmgr);
+  }
+
+  /** Get an {@link Appender} that prints the formula like {@link #print}. */
+  public Appender asAppender(BooleanFormula pFormula) {
+    checkNotNull(pFormula);
+    return new AbstractAppender() {
+      @Override
+      public void appendTo(Appendable pOut) throws IOException {
+        print(pFormula, pOut);
+      }
+    };
+  }
+
+  /** Print the formula into the given file, which is overwritten. */
+  public void print(BooleanFormula pFormula, Path pFile) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(pFile, StandardCharsets.UTF_8)) {
+      print(pFormula, writer);
+    }
+  }
+
+  /**
+   * Print the declarations of all symbols in the formula, followed by one {@code assert} command
+   * for the formula.
+   *
+   * @throws UnsupportedOperationException if the formula contains quantifiers, operations that
+   *     can not be printed by their kind, or symbols that contain {@code |} or {@code \}.
+   */
+  public void print(BooleanFormula pFormula, Appendable pOut) throws IOException {
+    Dag dag = new Dag();
+    dag.collect(pFormula);
+
+    for (String declaration : dag.declarations.values()) {
+      pOut.append(declaration).append('\n');
+    }
+
+    // bind shared nodes level by level, each level only references names of lower levels
+    List<List<Formula>> levels = dag.getSharedNodesByLevel();
+    String prefix = getNamePrefix(dag.declarations.keySet());
+    int counter = 0;
+    pOut.append("(assert ");
+    for (List<Formula> level : levels) {
+      pOut.append("(let (");
+      for (Formula shared : level) {
+        Node node = checkNotNull(dag.nodes.get(shared));
+        node.name = prefix + counter++;
+        pOut.append('(').append(node.name).append(' ');
+        printTerm(dag, shared, pOut);
+        pOut.append(')');
+      }
+      pOut.append(") ");
+    }
+    printTerm(dag, pFormula, pOut);
+    for (int i = 0; i < levels.size(); i++) {
+      pOut.append(')');
+    }
+    pOut.append(")\n");
+  }
+
+  /** Choose a prefix for bound names that does not clash with any declared symbol. */
+  private static String getNamePrefix(Iterable<String> pSymbols) {
+    String prefix = ".cse";
+    boolean clash = true;
+    while (clash) {
+      clash = false;
+      for (String symbol : pSymbols) {
+        if (symbol.startsWith(prefix)) {
+          prefix = prefix + "_";
+          clash = true;
+          break;
+        }
+      }
+    }
+    return prefix;
+  }
+
+  /**
+   * Print the term of a node. Children that are already bound to a name are printed by their
+   * name. We use an explicit stack of formulas and Strings instead of recursion.
+   */
+  private static void printTerm(Dag pDag, Formula pFormula, Appendable pOut) throws IOException {
+    Deque<Object> stack = new ArrayDeque<>();
+    stack.push(pFormula);
+    boolean isRoot = true;
+    while (!stack.isEmpty()) {
+      Object next = stack.pop();
+      if (next instanceof String) {
+        pOut.append((String) next);
+        continue;
+      }
+      Node node = checkNotNull(pDag.nodes.get((Formula) next));
+      if (node.name != null && !isRoot) {
+        pOut.append(node.name);
+      } else {
+        pOut.append(node.open);
+        stack.push(node.close);
+        for (Formula child : node.children.reverse()) {
+          stack.push(child);
+          stack.push(" ");
+        }
+      }
+      isRoot = false;
+    }
+  }
+
+  /** Information about one node of the formula DAG. */
+  private static final class Node {
+
+    /** Text before the children, e.g., the operator with an opening parenthesis. */
+    private final String open;
+
+    /** Text after the children, e.g., a closing parenthesis. */
+    private final String close;
+
+    private final ImmutableList<Formula> children;
+
+    /** Number of references from parents. */
+    private int references = 0;
+
+    /** Maximal level of shared nodes below this node, or of this node if it is shared. */
+    private int level = 0;
+
+    /** The name this node is bound to, if it is shared and already printed. */
+    private @Nullable String name = null;
+
+    private Node(String pOpen, String pClose, ImmutableList<Formula> pChildren) {
+      open = pOpen;
+      close = pClose;
+      children = pChildren;
+    }
+
+    private static Node atom(String pText) {
+      return new Node(pText, "", ImmutableList.of());
+    }
+
+    private boolean isShared() {
+      return references > 1 && !children.isEmpty();
+    }
+  }
+
+  /** The nodes of a formula, collected by a single traversal. */
+  private final class Dag implements FormulaVisitor<Node> {
+
+    /** All nodes in post-order. */
+    private final Map<Formula, Node> nodes = new LinkedHashMap<>();
+
+    /** Declarations of all symbols, by their unquoted name. */
+    private final Map<String, String> declarations = new LinkedHashMap<>();
+
+    private void collect(Formula pFormula) {
+      Map<Formula, Node> pending = new HashMap<>();
+      Deque<Formula> stack = new ArrayDeque<>();
+      stack.push(pFormula);
+      while (!stack.isEmpty()) {
+        Formula f = stack.peek();
+        if (nodes.containsKey(f)) {
+          stack.pop();
+          continue;
+        }
+        Node node = pending.get(f);
+        if (node == null) {
+          node = fmgr.visit(f, this);
+          pending.put(f, node);
+          for (Formula child : node.children) {
+            stack.push(child);
+          }
+        } else {
+          // all children are already collected
+          stack.pop();
+          pending.remove(f);
+          for (Formula child : node.children) {
+            checkNotNull(nodes.get(child)).references++;
+          }
+          nodes.put(f, node);
+        }
+      }
+    }
+
+    /** Group all shared nodes by their level, starting with the lowest level. */
+    private List<List<Formula>> getSharedNodesByLevel() {
+      // the references are complete only after the traversal, thus we compute the levels here
+      List<List<Formula>> levels = new ArrayList<>();
+      for (Map.Entry<Formula, Node> entry : nodes.entrySet()) {
+        Node node = entry.getValue();
+        int level = 0;
+        for (Formula child : node.children) {
+          level = Math.max(level, checkNotNull(nodes.get(child)).level);
+        }
+        if (node.isShared()) {
+          level++;
+          while (levels.size() < level) {
+            levels.add(new ArrayList<>());
+          }
+          levels.get(level - 1).add(entry.getKey());
+        }
+        node.level = level;
+      }
+      return levels;
+    }
+
+    @Override
+    public Node visitFreeVariable(Formula f, String name) {
+      String symbol = quote(name);
+      declarations.putIfAbsent(
+          name,
+          String.format(
+              "(declare-fun %s () %s)", symbol, fmgr.getFormulaType(f).toSMTLIBString()));
+      return Node.atom(symbol);
+    }
+
+    @Override
+    public Node visitBoundVariable(Formula f, int deBruijnIdx) {
+      throw new UnsupportedOperationException("printing of bound variables is not supported");
+    }
+
+    @Override
+    public Node visitConstant(Formula f, Object value) {
+      FormulaType<?> type = fmgr.getFormulaType(f);
+      if (value instanceof Boolean) {
+        return Node.atom(value.toString());
+      } else if (type.isBitvectorType() && value instanceof BigInteger) {
+        return Node.atom(String.format("(_ bv%s %d)", value, ((BitvectorType) type).getSize()));
+      } else if (value instanceof BigInteger) {
+        return Node.atom(printNumber((BigInteger) value, type.isRationalType()));
+      } else if (value instanceof Rational) {
+        Rational rational = (Rational) value;
+        if (rational.isIntegral()) {
+          return Node.atom(printNumber(rational.getNum(), type.isRationalType()));
+        }
+        String num = printNumber(rational.getNum(), true);
+        return Node.atom(String.format("(/ %s %s)", num, printNumber(rational.getDen(), true)));
+      } else if (value instanceof String) {
+        return Node.atom("\"" + ((String) value).replace("\"", "\"\"") + "\"");
+      } else if (value instanceof FloatingPointNumber) {
+        return Node.atom(printFloatingPoint((FloatingPointNumber) value));
+      } else if (value instanceof FloatingPointRoundingMode) {
+        return Node.atom(ROUNDING_MODES.get((FloatingPointRoundingMode) value));
+      }
+      throw new UnsupportedOperationException(
+          String.format("printing of constant %s of type %s is not supported", value, type));
+    }
+
+    @Override
+    public Node visitFunction(
+        Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+      FunctionDeclarationKind kind = functionDeclaration.getKind();
+      ImmutableList<Formula> children = ImmutableList.copyOf(args);
+      String operator = OPERATORS.get(kind);
+      if (operator == null) {
+        switch (kind) {
+          case UF:
+            operator = quote(functionDeclaration.getName());
+            declarations.putIfAbsent(
+                functionDeclaration.getName(), declareFunction(operator, functionDeclaration));
+            break;
+          case DIV:
+            operator = fmgr.getFormulaType(f).isIntegerType() ? "div" : "/";
+            break;
+          case EQ_ZERO:
+          case GTE_ZERO:
+            {
+              String zero = fmgr.getFormulaType(args.get(0)).isIntegerType() ? "0" : "0.0";
+              String op = kind == FunctionDeclarationKind.EQ_ZERO ? "(=" : "(>=";
+              return new Node(op, " " + zero + ")", children);
+            }
+          case BV_SIGN_EXTENSION:
+          case BV_ZERO_EXTENSION:
+            {
+              int size = ((BitvectorType) functionDeclaration.getType()).getSize();
+              int argSize = ((BitvectorType) fmgr.getFormulaType(args.get(0))).getSize();
+              operator =
+                  String.format(
+                      "(_ %s %d)",
+                      kind == FunctionDeclarationKind.BV_SIGN_EXTENSION
+                          ? "sign_extend"
+                          : "zero_extend",
+                      size - argSize);
+              break;
+            }
+          case CONST:
+            operator = "(as const " + functionDeclaration.getType().toSMTLIBString() + ")";
+            break;
+          default:
+            throw new UnsupportedOperationException(
+                String.format(
+                    "printing of operation %s of kind %s is not supported",
+                    functionDeclaration.getName(), kind));
+        }
+      }
+      if (children.isEmpty()) {
+        return Node.atom(operator);
+      }
+      return new Node("(" + operator, ")", children);
+    }
+
+    @Override
+    public Node visitQuantifier(
+        BooleanFormula f,
+        Quantifier quantifier,
+        List<Formula> boundVariables,
+        BooleanFormula body) {
+      throw new UnsupportedOperationException("printing of quantifiers is not supported");
+    }
+  }
+
+  /** Print a floating-point number as {@code (fp sign exponent mantissa)} with binary literals. */
+  private static String printFloatingPoint(FloatingPointNumber pNumber) {
+    String bits = pNumber.toString();
+    int exponentEnd = 1 + pNumber.getExponentSize();
+    return String.format(
+        "(fp #b%s #b%s #b%s)",
+        bits.substring(0, 1), bits.substring(1, exponentEnd), bits.substring(exponentEnd));
+  }
+
+  private static String declareFunction(String pName, FunctionDeclaration<?> pDeclaration) {
+    StringBuilder declaration = new StringBuilder("(declare-fun ").append(pName).append(" (");
+    for (FormulaType<?> argType : pDeclaration.getArgumentTypes()) {
+      declaration.append(argType.toSMTLIBString()).append(' ');
+    }
+    if (!pDeclaration.getArgumentTypes().isEmpty()) {
+      declaration.setLength(declaration.length() - 1);
+    }
+    return declaration
+        .append(") ")
+        .append(pDeclaration.getType().toSMTLIBString())
+        .append(')')
+        .toString();
+  }
+
+  private static String printNumber(BigInteger pValue, boolean pIsReal) {
+    String abs = pValue.abs().toString() + (pIsReal ? ".0" : "");
+    return pValue.signum() < 0 ? "(- " + abs + ")" : abs;
+  }
+
+  private static String quote(String pSymbol) {
+    if (SIMPLE_SYMBOL.matcher(pSymbol).matches() && !RESERVED_WORDS.contains(pSymbol)) {
+      return pSymbol;
+    }
+    if (pSymbol.indexOf('|') >= 0 || pSymbol.indexOf('\\') >= 0) {
+      // quoted symbols in SMT-LIB2 must not contain these characters
+      throw new UnsupportedOperationException(
+          String.format("printing of symbol %s is not supported", pSymbol));
+    }
+    return "|" + pSymbol + "|";
+  }
+}
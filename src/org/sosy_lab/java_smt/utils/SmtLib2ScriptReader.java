@@ -0,0 +1,312 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2024 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Streaming reader for SMT-LIB2 scripts, e.g., benchmarks or logged queries of a solver.
+ *
+ * <p>In contrast to {@link FormulaManager#parse(String)}, which requires the whole script as one
+ * String and returns one formula, this reader processes the script command by command and reports
+ * each asserted formula, as well as the commands {@code push}, {@code pop}, and {@code check-sat},
+ * to a {@link ScriptListener}. Each assertion is parsed with {@link FormulaManager#parse(String)}
+ * of the given manager, together with the declarations and definitions of the symbols it uses.
+ * Thus, the memory consumption is bounded by the declarations of the current scope and the largest
+ * single command.
+ *
+ * <p>Declarations are scoped by {@code push} and {@code pop}, and {@code reset} removes all of
+ * them. Other commands like {@code set-logic}, {@code set-option}, or {@code get-model} are
+ * ignored.
+ */
+public class SmtLib2ScriptReader {
+
+  /** Commands whose second token is the symbol that is declared or defined by the command. */
+  private static final ImmutableSet<String> DECLARING_COMMANDS =
+      ImmutableSet.of(
+          "declare-fun",
+          "declare-const",
+          "define-fun",
+          "define-fun-rec",
+          "declare-sort",
+          "define-sort",
+          "declare-datatype");
+
+  /** Receiver of the commands of a script. */
+  public interface ScriptListener {
+
+    /** Called for each {@code assert} command with the parsed formula. */
+    void assertFormula(BooleanFormula pFormula) throws SolverException, InterruptedException;
+
+    /** Called for each {@code push} command with the number of pushed levels. */
+    default void push(int pLevels) throws SolverException, InterruptedException {}
+
+    /** Called for each {@code pop} command with the number of popped levels. */
+    default void pop(int pLevels) throws SolverException, InterruptedException {}
+
+    /** Called for each {@code check-sat} command. */
+    default void checkSat() throws SolverException, InterruptedException {}
+  }
+
+  private final FormulaManager fmgr;
+
+  /** Declarations of the current scope, in the order of the script. */
+  private final List<Declaration> declarations = new ArrayList<>();
+
+  private final Map<String, Declaration> declarationsByName = new HashMap<>();
+
+  /** Number of declarations at each pushed level. */
+  private final Deque<Integer> scopes = new ArrayDeque<>();
+
+  public SmtLib2ScriptReader(FormulaManager pFmgr) {
+    fmgr = checkNotNull(pFmgr);
+  }
+
+  /** Read the script from the given file, see {@link #read(Reader, ScriptListener)}. */
+  public void read(Path pFile, ScriptListener pListener)
+      throws IOException, SolverException, InterruptedException {
+    try (Reader reader = Files.newBufferedReader(pFile, StandardCharsets.UTF_8)) {
+      read(reader, pListener);
+    }
+  }
+
+  /**
+   * Read all commands from the given reader and report them to the listener. Declarations are kept
+   * across calls, such that a script can be split into several parts. The reader is not closed.
+   *
+   * @throws IllegalArgumentException if the script or an asserted formula is invalid.
+   */
+  public void read(Reader pReader, ScriptListener pListener)
+      throws IOException, SolverException, InterruptedException {
+    BufferedReader reader =
+        pReader instanceof BufferedReader ? (BufferedReader) pReader : new BufferedReader(pReader);
+    String command;
+    while ((command = readCommand(reader)) != null) {
+      handleCommand(command, pListener);
+    }
+  }
+
+  private void handleCommand(String pCommand, ScriptListener pListener)
+      throws SolverException, InterruptedException {
+    List<String> tokens = tokenize(pCommand);
+    if (tokens.isEmpty()) {
+      return;
+    }
+    String name = tokens.get(0);
+    if (DECLARING_COMMANDS.contains(name)) {
+      checkScript(tokens.size() > 1, pCommand);
+      Declaration declaration =
+          new Declaration(tokens.get(1), pCommand, tokens, declarations.size());
+      declarations.add(declaration);
+      declarationsByName.put(declaration.symbol, declaration);
+    } else if (name.equals("assert")) {
+      pListener.assertFormula(fmgr.parse(withDeclarations(pCommand, tokens)));
+    } else if (name.equals("push")) {
+      int levels = getLevels(pCommand, tokens);
+      for (int i = 0; i < levels; i++) {
+        scopes.push(declarations.size());
+      }
+      pListener.push(levels);
+    } else if (name.equals("pop")) {
+      int levels = getLevels(pCommand, tokens);
+      checkScript(levels <= scopes.size(), pCommand);
+      int size = declarations.size();
+      for (int i = 0; i < levels; i++) {
+        size = scopes.pop();
+      }
+      removeDeclarations(size);
+      pListener.pop(levels);
+    } else if (name.equals("check-sat")) {
+      pListener.checkSat();
+    } else if (name.equals("reset")) {
+      scopes.clear();
+      removeDeclarations(0);
+    }
+  }
+
+  private void removeDeclarations(int pSize) {
+    while (declarations.size() > pSize) {
+      Declaration removed = declarations.remove(declarations.size() - 1);
+      declarationsByName.remove(removed.symbol, removed);
+    }
+  }
+
+  private static int getLevels(String pCommand, List<String> pTokens) {
+    if (pTokens.size() < 2) {
+      return 1;
+    }
+    try {
+      return Integer.parseInt(pTokens.get(1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("invalid number of levels in command " + pCommand, e);
+    }
+  }
+
+  /** Prefix the given command with all declarations that are (transitively) used by it. */
+  private String withDeclarations(String pCommand, List<String> pTokens) {
+    Set<Declaration> used = new HashSet<>();
+    Deque<String> waitlist = new ArrayDeque<>(pTokens);
+    while (!waitlist.isEmpty()) {
+      Declaration declaration = declarationsByName.get(waitlist.pop());
+      if (declaration != null && used.add(declaration)) {
+        waitlist.addAll(declaration.tokens);
+      }
+    }
+    StringBuilder query = new StringBuilder();
+    List<Declaration> sorted = new ArrayList<>(used);
+    sorted.sort(Comparator.comparingInt(d -> d.position)); // keep the order of the script
+    for (Declaration declaration : sorted) {
+      query.append(declaration.command).append('\n');
+    }
+    return query.append(pCommand).toString();
+  }
+
+  /**
+   * Read the next command, i.e., the next balanced parenthesized expression, without comments.
+   *
+   * @return the command, or null if the end of the input is reached.
+   */
+  private static @Nullable String readCommand(BufferedReader pReader) throws IOException {
+    StringBuilder command = new StringBuilder();
+    int depth = 0;
+    int c;
+    while ((c = pReader.read()) != -1) {
+      char ch = (char) c;
+      if (ch == ';') { // comment until end of line
+        pReader.readLine();
+        command.append('\n');
+        continue;
+      }
+      if (depth == 0 && ch != '(') {
+        checkScript(Character.isWhitespace(ch), "unexpected character outside of command");
+        continue;
+      }
+      command.append(ch);
+      if (ch == '"') {
+        readUntil(pReader, '"', command);
+      } else if (ch == '|') {
+        readUntil(pReader, '|', command);
+      } else if (ch == '(') {
+        depth++;
+      } else if (ch == ')') {
+        depth--;
+        if (depth == 0) {
+          return command.toString();
+        }
+      }
+    }
+    checkScript(depth == 0, "incomplete command at end of input");
+    return null;
+  }
+
+  /** Copy the input into the builder until the given end character (inclusive). */
+  private static void readUntil(BufferedReader pReader, char pEnd, StringBuilder pBuilder)
+      throws IOException {
+    int c;
+    while ((c = pReader.read()) != -1) {
+      pBuilder.append((char) c);
+      if (c == pEnd) {
+        // a doubled quote inside a string literal is an escaped quote and does not end it
+        if (pEnd == '"') {
+          pReader.mark(1);
+          if (pReader.read() == '"') {
+            pBuilder.append('"');
+            continue;
+          }
+          pReader.reset();
+        }
+        return;
+      }
+    }
+    throw new IllegalArgumentException("unterminated literal at end of input");
+  }
+
+  /**
+   * Split a command into its symbols and literals, ignoring parentheses and the content of string
+   * literals. Quoted symbols are returned without the quotes.
+   */
+  private static ImmutableList<String> tokenize(String pCommand) {
+    ImmutableList.Builder<String> tokens = ImmutableList.builder();
+    int length = pCommand.length();
+    int i = 0;
+    while (i < length) {
+      char c = pCommand.charAt(i);
+      if (c == '"') {
+        i = pCommand.indexOf('"', i + 1) + 1;
+        while (i > 0 && i < length && pCommand.charAt(i) == '"') { // escaped quote
+          i = pCommand.indexOf('"', i + 1) + 1;
+        }
+        if (i <= 0) {
+          i = length;
+        }
+      } else if (c == '|') {
+        int end = pCommand.indexOf('|', i + 1);
+        end = end < 0 ? length : end;
+        tokens.add(pCommand.substring(i + 1, end));
+        i = end + 1;
+      } else if (c == '(' || c == ')' || Character.isWhitespace(c)) {
+        i++;
+      } else {
+        int start = i;
+        while (i < length) {
+          char d = pCommand.charAt(i);
+          if (d == '(' || d == ')' || d == '"' || d == '|' || Character.isWhitespace(d)) {
+            break;
+          }
+          i++;
+        }
+        tokens.add(pCommand.substring(start, i));
+      }
+    }
+    return tokens.build();
+  }
+
+  private static void checkScript(boolean pCondition, String pMessage) {
+    if (!pCondition) {
+      throw new IllegalArgumentException("invalid SMT-LIB2 script: " + pMessage);
+    }
+  }
+
+  /** A command that declares or defines a symbol. */
+  private static final class Declaration {
+    private final String symbol;
+    private final String command;
+    private final List<String> tokens;
+    private final int position;
+
+    private Declaration(String pSymbol, String pCommand, List<String> pTokens, int pPosition) {
+      symbol = pSymbol;
+      command = pCommand;
+      tokens = pTokens;
+      position = pPosition;
+    }
+  }
+}